@@ -0,0 +1,83 @@
+package com.batataproductions.game.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.batataproductions.game.controller.entities.BigZombieBody;
+import com.batataproductions.game.controller.entities.BulletBody;
+import com.batataproductions.game.controller.entities.EntityBody;
+import com.batataproductions.game.controller.entities.FixtureCache;
+import com.batataproductions.game.controller.entities.MediumZombieBody;
+import com.batataproductions.game.controller.entities.PlayerBody;
+import com.batataproductions.game.controller.entities.SmallZombieBody;
+import com.batataproductions.game.model.entities.BulletModel;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.model.entities.ZombieModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating the body of an entity with its fixtures, as EntityBody.createFixtures() does from the
+ * cached fixture definitions, and destroying it. The world is stepped now and then to flush its broad-phase.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BodyCreationBenchmark {
+
+	@Param({"PLAYER", "SMALL_ZOMBIE", "MEDIUM_ZOMBIE", "BIG_ZOMBIE", "BULLET"})
+	public FixtureCache.BodyType type;
+
+	private World world;
+	private PlayerModel player;
+	private ZombieModel zombie;
+	private BulletModel bullet;
+	private int created;
+
+	@Setup
+	public void createWorld() {
+		world = new World(new Vector2(0, 0), true);
+		player = new PlayerModel(10, 10, 0);
+		zombie = new ZombieModel(10, 10, 0, ZombieModel.Sizes.MEDIUM);
+		bullet = new BulletModel(10, 10, 0);
+		FixtureCache.build();
+	}
+
+	@TearDown
+	public void disposeWorld() {
+		world.dispose();
+	}
+
+	@Benchmark
+	public void createBody() {
+		EntityBody body;
+		switch (type) {
+			case PLAYER:
+				body = new PlayerBody(world, player);
+				break;
+			case SMALL_ZOMBIE:
+				body = new SmallZombieBody(world, zombie);
+				break;
+			case MEDIUM_ZOMBIE:
+				body = new MediumZombieBody(world, zombie);
+				break;
+			case BIG_ZOMBIE:
+				body = new BigZombieBody(world, zombie);
+				break;
+			default:
+				body = new BulletBody(world, bullet);
+		}
+		world.destroyBody(body.getBody());
+		if (++created % 20 == 0)
+			world.step(1 / 60f, 6, 2);
+	}
+}
@@ -0,0 +1,161 @@
+package com.batataproductions.game.benchmarks;
+
+import com.badlogic.gdx.physics.box2d.World;
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.Match;
+import com.batataproductions.game.controller.SimulationLoop;
+import com.batataproductions.game.model.GameModel;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.model.entities.ZombieModel;
+import com.batataproductions.game.view.GameView;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Has a KiteBot play rounds 1 to N on every difficulty, on the real map with no window, and reports for
+ * every round the tick time percentiles, the live bodies and contacts and the heap in use.
+ * The zombies of a round grow linearly, so this tells the first round whose ticks no longer fit a frame.
+ *
+ * The player is healed before every tick so the bot reaches the last round. A round the bot can't clear
+ * in ROUND_TIMEOUT seconds of play has its zombies removed and is marked as timed out.
+ *
+ * Usage: BotSoak [rounds] [results.json]
+ */
+public class BotSoak {
+
+	private static final int DEFAULT_ROUNDS = 20;
+
+	/**
+	 * Time a tick may take to keep a 60 frames per second game smooth.
+	 */
+	private static final long BUDGET_NANOS = 16000000L;
+
+	/**
+	 * Seconds of play after which a round is given up.
+	 */
+	private static final int ROUND_TIMEOUT = 180;
+
+	/**
+	 * Seed of every game, so runs on different commits play alike.
+	 */
+	private static final long SEED = 42;
+
+	public static void main(String[] args) throws IOException {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROUNDS;
+
+		Match match = Match.getDefault();
+		Headless.loadSounds(match.getModel());
+		GameController controller = match.getController();
+		Headless.loadMap(controller);
+
+		StringBuilder json = new StringBuilder();
+		json.append("{\"budgetMs\":").append(BUDGET_NANOS / 1e6).append(",\"difficulties\":[");
+		for (GameController.Difficulty difficulty : GameController.Difficulty.values()) {
+			if (difficulty.ordinal() > 0)
+				json.append(',');
+			soak(controller, difficulty, rounds, json);
+		}
+		json.append("]}\n");
+
+		if (args.length > 1) {
+			File file = new File(args[1]);
+			if (file.getParentFile() != null)
+				file.getParentFile().mkdirs();
+			Writer writer = new FileWriter(file);
+			try {
+				writer.write(json.toString());
+			} finally {
+				writer.close();
+			}
+		}
+		// The headless application keeps the JVM running.
+		System.exit(0);
+	}
+
+	/**
+	 * Plays a game on a difficulty, printing a line per round and appending the results to the JSON.
+	 */
+	private static void soak(GameController controller, GameController.Difficulty difficulty, int rounds, StringBuilder json) {
+		controller.setGameDifficulty(difficulty);
+		controller.startNewGame(SEED);
+		SimulationLoop loop = new SimulationLoop(controller);
+		loop.setState(GameView.States.GAME_RUNNING);
+		KiteBot bot = new KiteBot(controller);
+		World world = controller.getWorld();
+		GameModel model = controller.getModel();
+		PlayerModel player = model.getSelfPlayer();
+		Runtime runtime = Runtime.getRuntime();
+		int maxTicks = ROUND_TIMEOUT * loop.getTickRate();
+		long[] tickNanos = new long[maxTicks];
+		int firstOverP99 = -1, firstOverMax = -1;
+
+		System.out.println(difficulty);
+		System.out.println("round\tzombies\tticks\tp50 ms\tp99 ms\tmax ms\tbodies\tcontacts\theap MB\ttimed out");
+		json.append("{\"difficulty\":\"").append(difficulty).append("\",\"rounds\":[");
+		for (int round = 1; round <= rounds; round++) {
+			int ticks = 0, maxBodies = 0, maxContacts = 0;
+			long maxHeap = 0;
+			// The first tick of a round starts it, so the loop runs at least once.
+			do {
+				player.setHealth(PlayerModel.DEFAULT_HEALTH);
+				bot.play(loop.getInput());
+
+				long start = System.nanoTime();
+				loop.tick();
+				tickNanos[ticks++] = System.nanoTime() - start;
+
+				maxBodies = Math.max(maxBodies, world.getBodyCount());
+				maxContacts = Math.max(maxContacts, world.getContactCount());
+				if (ticks % loop.getTickRate() == 0)
+					maxHeap = Math.max(maxHeap, runtime.totalMemory() - runtime.freeMemory());
+			} while (ticks < maxTicks && !(model.getZombies().isEmpty() && controller.getZombiesLeftToSpawn() == 0));
+			boolean timedOut = ticks == maxTicks;
+			if (timedOut)
+				removeZombies(model);
+
+			Arrays.sort(tickNanos, 0, ticks);
+			long p50 = percentile(tickNanos, ticks, 0.5), p99 = percentile(tickNanos, ticks, 0.99), max = ticks == 0 ? 0 : tickNanos[ticks - 1];
+			if (firstOverP99 < 0 && p99 > BUDGET_NANOS)
+				firstOverP99 = round;
+			if (firstOverMax < 0 && max > BUDGET_NANOS)
+				firstOverMax = round;
+
+			System.out.printf(Locale.ROOT, "%d\t%d\t%d\t%.3f\t%.3f\t%.3f\t%d\t%d\t%.1f\t%s%n", round, controller.getNumberOfZombiesThisRound(),
+					ticks, p50 / 1e6, p99 / 1e6, max / 1e6, maxBodies, maxContacts, maxHeap / 1048576.0, timedOut);
+			if (round > 1)
+				json.append(',');
+			json.append(String.format(Locale.ROOT, "{\"round\":%d,\"zombies\":%d,\"ticks\":%d,\"p50Ms\":%.3f,\"p99Ms\":%.3f,\"maxMs\":%.3f," +
+					"\"maxBodies\":%d,\"maxContacts\":%d,\"maxHeapMb\":%.1f,\"timedOut\":%b}", round, controller.getNumberOfZombiesThisRound(),
+					ticks, p50 / 1e6, p99 / 1e6, max / 1e6, maxBodies, maxContacts, maxHeap / 1048576.0, timedOut));
+
+			loop.getInput().startNewRound();
+		}
+		json.append("],\"firstRoundOverBudgetP99\":").append(firstOverP99).append(",\"firstRoundOverBudgetMax\":").append(firstOverMax).append('}');
+		System.out.printf("first round over %.0f ms: p99 %d, max %d (-1 if none)%n%n", BUDGET_NANOS / 1e6, firstOverP99, firstOverMax);
+	}
+
+	/**
+	 * Returns a percentile of sorted values, 0 if there are none.
+	 */
+	private static long percentile(long[] sorted, int count, double fraction) {
+		if (count == 0)
+			return 0;
+		int index = (int) Math.ceil(fraction * count) - 1;
+		return sorted[Math.max(0, Math.min(count - 1, index))];
+	}
+
+	/**
+	 * Removes the zombies of a round that timed out, so the next round starts like it would have.
+	 */
+	private static void removeZombies(GameModel model) {
+		List<ZombieModel> zombies = model.getZombies();
+		for (int i = 0; i < zombies.size(); i++)
+			zombies.get(i).setFlaggedForRemoval(true);
+	}
+}
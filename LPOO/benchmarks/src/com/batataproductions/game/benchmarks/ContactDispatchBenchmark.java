@@ -0,0 +1,171 @@
+package com.batataproductions.game.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.World;
+import com.batataproductions.game.controller.ContactDispatcher;
+import com.batataproductions.game.controller.entities.BulletBody;
+import com.batataproductions.game.controller.entities.EntityBody;
+import com.batataproductions.game.controller.entities.MediumZombieBody;
+import com.batataproductions.game.controller.entities.PlayerBody;
+import com.batataproductions.game.model.entities.BulletModel;
+import com.batataproductions.game.model.entities.EntityModel;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.model.entities.ZombieModel;
+
+/**
+ * Compares the cost of classifying a contact with the category dispatch tables against the
+ * instanceof chain GameController.preSolve() and the sensor checks GameController.beginContact() used before.
+ *
+ * The chain ran on every step for every pair touching. The tables run once when a contact begins and once
+ * when it ends, and preSolve() no longer classifies anything, so a contact touching for n steps used to cost
+ * n times the chain and now costs the beginContact and endContact tables.
+ *
+ * A world is filled with overlapping players, zombies and bullets. Inside every preSolve() callback
+ * all the classifiers run many times on the real contact, each one queueing through the same method.
+ */
+public class ContactDispatchBenchmark implements ContactListener {
+
+	private static final int REPETITIONS = 1000;
+	private static final int STEPS = 200;
+	private static final int GROUPS = 20;
+
+	private final ContactDispatcher beginDispatcher = new ContactDispatcher();
+	private final ContactDispatcher endDispatcher = new ContactDispatcher();
+
+	private long chainNanos, sensorNanos, beginDispatchNanos, endDispatchNanos, contacts, handled;
+
+	public static void main(String[] args) {
+		new ContactDispatchBenchmark().run();
+	}
+
+	private void run() {
+		ContactDispatcher.Handler handler = new ContactDispatcher.Handler() {
+			@Override
+			public void onContact(Contact contact, Fixture fixtureA, Fixture fixtureB) {
+				queueContact(1, contact, fixtureA.getBody(), fixtureB.getBody());
+			}
+		};
+		// The pairs GameController registers.
+		beginDispatcher.register(EntityBody.BULLET_BODY, EntityBody.MAP_WALL, handler);
+		beginDispatcher.register(EntityBody.BULLET_BODY, EntityBody.PLAYER_BODY, handler);
+		beginDispatcher.register(EntityBody.BULLET_BODY, EntityBody.BULLET_BODY, handler);
+		beginDispatcher.register(EntityBody.BULLET_BODY, EntityBody.ZOMBIE_BODY, handler);
+		beginDispatcher.register(EntityBody.PLAYER_BODY, EntityBody.ZOMBIE_BODY, handler);
+		beginDispatcher.register(EntityBody.PLAYER_KNIFE, EntityBody.ZOMBIE_BODY, handler);
+		endDispatcher.register(EntityBody.PLAYER_BODY, EntityBody.ZOMBIE_BODY, handler);
+
+		World world = new World(new Vector2(0, 0), true);
+		world.setContactListener(this);
+		EntityModel[] models = new EntityModel[GROUPS * 3];
+		EntityBody[] bodies = new EntityBody[GROUPS * 3];
+		for (int i = 0; i < GROUPS; i++) {
+			models[i * 3] = new PlayerModel(i * 10, 0, 0);
+			models[i * 3 + 1] = new ZombieModel(i * 10 + 1, 0, 0, ZombieModel.Sizes.MEDIUM);
+			models[i * 3 + 2] = new BulletModel(i * 10 + 1, 0.5f, 0);
+			bodies[i * 3] = new PlayerBody(world, (PlayerModel) models[i * 3]);
+			bodies[i * 3 + 1] = new MediumZombieBody(world, (ZombieModel) models[i * 3 + 1]);
+			bodies[i * 3 + 2] = new BulletBody(world, (BulletModel) models[i * 3 + 2]);
+		}
+		// The bodies hold their models' handles now; give the instanceof chain the models it used to read.
+		for (int b = 0; b < bodies.length; b++)
+			bodies[b].getBody().setUserData(models[b]);
+
+		for (int i = 0; i < STEPS; i++) {
+			// Measure only once the JIT has warmed up.
+			if (i == STEPS / 2)
+				chainNanos = sensorNanos = beginDispatchNanos = endDispatchNanos = contacts = 0;
+
+			// Put the bodies back on top of each other so the contacts persist.
+			for (int b = 0; b < bodies.length; b++) {
+				bodies[b].setTransform(models[b].getX(), models[b].getY(), 0);
+				bodies[b].setLinearVelocity(0, 0);
+			}
+			world.step(1 / 60f, 6, 2);
+		}
+		world.dispose();
+
+		System.out.printf("contacts: %d%n", contacts);
+		System.out.printf("preSolve instanceof chain: %.1f ns/contact/step%n", (double) chainNanos / (contacts * REPETITIONS));
+		System.out.printf("beginContact sensor checks: %.1f ns/contact%n", (double) sensorNanos / (contacts * REPETITIONS));
+		System.out.printf("beginContact dispatch table: %.1f ns/contact%n", (double) beginDispatchNanos / (contacts * REPETITIONS));
+		System.out.printf("endContact dispatch table: %.1f ns/contact%n", (double) endDispatchNanos / (contacts * REPETITIONS));
+	}
+
+	@Override
+	public void preSolve(Contact contact, Manifold oldManifold) {
+		contacts++;
+
+		long start = System.nanoTime();
+		for (int i = 0; i < REPETITIONS; i++)
+			classifyWithChain(contact);
+		chainNanos += System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < REPETITIONS; i++)
+			classifyWithSensorChecks(contact);
+		sensorNanos += System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < REPETITIONS; i++)
+			beginDispatcher.dispatch(contact);
+		beginDispatchNanos += System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < REPETITIONS; i++)
+			endDispatcher.dispatch(contact);
+		endDispatchNanos += System.nanoTime() - start;
+	}
+
+	/**
+	 * The pair detection GameController.preSolve() used to do.
+	 */
+	private void classifyWithChain(Contact contact) {
+		Body bodyA = contact.getFixtureA().getBody();
+		Body bodyB = contact.getFixtureB().getBody();
+		Object modelA = bodyA.getUserData(), modelB = bodyB.getUserData();
+
+		if (modelA instanceof BulletModel)
+			queueContact(modelB instanceof ZombieModel ? 1 : 2, contact, bodyA, bodyB);
+		else if (modelB instanceof BulletModel)
+			queueContact(modelA instanceof ZombieModel ? 1 : 2, contact, bodyB, bodyA);
+		else if (modelA instanceof PlayerModel && modelB instanceof ZombieModel)
+			queueContact(3, contact, bodyA, bodyB);
+		else if (modelA instanceof ZombieModel && modelB instanceof PlayerModel)
+			queueContact(3, contact, bodyB, bodyA);
+	}
+
+	/**
+	 * Stands for GameController.queueContact(), which both the chain and the handlers end up calling.
+	 */
+	private void queueContact(int type, Contact contact, Body bodyA, Body bodyB) {
+		handled += type;
+	}
+
+	/**
+	 * The knife detection GameController.beginContact() used to do.
+	 */
+	private void classifyWithSensorChecks(Contact contact) {
+		if (contact.getFixtureA().isSensor())
+			handled++;
+		else if (contact.getFixtureB().isSensor())
+			handled++;
+	}
+
+	@Override
+	public void beginContact(Contact contact) {
+	}
+
+	@Override
+	public void endContact(Contact contact) {
+	}
+
+	@Override
+	public void postSolve(Contact contact, ContactImpulse impulse) {
+	}
+}
@@ -0,0 +1,49 @@
+package com.batataproductions.game.benchmarks;
+
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.Match;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole tick of the game logic on the real map with a number of zombies chasing the player,
+ * as the SimulationLoop runs it.
+ * The game starts again on every iteration so every iteration plays the same.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ControllerUpdateBenchmark {
+
+	@Param({"0", "50", "200", "1000"})
+	public int zombies;
+
+	private GameController controller;
+
+	@Setup(Level.Trial)
+	public void loadMap() {
+		controller = Match.getDefault().getController();
+		Headless.loadMap(controller);
+	}
+
+	@Setup(Level.Iteration)
+	public void startGame() {
+		Headless.populate(controller, zombies, 42);
+	}
+
+	@Benchmark
+	public void tick() {
+		controller.removeFlagged();
+		controller.tick(1 / 60f);
+	}
+}
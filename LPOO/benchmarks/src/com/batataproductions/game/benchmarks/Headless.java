@@ -0,0 +1,158 @@
+package com.batataproductions.game.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.utils.FloatArray;
+import com.batataproductions.game.DeathmatchMania;
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.model.GameModel;
+import com.batataproductions.game.model.RandomStream;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.model.entities.ZombieModel;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Runs the game with no window for the benchmarks.
+ *
+ * A headless application provides the files and timers, and an OpenGL that does nothing lets the textures
+ * of the views and the map be loaded. The assets are read from the directory in the assets.dir property,
+ * android/assets by default.
+ */
+public final class Headless {
+
+	private static final String ASSETS_DIR = System.getProperty("assets.dir", "../android/assets");
+
+	private static final FileHandleResolver ASSETS = new FileHandleResolver() {
+		@Override
+		public FileHandle resolve(String fileName) {
+			return Gdx.files.absolute(new File(ASSETS_DIR, fileName).getAbsolutePath());
+		}
+	};
+
+	private static DeathmatchMania game;
+
+	private Headless() {
+	}
+
+	/**
+	 * Starts the headless application, if it isn't running yet.
+	 */
+	public static synchronized void init() {
+		if (Gdx.app != null)
+			return;
+		new HeadlessApplication(new ApplicationAdapter() {});
+		Gdx.gl = Gdx.gl20 = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[]{GL20.class}, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				Class<?> type = method.getReturnType();
+				if (type == int.class)
+					return 0;
+				if (type == boolean.class)
+					return false;
+				if (type == float.class)
+					return 0f;
+				return type == String.class ? "" : null;
+			}
+		});
+	}
+
+	/**
+	 * Names of the sounds the models play. The headless audio doesn't play them, but loading them lets
+	 * the models go through the same sound calls as in the game.
+	 */
+	private static final String[] SOUNDS = {"ak47_shot.ogg", "ak47_draw.ogg", "ak47_reload.ogg", "glock_shot.ogg",
+			"glock_reload.ogg", "glock_draw.ogg", "knife_shot.ogg", "knife_draw.ogg", "footstep.ogg", "zombie_sound1.mp3",
+			"zombie_sound2.mp3", "zombie_sound3.mp3", "zombie_sound4.mp3", "zombie_sound5.mp3", "zombie_sound6.mp3"};
+
+	/**
+	 * Returns a game whose asset manager holds the textures of the entity views and the sounds of the models.
+	 *
+	 * @return the game, created on the first call.
+	 */
+	public static synchronized DeathmatchMania game() {
+		if (game != null)
+			return game;
+		init();
+		final AssetManager assets = new AssetManager(ASSETS);
+		assets.load("blood_spill.png", Texture.class);
+		assets.load("playerAtlas.atlas", TextureAtlas.class);
+		assets.load("zombieAtlas.atlas", TextureAtlas.class);
+		assets.load("bulletAtlas.atlas", TextureAtlas.class);
+		assets.load("bloodAtlas.atlas", TextureAtlas.class);
+		for (String sound : SOUNDS)
+			assets.load(sound, Sound.class);
+		assets.finishLoading();
+		game = new DeathmatchMania() {
+			@Override
+			public AssetManager getAssetManager() {
+				return assets;
+			}
+		};
+		return game;
+	}
+
+	/**
+	 * Gives a model the sounds of the game, so the player and the zombies can shoot and groan.
+	 *
+	 * @param model the model of the game.
+	 */
+	public static void loadSounds(GameModel model) {
+		model.setAssetManager(game().getAssetManager());
+	}
+
+	/**
+	 * Loads the walls of the game's map.
+	 *
+	 * @param controller the controller the walls are created on.
+	 */
+	public static void loadMap(GameController controller) {
+		init();
+		controller.loadMap(new TmxMapLoader(ASSETS).load("mapG.tmx"));
+	}
+
+	/**
+	 * Starts a new game and spawns zombies of random sizes around the player, clear of the walls.
+	 *
+	 * @param controller the controller of the game.
+	 * @param zombies the number of zombies spawned.
+	 * @param seed the seed of the game and of the zombies' positions.
+	 */
+	public static void populate(GameController controller, int zombies, long seed) {
+		controller.setGameDifficulty(GameController.Difficulty.NORMAL);
+		controller.startNewGame(seed);
+
+		RandomStream random = new RandomStream(seed);
+		PlayerModel player = controller.getModel().getSelfPlayer();
+		float playerX = player.getX(), playerY = player.getY();
+		ZombieModel.Sizes[] sizes = ZombieModel.Sizes.values();
+		int spawned = 0;
+		while (spawned < zombies) {
+			float angle = random.nextFloat(0, (float) (2 * Math.PI)), distance = random.nextFloat(5, 60);
+			float x = playerX + distance * (float) Math.cos(angle), y = playerY + distance * (float) Math.sin(angle);
+			if (x < 1 || y < 1 || x > GameController.MAP_WIDTH - 1 || y > GameController.MAP_HEIGHT - 1 || insideWall(controller.getWalls(), x, y))
+				continue;
+			controller.spawnZombie(x, y, angle, sizes[random.nextInt(sizes.length)]);
+			spawned++;
+		}
+	}
+
+	private static boolean insideWall(FloatArray walls, float x, float y) {
+		for (int i = 0; i + 3 < walls.size; i += 4)
+			if (x > walls.get(i) - 2 && y > walls.get(i + 1) - 2 && x < walls.get(i) + walls.get(i + 2) + 2 && y < walls.get(i + 1) + walls.get(i + 3) + 2)
+				return true;
+		return false;
+	}
+}
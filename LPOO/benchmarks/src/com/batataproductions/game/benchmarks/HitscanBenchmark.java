@@ -0,0 +1,102 @@
+package com.batataproductions.game.benchmarks;
+
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.Match;
+import com.batataproductions.game.model.GameModel;
+import com.batataproductions.game.model.entities.BulletModel;
+import com.batataproductions.game.model.entities.EntityModel;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.model.entities.ZombieModel;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the cost of a frame during sustained rifle fire into a horde of zombies,
+ * with the rifle firing bullet bodies and with it resolving its shots with a ray cast.
+ *
+ * The player holds the trigger at a horde of 200 zombies walking towards them. Zombies killed, or
+ * close enough to push the player, are spawned again at the back of the horde so the player stays put.
+ * The benchmark world has no walls, so bullets further than the hitscan range are removed as if they
+ * hit one. A frame is one fixed tick followed by the removal of the flagged entities, as the game loop does.
+ *
+ * Run from the android/assets directory like the desktop launcher.
+ */
+public class HitscanBenchmark {
+
+	private static final int ZOMBIES = 200;
+
+	/**
+	 * Distance to the player under which a zombie goes back to the back of the horde, and distance
+	 * over which a bullet is removed, in meters.
+	 */
+	private static final float ZOMBIE_RECYCLE_DISTANCE = 10, BULLET_RANGE = 60;
+
+	private static final int WARMUP_FRAMES = 1200;
+	private static final int MEASURED_FRAMES = 6000;
+
+	public static void main(String[] args) {
+		GameController controller = Match.getDefault().getController();
+
+		System.out.println("mode\tns/frame\tbullets alive/frame\tzombies killed");
+		for (int round = 0; round < 2; round++) {
+			for (boolean hitscan : new boolean[] {false, true}) {
+				controller.setHitscan(PlayerModel.Weapons.RIFLE, hitscan);
+				Random random = new Random(42);
+				controller.startNewGame();
+				run(controller, random, WARMUP_FRAMES);
+				int killed = controller.getNrZombiedKilled();
+				long[] result = run(controller, random, MEASURED_FRAMES);
+				killed = controller.getNrZombiedKilled() - killed;
+
+				System.out.printf("%s\t%.0f\t%.1f\t%d%n", hitscan ? "hitscan" : "bullets",
+						(double) result[0] / MEASURED_FRAMES, (double) result[1] / MEASURED_FRAMES, killed);
+			}
+		}
+		controller.setHitscan(PlayerModel.Weapons.RIFLE, false);
+	}
+
+	/**
+	 * Fires the rifle at the horde for a number of frames.
+	 *
+	 * @return the time taken by the frames in nanoseconds and the sum of the bullets alive on each frame.
+	 */
+	private static long[] run(GameController controller, Random random, int frames) {
+		GameModel model = controller.getModel();
+		PlayerModel player = model.getSelfPlayer();
+		List<ZombieModel> zombies = model.getZombies();
+		List<BulletModel> bullets = model.getBullets();
+		long elapsed = 0, bulletsAlive = 0;
+
+		for (int frame = 0; frame < frames; frame++) {
+			for (int i = 0; i < zombies.size(); i++)
+				if (distance(zombies.get(i), player) < ZOMBIE_RECYCLE_DISTANCE)
+					zombies.get(i).setFlaggedForRemoval(true);
+			for (int i = 0; i < bullets.size(); i++)
+				if (distance(bullets.get(i), player) > BULLET_RANGE)
+					bullets.get(i).setFlaggedForRemoval(true);
+			controller.removeFlagged();
+			while (zombies.size() < ZOMBIES)
+				controller.spawnZombie(player.getX() + 15 + random.nextFloat() * 20, player.getY() - 10 + random.nextFloat() * 20,
+						(float) Math.PI, ZombieModel.Sizes.MEDIUM);
+
+			player.setHealth(PlayerModel.DEFAULT_HEALTH);
+			if (player.getRifleCurrentAmmo() == 0)
+				player.replenishRifleAmmo();
+
+			long start = System.nanoTime();
+			controller.shoot();
+			controller.tick(1 / 60f);
+			controller.removeFlagged();
+			elapsed += System.nanoTime() - start;
+
+			bulletsAlive += bullets.size();
+		}
+		return new long[] {elapsed, bulletsAlive};
+	}
+
+	private static float distance(EntityModel a, EntityModel b) {
+		float dx = a.getX() - b.getX(), dy = a.getY() - b.getY();
+		return (float) Math.sqrt(dx * dx + dy * dy);
+	}
+}
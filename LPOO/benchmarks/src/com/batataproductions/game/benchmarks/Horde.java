@@ -0,0 +1,51 @@
+package com.batataproductions.game.benchmarks;
+
+import com.badlogic.gdx.physics.box2d.World;
+import com.batataproductions.game.controller.entities.BigZombieBody;
+import com.batataproductions.game.controller.entities.EntityBody;
+import com.batataproductions.game.controller.entities.MediumZombieBody;
+import com.batataproductions.game.controller.entities.SmallZombieBody;
+import com.batataproductions.game.model.RandomStream;
+import com.batataproductions.game.model.entities.ZombieModel;
+
+/**
+ * A crowd of zombies made of the game's real bodies, closing in on a point of a world of their own.
+ */
+final class Horde {
+
+	private static final float SPEED = 3;
+
+	private Horde() {
+	}
+
+	/**
+	 * Spawns zombies of random sizes in a disc, all heading to its center.
+	 *
+	 * @param world the world the zombies are created on.
+	 * @param zombies the number of zombies.
+	 * @param centerX the x-coordinate of the center of the disc in meters.
+	 * @param centerY the y-coordinate of the center of the disc in meters.
+	 * @param seed the seed of the zombies' positions and sizes.
+	 * @return the bodies of the zombies.
+	 */
+	static EntityBody[] create(World world, int zombies, float centerX, float centerY, long seed) {
+		RandomStream random = new RandomStream(seed);
+		float radius = 5 + 1.5f * (float) Math.sqrt(zombies);
+		EntityBody[] bodies = new EntityBody[zombies];
+		for (int i = 0; i < zombies; i++) {
+			float angle = random.nextFloat(0, (float) (2 * Math.PI)), distance = radius * (float) Math.sqrt(random.nextFloat());
+			float x = centerX + distance * (float) Math.cos(angle), y = centerY + distance * (float) Math.sin(angle);
+
+			ZombieModel.Sizes size = ZombieModel.Sizes.values()[random.nextInt(ZombieModel.Sizes.values().length)];
+			ZombieModel model = new ZombieModel(x, y, angle, size);
+			if (size == ZombieModel.Sizes.SMALL)
+				bodies[i] = new SmallZombieBody(world, model);
+			else if (size == ZombieModel.Sizes.MEDIUM)
+				bodies[i] = new MediumZombieBody(world, model);
+			else
+				bodies[i] = new BigZombieBody(world, model);
+			bodies[i].setLinearVelocity(-SPEED * (float) Math.cos(angle), -SPEED * (float) Math.sin(angle));
+		}
+		return bodies;
+	}
+}
@@ -0,0 +1,102 @@
+package com.batataproductions.game.benchmarks;
+
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.TickInput;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.model.entities.ZombieModel;
+
+import java.util.List;
+
+/**
+ * A bot that plays the game through the same input the view gives the SimulationLoop.
+ *
+ * It kites: aims at the nearest zombie and shoots it with the rifle, backs off when the zombie gets close
+ * and walks towards it when it's far away, and reloads when the magazine is empty.
+ * It knows nothing of the walls, so it's easily cornered; it's meant to produce load, not to win.
+ */
+public class KiteBot {
+
+	/**
+	 * Distance in meters under which the bot backs off, and over which it walks towards the zombie.
+	 */
+	private static final float KITE_DISTANCE = 6f, CHASE_DISTANCE = 25f;
+
+	/**
+	 * Fraction of the way a direction must point along an axis to move along it, so the bot moves in 8 directions.
+	 */
+	private static final float AXIS_THRESHOLD = 0.38f;
+
+	private final GameController controller;
+
+	/**
+	 * Creates a bot playing a game.
+	 *
+	 * @param controller the controller of the game.
+	 */
+	public KiteBot(GameController controller) {
+		this.controller = controller;
+	}
+
+	/**
+	 * Decides the input of the next tick.
+	 *
+	 * @param input the input applied on the next tick.
+	 */
+	public void play(TickInput input) {
+		PlayerModel player = controller.getModel().getSelfPlayer();
+		ZombieModel target = nearestZombie(controller.getModel().getZombies(), player);
+		if (target == null) {
+			input.setMovement((short) 0);
+			input.setAimAngle(Float.NaN);
+			return;
+		}
+
+		if (player.getCurrentWeapon() != PlayerModel.Weapons.RIFLE)
+			input.switchToWeapon(PlayerModel.Weapons.RIFLE);
+
+		float dx = target.getX() - player.getX(), dy = target.getY() - player.getY();
+		float distance = (float) Math.sqrt(dx * dx + dy * dy);
+		if (distance < KITE_DISTANCE)
+			input.setMovement(movementMask(-dx / distance, -dy / distance));
+		else if (distance > CHASE_DISTANCE)
+			input.setMovement(movementMask(dx / distance, dy / distance));
+		else
+			input.setMovement((short) 0);
+
+		input.setAimAngle(controller.calculateAimAngle(target.getX(), target.getY()));
+		if (player.getRifleCurrentAmmo() == 0)
+			input.reload();
+		else
+			input.shoot();
+	}
+
+	private static ZombieModel nearestZombie(List<ZombieModel> zombies, PlayerModel player) {
+		ZombieModel nearest = null;
+		float nearestDistance = Float.MAX_VALUE;
+		for (int i = 0; i < zombies.size(); i++) {
+			ZombieModel zombie = zombies.get(i);
+			if (zombie.isFlaggedToBeRemoved())
+				continue;
+			float dx = zombie.getX() - player.getX(), dy = zombie.getY() - player.getY();
+			float distance = dx * dx + dy * dy;
+			if (distance < nearestDistance) {
+				nearest = zombie;
+				nearestDistance = distance;
+			}
+		}
+		return nearest;
+	}
+
+	private static short movementMask(float x, float y) {
+		short mask = 0;
+		if (x < -AXIS_THRESHOLD)
+			mask |= GameController.PLAYER_MOVE_LEFT;
+		else if (x > AXIS_THRESHOLD)
+			mask |= GameController.PLAYER_MOVE_RIGHT;
+		if (y > AXIS_THRESHOLD)
+			mask |= GameController.PLAYER_MOVE_UP;
+		else if (y < -AXIS_THRESHOLD)
+			mask |= GameController.PLAYER_MOVE_DOWN;
+		return mask;
+	}
+}
@@ -0,0 +1,61 @@
+package com.batataproductions.game.benchmarks;
+
+import com.batataproductions.game.controller.Match;
+import com.batataproductions.game.model.GameModel;
+import com.batataproductions.game.model.RandomStream;
+import com.batataproductions.game.model.entities.BulletModel;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.model.entities.ZombieModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures GameModel.remove() on random entities of a game with a number of them,
+ * taking a new entity from the model's pools after every removal to keep their number.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModelRemoveBenchmark {
+
+	@Param({"200", "1000"})
+	public int population;
+
+	private GameModel model;
+	private RandomStream random;
+
+	@Setup
+	public void fillModel() {
+		model = Match.getDefault().getModel();
+		model.startNewGame(42);
+		random = new RandomStream(42);
+		while (model.getBullets().size() < population)
+			model.getBullet(PlayerModel.Weapons.PISTOL);
+		while (model.getZombies().size() < population)
+			model.getZombie(ZombieModel.Sizes.MEDIUM);
+	}
+
+	@Benchmark
+	public void removeBullet() {
+		List<BulletModel> bullets = model.getBullets();
+		model.remove(bullets.get(random.nextInt(bullets.size())));
+		model.getBullet(PlayerModel.Weapons.PISTOL);
+	}
+
+	@Benchmark
+	public void removeZombie() {
+		List<ZombieModel> zombies = model.getZombies();
+		model.remove(zombies.get(random.nextInt(zombies.size())));
+		model.getZombie(ZombieModel.Sizes.MEDIUM);
+	}
+}
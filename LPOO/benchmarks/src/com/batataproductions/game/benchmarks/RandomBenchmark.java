@@ -0,0 +1,79 @@
+package com.batataproductions.game.benchmarks;
+
+import com.batataproductions.game.model.RandomStream;
+
+import java.util.Random;
+
+/**
+ * Compares drawing the random numbers of a game from a RandomStream against Math.random(), whose generator
+ * is shared by the whole JVM, and creating a Random for every number, as ZombieModel.playRandomSound() did.
+ *
+ * Each thread stands for a simulation running at the same time and draws numbers in a tight loop.
+ */
+public class RandomBenchmark {
+
+	private static final int WARMUP_DRAWS = 2000000;
+	private static final int MEASURED_DRAWS = 20000000;
+	private static final int[] THREADS = {1, 4};
+
+	private static final String[] NAMES = {"Math.random", "new Random", "RandomStream"};
+
+	/**
+	 * Sum of the numbers drawn, so the draws aren't optimized away.
+	 */
+	private static volatile long sink;
+
+	public static void main(String[] args) throws InterruptedException {
+		System.out.println("generator\tthreads\tns/draw per thread");
+		for (int threads : THREADS) {
+			for (int generator = 0; generator < NAMES.length; generator++) {
+				run(generator, threads, WARMUP_DRAWS);
+				double nanos = run(generator, threads, MEASURED_DRAWS);
+				System.out.printf("%s\t%d\t%.1f%n", NAMES[generator], threads, nanos);
+			}
+		}
+	}
+
+	/**
+	 * Draws numbers on several threads at once.
+	 *
+	 * @return the average time a thread took to draw a number in nanoseconds.
+	 */
+	private static double run(final int generator, int threads, final int draws) throws InterruptedException {
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final long seed = t;
+			workers[t] = new Thread() {
+				@Override
+				public void run() {
+					sink += draw(generator, seed, draws);
+				}
+			};
+		}
+		long start = System.nanoTime();
+		for (Thread worker : workers)
+			worker.start();
+		for (Thread worker : workers)
+			worker.join();
+		return (double) (System.nanoTime() - start) / draws;
+	}
+
+	private static long draw(int generator, long seed, int draws) {
+		long sum = 0;
+		switch (generator) {
+			case 0:
+				for (int i = 0; i < draws; i++)
+					sum += (int) (Math.random() * 3f);
+				break;
+			case 1:
+				for (int i = 0; i < draws; i++)
+					sum += new Random().nextInt(3);
+				break;
+			default:
+				RandomStream stream = new RandomStream(seed);
+				for (int i = 0; i < draws; i++)
+					sum += stream.nextInt(3);
+		}
+		return sum;
+	}
+}
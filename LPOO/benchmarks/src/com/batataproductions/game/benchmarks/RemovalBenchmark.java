@@ -0,0 +1,71 @@
+package com.batataproductions.game.benchmarks;
+
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.Match;
+import com.batataproductions.game.model.RandomStream;
+import com.batataproductions.game.model.entities.ZombieModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures GameController.removeFlagged() per removed zombie while a number of zombies is alive.
+ * A fixed batch of random zombies is flagged before every invocation, and zombies are spawned again
+ * between invocations so their number stays the same. The cost per removal should stay flat as the
+ * population grows, as only the flagged zombies are looked at.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RemovalBenchmark {
+
+	/**
+	 * Zombies removed on every invocation, as on a tick of a busy game.
+	 */
+	private static final int REMOVALS = 10;
+
+	@Param({"50", "200", "1000", "5000"})
+	public int population;
+
+	private GameController controller;
+	private List<ZombieModel> zombies;
+	private RandomStream random;
+
+	@Setup(Level.Trial)
+	public void startGame() {
+		controller = Match.getDefault().getController();
+		controller.startNewGame(42);
+		zombies = controller.getModel().getZombies();
+		random = new RandomStream(42);
+	}
+
+	@Setup(Level.Invocation)
+	public void flagZombies() {
+		while (zombies.size() < population)
+			controller.spawnZombie(random.nextFloat(5, 105), random.nextFloat(5, 65), 0, ZombieModel.Sizes.MEDIUM);
+		for (int flagged = 0; flagged < REMOVALS; ) {
+			ZombieModel zombie = zombies.get(random.nextInt(zombies.size()));
+			if (!zombie.isFlaggedToBeRemoved()) {
+				zombie.setFlaggedForRemoval(true);
+				flagged++;
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(REMOVALS)
+	public void removeFlagged() {
+		controller.removeFlagged();
+	}
+}
@@ -0,0 +1,91 @@
+package com.batataproductions.game.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.batataproductions.game.controller.entities.BigZombieBody;
+import com.batataproductions.game.controller.entities.BulletBody;
+import com.batataproductions.game.controller.entities.EntityBody;
+import com.batataproductions.game.controller.entities.FixtureCache;
+import com.batataproductions.game.controller.entities.MediumZombieBody;
+import com.batataproductions.game.controller.entities.PlayerBody;
+import com.batataproductions.game.controller.entities.SmallZombieBody;
+import com.batataproductions.game.model.entities.BulletModel;
+import com.batataproductions.game.model.entities.EntityModel;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.model.entities.ZombieModel;
+
+/**
+ * Measures the cost of creating the body of each type of entity with its fixture definitions cached,
+ * against building them for every body as EntityBody.createFixture() used to: converting the vertexes to meters,
+ * allocating a shape and disposing it. The uncached case disposes the cache before every body.
+ *
+ * The bodies are destroyed right after being created, so the world stays empty.
+ */
+public class SpawnBenchmark {
+
+	private static final int WARMUP_SPAWNS = 20000;
+	private static final int MEASURED_SPAWNS = 100000;
+
+	private static final String[] NAMES = {"player", "small zombie", "medium zombie", "big zombie", "bullet"};
+
+	public static void main(String[] args) {
+		World world = new World(new Vector2(0, 0), true);
+		PlayerModel player = new PlayerModel(10, 10, 0);
+		EntityModel[] models = {
+				player,
+				new ZombieModel(10, 10, 0, ZombieModel.Sizes.SMALL),
+				new ZombieModel(10, 10, 0, ZombieModel.Sizes.MEDIUM),
+				new ZombieModel(10, 10, 0, ZombieModel.Sizes.BIG),
+				new BulletModel(10, 10, 0)
+		};
+
+		System.out.println("body\tuncached ns/spawn\tcached ns/spawn");
+		for (int type = 0; type < models.length; type++) {
+			spawn(world, type, models[type], false, WARMUP_SPAWNS);
+			double uncached = spawn(world, type, models[type], false, MEASURED_SPAWNS);
+			spawn(world, type, models[type], true, WARMUP_SPAWNS);
+			double cached = spawn(world, type, models[type], true, MEASURED_SPAWNS);
+			System.out.printf("%s\t%.0f\t%.0f%n", NAMES[type], uncached, cached);
+		}
+		FixtureCache.dispose();
+		world.dispose();
+	}
+
+	/**
+	 * Creates and destroys bodies of a type.
+	 *
+	 * @return the average time taken to create a body in nanoseconds.
+	 */
+	private static double spawn(World world, int type, EntityModel model, boolean cached, int spawns) {
+		long elapsed = 0;
+		for (int i = 0; i < spawns; i++) {
+			if (!cached)
+				FixtureCache.dispose();
+
+			long start = System.nanoTime();
+			EntityBody body = create(world, type, model);
+			elapsed += System.nanoTime() - start;
+
+			world.destroyBody(body.getBody());
+			// Let Box2D flush its broad-phase buffers, as the game's world steps do.
+			if (i % 20 == 0)
+				world.step(1 / 60f, 6, 2);
+		}
+		return (double) elapsed / spawns;
+	}
+
+	private static EntityBody create(World world, int type, EntityModel model) {
+		switch (type) {
+			case 0:
+				return new PlayerBody(world, (PlayerModel) model);
+			case 1:
+				return new SmallZombieBody(world, model);
+			case 2:
+				return new MediumZombieBody(world, model);
+			case 3:
+				return new BigZombieBody(world, model);
+			default:
+				return new BulletBody(world, model);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.batataproductions.game.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.SpawnOccupancy;
+import com.batataproductions.game.controller.entities.EntityBody;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the spawn checks of a tick: moving every zombie of a horde around the spawn points
+ * to its cell of the occupancy grid and checking which spawn points are free.
+ * The world is stepped between invocations so the zombies keep moving.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpawnCheckBenchmark {
+
+	/**
+	 * The game's spawn points and the clearance they need, as in GameController.
+	 */
+	private static final float[] SPAWN_X = {14, 14, 50, 57, 84, 121, 121, 50, 58, 112};
+	private static final float[] SPAWN_Y = {98, 90, 70, 70, 75, 98, 90, 148, 148, 148};
+	private static final float SPAWN_CLEARANCE = 6;
+
+	@Param({"50", "200", "1000"})
+	public int zombies;
+
+	private World world;
+	private EntityBody[] bodies;
+	private SpawnOccupancy occupancy;
+
+	@Setup(Level.Iteration)
+	public void createHorde() {
+		world = new World(new Vector2(0, 0), true);
+		bodies = Horde.create(world, zombies, 60, 100, 42);
+		occupancy = new SpawnOccupancy(GameController.MAP_WIDTH, GameController.MAP_HEIGHT, 0.5f, SPAWN_X, SPAWN_Y, SPAWN_CLEARANCE);
+		for (EntityBody body : bodies)
+			occupancy.track(body);
+	}
+
+	@Setup(Level.Invocation)
+	public void moveHorde() {
+		world.step(1 / 60f, 6, 2);
+	}
+
+	@TearDown(Level.Iteration)
+	public void disposeWorld() {
+		world.dispose();
+	}
+
+	@Benchmark
+	public int checkSpawnPoints() {
+		for (int i = 0; i < bodies.length; i++)
+			occupancy.update(bodies[i]);
+
+		int free = 0;
+		for (int p = 0; p < SPAWN_X.length; p++)
+			if (occupancy.isFree(p))
+				free++;
+		return free;
+	}
+}
@@ -0,0 +1,56 @@
+package com.batataproductions.game.benchmarks;
+
+import com.batataproductions.game.DeathmatchMania;
+import com.batataproductions.game.model.entities.BloodSpillModel;
+import com.batataproductions.game.model.entities.BulletModel;
+import com.batataproductions.game.model.entities.EntityModel;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.model.entities.ZombieModel;
+import com.batataproductions.game.view.entities.ViewFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures looking up the view of an entity, as GameView does for every entity drawn.
+ * The views are created with the real textures on the first lookup, see Headless.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ViewFactoryBenchmark {
+
+	private static final int MODELS = 6;
+
+	private DeathmatchMania game;
+	private EntityModel[] models;
+
+	@Setup
+	public void loadAssets() {
+		game = Headless.game();
+		models = new EntityModel[]{
+				new PlayerModel(0, 0, 0),
+				new ZombieModel(0, 0, 0, ZombieModel.Sizes.SMALL),
+				new ZombieModel(0, 0, 0, ZombieModel.Sizes.MEDIUM),
+				new ZombieModel(0, 0, 0, ZombieModel.Sizes.BIG),
+				new BulletModel(0, 0, 0),
+				new BloodSpillModel(0, 0, ZombieModel.Sizes.MEDIUM)
+		};
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(MODELS)
+	public void makeView(Blackhole blackhole) {
+		for (int i = 0; i < MODELS; i++)
+			blackhole.consume(ViewFactory.makeView(game, models[i]));
+	}
+}
@@ -0,0 +1,57 @@
+package com.batataproductions.game.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.Match;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a world step with a horde of zombies made of the game's fixtures piling up.
+ *
+ * With callbacks the game controller listens to the contacts as it does in the game, so the difference
+ * with the runs without callbacks is the cost of GameController's beginContact, preSolve and endContact.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorldStepBenchmark {
+
+	@Param({"50", "200", "1000"})
+	public int zombies;
+
+	@Param({"false", "true"})
+	public boolean callbacks;
+
+	private World world;
+
+	@Setup(Level.Iteration)
+	public void createHorde() {
+		world = new World(new Vector2(0, 0), true);
+		if (callbacks)
+			world.setContactListener(Match.getDefault().getController());
+		Horde.create(world, zombies, GameController.MAP_WIDTH / 2, GameController.MAP_HEIGHT / 2, 42);
+	}
+
+	@TearDown(Level.Iteration)
+	public void disposeWorld() {
+		world.dispose();
+	}
+
+	@Benchmark
+	public void step() {
+		world.step(1 / 60f, 6, 2);
+	}
+}
@@ -4,6 +4,7 @@ import com.badlogic.gdx.Game;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.batataproductions.game.controller.entities.FixtureCache;
 import com.batataproductions.game.view.LoadingScreen;
 
 public class DeathmatchMania extends Game {
@@ -15,6 +16,11 @@ public class DeathmatchMania extends Game {
 	private SpriteBatch batch;
 	private AssetManager assetManager;
 
+	/**
+	 * Directory the games played are recorded to, relative to the local storage. Null if they aren't recorded.
+	 */
+	private String replayDirectory;
+
 
 	/**
 	 * Creates the game. Initializes the sprite batch and asset manager.
@@ -43,6 +49,7 @@ public class DeathmatchMania extends Game {
 	public void dispose () {
 		batch.dispose();
 		assetManager.dispose();
+		FixtureCache.dispose();
 	}
 
 	/**
@@ -63,6 +70,24 @@ public class DeathmatchMania extends Game {
 		return batch;
 	}
 
+	/**
+	 * Makes the games played be recorded as replays.
+	 *
+	 * @param replayDirectory the directory the replays are written to, null to not record them.
+	 */
+	public void setReplayDirectory(String replayDirectory) {
+		this.replayDirectory = replayDirectory;
+	}
+
+	/**
+	 * Returns the directory the games played are recorded to.
+	 *
+	 * @return the directory, null if they aren't recorded.
+	 */
+	public String getReplayDirectory() {
+		return replayDirectory;
+	}
+
 	/** Set a new screen for the game. */
 	public void setNewScreen(ScreenAdapter screen) { setScreen(screen); }
 
@@ -0,0 +1,128 @@
+package com.batataproductions.game.controller;
+
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.Fixture;
+
+/**
+ * Calls the handler registered for the pair of collision categories of a contact.
+ *
+ * The handlers live in a flat table indexed by the bit index of both categories, so finding one is
+ * a single array read. Fixtures must be tagged with tag() when created: the tag caches the index
+ * of their category in the fixture user data, so dispatching doesn't go through JNI to read the
+ * filter data. Untagged fixtures, or fixtures without a category, never dispatch.
+ *
+ * Getting a contact's fixture is a JNI call and a map lookup, which is most of the cost of dispatching,
+ * so the second fixture isn't looked up when no handler has the category of the first.
+ */
+public class ContactDispatcher {
+
+	/**
+	 * Reacts to a contact between two fixtures.
+	 */
+	public interface Handler {
+		/**
+		 * @param contact the contact reported by Box2D.
+		 * @param fixtureA the fixture of the first category the handler was registered with.
+		 * @param fixtureB the fixture of the second category the handler was registered with.
+		 */
+		void onContact(Contact contact, Fixture fixtureA, Fixture fixtureB);
+	}
+
+	/**
+	 * Number of collision categories Box2D supports.
+	 */
+	private static final int CATEGORIES = 16;
+
+	/**
+	 * The category indexes, boxed once so tagging a fixture doesn't allocate.
+	 */
+	private static final Integer[] CATEGORY_INDEXES = new Integer[CATEGORIES];
+	static {
+		for (int i = 0; i < CATEGORIES; i++)
+			CATEGORY_INDEXES[i] = i;
+	}
+
+	/**
+	 * The handler of every ordered pair of categories, by index of the first category times CATEGORIES
+	 * plus index of the second.
+	 */
+	private final Handler[] handlers = new Handler[CATEGORIES * CATEGORIES];
+
+	/**
+	 * Whether the handler of every ordered pair of categories was registered with them the other way round,
+	 * and must be given the fixtures swapped.
+	 */
+	private final boolean[] swapped = new boolean[CATEGORIES * CATEGORIES];
+
+	/**
+	 * Whether any handler was registered with each category.
+	 */
+	private final boolean[] handled = new boolean[CATEGORIES];
+
+	/**
+	 * Caches the category of a fixture so it can be dispatched.
+	 * Fixtures without a category are left untagged.
+	 *
+	 * @param fixture the fixture, whose category must be a single bit.
+	 */
+	public static void tag(Fixture fixture) {
+		short category = fixture.getFilterData().categoryBits;
+		if (category != 0)
+			fixture.setUserData(CATEGORY_INDEXES[indexOf(category)]);
+	}
+
+	/**
+	 * Registers the handler of a pair of categories, in both orders.
+	 *
+	 * @param categoryA the first category, a single bit.
+	 * @param categoryB the second category, a single bit.
+	 * @param handler the handler, called with the fixture of categoryA first.
+	 */
+	public void register(short categoryA, short categoryB, Handler handler) {
+		int a = indexOf(categoryA), b = indexOf(categoryB);
+		handlers[a * CATEGORIES + b] = handler;
+		swapped[a * CATEGORIES + b] = false;
+		if (a != b) {
+			handlers[b * CATEGORIES + a] = handler;
+			swapped[b * CATEGORIES + a] = true;
+		}
+		handled[a] = handled[b] = true;
+	}
+
+	/**
+	 * Calls the handler registered for the categories of the fixtures of a contact.
+	 *
+	 * @param contact the contact reported by Box2D.
+	 * @return true if a handler was called.
+	 */
+	public boolean dispatch(Contact contact) {
+		Fixture fixtureA = contact.getFixtureA();
+		Object tagA = fixtureA.getUserData();
+		if (tagA == null)
+			return false;
+		int a = (Integer) tagA;
+		if (!handled[a])
+			return false;
+
+		Fixture fixtureB = contact.getFixtureB();
+		Object tagB = fixtureB.getUserData();
+		if (tagB == null)
+			return false;
+		int pair = a * CATEGORIES + (Integer) tagB;
+		Handler handler = handlers[pair];
+		if (handler == null)
+			return false;
+
+		if (swapped[pair])
+			handler.onContact(contact, fixtureB, fixtureA);
+		else
+			handler.onContact(contact, fixtureA, fixtureB);
+		return true;
+	}
+
+	private static int indexOf(short category) {
+		if (Integer.bitCount(category & 0xFFFF) != 1)
+			throw new IllegalArgumentException("A category must be a single bit: " + category);
+		return Integer.numberOfTrailingZeros(category & 0xFFFF);
+	}
+}
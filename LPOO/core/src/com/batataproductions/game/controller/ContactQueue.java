@@ -0,0 +1,162 @@
+package com.batataproductions.game.controller;
+
+/**
+ * A ring buffer of the contacts reported by Box2D during a world step, resolved once the step is over.
+ *
+ * The contact callbacks only push a compact record per contact, so no game logic runs while the world
+ * is locked and the contacts are resolved in the order Box2D reported them. The buffer is preallocated
+ * and only grows if a single step ever reports more contacts than it holds.
+ *
+ * The entities touching are recorded by their handles, see EntityHandle, so the records hold no references
+ * and an entity removed before its contact is resolved is noticed instead of being mistaken for the next
+ * entity reusing its model or body.
+ */
+public class ContactQueue {
+
+	/**
+	 * The kinds of contact the game reacts to.
+	 */
+	public enum Type {
+		/** A bullet hit something other than a zombie. Entity A is the bullet. */
+		BULLET_HIT,
+		/** A bullet hit a zombie. Entity A is the bullet. */
+		BULLET_ZOMBIE,
+		/** A zombie touches the player, queued after every step for as long as they touch. Entity A is the player. */
+		PLAYER_ZOMBIE,
+		/** The player's knife touched a zombie. Entity A is the player. */
+		KNIFE_ZOMBIE
+	}
+
+	private Type[] types;
+	private int[] handlesA, handlesB;
+	private float[] pointsX, pointsY;
+
+	/**
+	 * Index of the oldest record and number of records queued.
+	 */
+	private int head, size;
+
+	/**
+	 * Creates a queue.
+	 *
+	 * @param capacity the number of records preallocated.
+	 */
+	public ContactQueue(int capacity) {
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		types = new Type[capacity];
+		handlesA = new int[capacity];
+		handlesB = new int[capacity];
+		pointsX = new float[capacity];
+		pointsY = new float[capacity];
+	}
+
+	/**
+	 * Queues a contact.
+	 *
+	 * @param type the kind of contact.
+	 * @param handleA the handle of the first entity, as defined by the type.
+	 * @param handleB the handle of the second entity, EntityHandle.NONE if it's a wall.
+	 * @param x the x-coordinate of the contact point in meters.
+	 * @param y the y-coordinate of the contact point in meters.
+	 */
+	public void push(Type type, int handleA, int handleB, float x, float y) {
+		if (size == types.length)
+			grow();
+
+		int i = (head + size) % types.length;
+		types[i] = type;
+		handlesA[i] = handleA;
+		handlesB[i] = handleB;
+		pointsX[i] = x;
+		pointsY[i] = y;
+		size++;
+	}
+
+	/**
+	 * Doubles the capacity, keeping the queued records in order.
+	 */
+	private void grow() {
+		Type[] oldTypes = types;
+		int[] oldHandlesA = handlesA, oldHandlesB = handlesB;
+		float[] oldPointsX = pointsX, oldPointsY = pointsY;
+
+		allocate(oldTypes.length * 2);
+		for (int n = 0; n < size; n++) {
+			int i = (head + n) % oldTypes.length;
+			types[n] = oldTypes[i];
+			handlesA[n] = oldHandlesA[i];
+			handlesB[n] = oldHandlesB[i];
+			pointsX[n] = oldPointsX[i];
+			pointsY[n] = oldPointsY[i];
+		}
+		head = 0;
+	}
+
+	/**
+	 * @return true if there are no records queued.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return the number of records queued.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Drops the oldest record.
+	 */
+	public void pop() {
+		head = (head + 1) % types.length;
+		size--;
+	}
+
+	/**
+	 * @return the kind of the oldest record.
+	 */
+	public Type getType() {
+		return types[head];
+	}
+
+	/**
+	 * @return the handle of the first entity of the oldest record.
+	 */
+	public int getHandleA() {
+		return handlesA[head];
+	}
+
+	/**
+	 * @return the handle of the second entity of the oldest record.
+	 */
+	public int getHandleB() {
+		return handlesB[head];
+	}
+
+	/**
+	 * @return the x-coordinate of the contact point of the oldest record.
+	 */
+	public float getX() {
+		return pointsX[head];
+	}
+
+	/**
+	 * @return the y-coordinate of the contact point of the oldest record.
+	 */
+	public float getY() {
+		return pointsY[head];
+	}
+
+	/**
+	 * Drops every record.
+	 */
+	public void clear() {
+		size = 0;
+		head = 0;
+	}
+}
@@ -0,0 +1,138 @@
+package com.batataproductions.game.controller;
+
+import com.badlogic.gdx.utils.Array;
+import com.batataproductions.game.controller.entities.EntityBody;
+import com.batataproductions.game.model.EntityHandle;
+import com.batataproductions.game.model.entities.EntityModel;
+
+/**
+ * Keeps the live entities of a single type, pairing each model with the body that supports it,
+ * so the controller can loop over the entities it needs without scanning every body in the world.
+ *
+ * Removal swaps the last entry into the removed slot, so it is O(1) but doesn't keep the order.
+ * Loops that remove entries should therefore iterate backwards.
+ *
+ * The bodies are also found by the handles of their models, see EntityHandle, as the contacts are.
+ *
+ * @param <M> the type of model held.
+ */
+public class EntityRegistry<M extends EntityModel> {
+
+	/**
+	 * The registered models.
+	 */
+	private final Array<M> models = new Array<M>(false, 16);
+
+	/**
+	 * The bodies supporting the registered models, in the same order.
+	 */
+	private final Array<EntityBody> bodies = new Array<EntityBody>(false, 16);
+
+	/**
+	 * The index of the registered models, by the slot of their handles, -1 if no registered model has the slot.
+	 */
+	private int[] indexBySlot = newIndexBySlot(16);
+
+	/**
+	 * Registers an entity.
+	 *
+	 * @param model the entity model.
+	 * @param body the body supporting the model.
+	 */
+	public void add(M model, EntityBody body) {
+		models.add(model);
+		bodies.add(body);
+		int slot = EntityHandle.slotOf(model.getHandle());
+		if (slot >= indexBySlot.length) {
+			int[] old = indexBySlot;
+			indexBySlot = newIndexBySlot(Math.max(slot + 1, old.length * 2));
+			System.arraycopy(old, 0, indexBySlot, 0, old.length);
+		}
+		indexBySlot[slot] = models.size - 1;
+	}
+
+	private static int[] newIndexBySlot(int length) {
+		int[] indexBySlot = new int[length];
+		for (int i = 0; i < length; i++)
+			indexBySlot[i] = -1;
+		return indexBySlot;
+	}
+
+	/**
+	 * Unregisters the entity at a given index. The last entity takes its index.
+	 *
+	 * @param index the index of the entity.
+	 */
+	public void removeIndex(int index) {
+		int slot = EntityHandle.slotOf(models.get(index).getHandle());
+		if (indexBySlot[slot] == index)
+			indexBySlot[slot] = -1;
+		models.removeIndex(index);
+		bodies.removeIndex(index);
+		if (index < models.size)
+			indexBySlot[EntityHandle.slotOf(models.get(index).getHandle())] = index;
+	}
+
+	/**
+	 * Returns the index of the model a handle identifies.
+	 *
+	 * @param handle a handle.
+	 * @return the index of the model, -1 if no registered model has the handle.
+	 */
+	public int indexOf(int handle) {
+		int slot = EntityHandle.slotOf(handle);
+		if (slot >= indexBySlot.length)
+			return -1;
+		int index = indexBySlot[slot];
+		return index >= 0 && models.get(index).getHandle() == handle ? index : -1;
+	}
+
+	/**
+	 * Returns the model at a given index.
+	 *
+	 * @param index the index of the entity.
+	 * @return the entity model.
+	 */
+	public M getModel(int index) {
+		return models.get(index);
+	}
+
+	/**
+	 * Returns the body at a given index.
+	 *
+	 * @param index the index of the entity.
+	 * @return the body supporting the entity.
+	 */
+	public EntityBody getBody(int index) {
+		return bodies.get(index);
+	}
+
+	/**
+	 * Returns the body supporting the model a handle identifies.
+	 *
+	 * @param handle the handle of a registered model, which must still be valid.
+	 * @return the body, null if no registered model had the handle's slot.
+	 */
+	public EntityBody getBodyByHandle(int handle) {
+		int slot = EntityHandle.slotOf(handle);
+		int index = slot < indexBySlot.length ? indexBySlot[slot] : -1;
+		return index >= 0 ? bodies.get(index) : null;
+	}
+
+	/**
+	 * @return the number of registered entities.
+	 */
+	public int size() {
+		return models.size;
+	}
+
+	/**
+	 * Unregisters every entity.
+	 */
+	public void clear() {
+		models.clear();
+		bodies.clear();
+		for (int i = 0; i < indexBySlot.length; i++)
+			indexBySlot[i] = -1;
+	}
+}
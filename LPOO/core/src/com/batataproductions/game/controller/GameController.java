@@ -2,38 +2,46 @@ package com.batataproductions.game.controller;
 
 import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.Contact;
 import com.badlogic.gdx.physics.box2d.ContactImpulse;
 import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.physics.box2d.WorldManifold;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.batataproductions.game.controller.ai.FlowField;
+import com.batataproductions.game.controller.ai.LineOfSight;
+import com.batataproductions.game.controller.ai.ZombieLod;
 import com.batataproductions.game.controller.entities.BigZombieBody;
 import com.batataproductions.game.controller.entities.BulletBody;
 import com.batataproductions.game.controller.entities.EntityBody;
+import com.batataproductions.game.controller.entities.EntityBodyPool;
+import com.batataproductions.game.controller.entities.FixtureCache;
 import com.batataproductions.game.controller.entities.PlayerBody;
 import com.batataproductions.game.controller.entities.MediumZombieBody;
 import com.batataproductions.game.controller.entities.SmallZombieBody;
+import com.batataproductions.game.model.EntityHandle;
 import com.batataproductions.game.model.GameModel;
+import com.batataproductions.game.model.GameRandom;
 import com.batataproductions.game.model.entities.BloodSpillModel;
 import com.batataproductions.game.model.entities.BulletModel;
 import com.batataproductions.game.model.entities.EntityModel;
 import com.batataproductions.game.model.entities.PlayerModel;
 import com.batataproductions.game.model.entities.ZombieModel;
+import com.batataproductions.game.profiling.FrameProfiler;
 import com.batataproductions.game.view.GameView;
-import com.batataproductions.game.view.hud.Hud;
 
-import net.dermetfan.utils.Pair;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 import static com.batataproductions.game.model.entities.PlayerModel.MAX_PISTOL_AMMO;
 import static com.batataproductions.game.model.entities.PlayerModel.MAX_RIFLE_AMMO;
@@ -48,13 +56,23 @@ public class GameController implements ContactListener {
 	 */
 	private static GameController instance;
 
+	/**
+	 * The model of the game controlled.
+	 */
+	private final GameModel model;
+
 	/**
 	 * The physics world controlled this controller.
 	 */
 	private World world;
 
 	/**
-	 * Accumulator used to calculate the simulation step.
+	 * Duration of the ticks update() runs, in seconds.
+	 */
+	private static final float UPDATE_TICK_TIME = 1/60f;
+
+	/**
+	 * Time update() was given that is left for its next tick, in seconds.
 	 */
 	private float accumulator;
 
@@ -78,6 +96,11 @@ public class GameController implements ContactListener {
 	 */
 	private static final float BULLET_SPEED = 70f;
 
+	/**
+	 * Maximum distance a hitscan shot travels, in meters. Longer than the diagonal of the viewport.
+	 */
+	private static final float HITSCAN_RANGE = 60f;
+
 	/**
 	 * Minimum time between consecutive rifle shots in seconds
 	 */
@@ -137,7 +160,6 @@ public class GameController implements ContactListener {
 	public enum Difficulty {EASY, NORMAL, HARD};
 	int currentRound;
 	Difficulty currentDifficulty;
-	int zombiesLeftToSpawn;
 	final static int zombies_per_round_easy = 8;
 	final static int zombies_per_round_normal = 13;
 	final static int zombies_per_round_hard = 20;
@@ -145,76 +167,274 @@ public class GameController implements ContactListener {
 	int zombies_killed;
 	private boolean motionDetectorOn;
 
+	/**
+	 * The live entities of each type paired with their bodies.
+	 */
+	private final EntityRegistry<PlayerModel> players = new EntityRegistry<PlayerModel>();
+	private final EntityRegistry<ZombieModel> zombies = new EntityRegistry<ZombieModel>();
+	private final EntityRegistry<BulletModel> bullets = new EntityRegistry<BulletModel>();
+
+	/**
+	 * Default maximum number of free bullet bodies kept for reuse, and how many are prebuilt.
+	 * Covers a rifle firing for several seconds before its first bullets hit something.
+	 */
+	public static final int DEFAULT_BULLET_BODY_POOL_SIZE = 64;
+	public static final int DEFAULT_BULLET_BODY_PREWARM = DEFAULT_BULLET_BODY_POOL_SIZE;
+
+	/**
+	 * Maximum number of free bullet bodies kept for reuse, and how many are prebuilt with every new world.
+	 */
+	private int bulletBodyPoolSize = DEFAULT_BULLET_BODY_POOL_SIZE;
+	private int bulletBodyPrewarm = DEFAULT_BULLET_BODY_PREWARM;
+
+	/**
+	 * The prebuilt bullet bodies, reactivated instead of created on every shot.
+	 */
+	private EntityBodyPool<BulletBody> bulletBodies;
+
+	/**
+	 * Default maximum number of free zombie bodies of each size kept for reuse, and how many are prebuilt.
+	 * Rounds grow without limit, so the pools are only prewarmed for the first rounds and grow with the game.
+	 */
+	public static final int DEFAULT_ZOMBIE_BODY_POOL_SIZE = 128;
+	public static final int DEFAULT_ZOMBIE_BODY_PREWARM = 32;
 
+	/**
+	 * Maximum number of free zombie bodies of each size kept for reuse, and how many are prebuilt with every new world.
+	 */
+	private int zombieBodyPoolSize = DEFAULT_ZOMBIE_BODY_POOL_SIZE;
+	private int zombieBodyPrewarm = DEFAULT_ZOMBIE_BODY_PREWARM;
 
-	static final Map<Pair<Integer, Integer>, Float> ZOMBIE_SPAWNS = createZombieSpawnsMap();
+	/**
+	 * The prebuilt zombie bodies of each size, reactivated instead of created on every spawn.
+	 */
+	private final EntityBodyPool<?>[] zombieBodies = new EntityBodyPool<?>[ZombieModel.Sizes.values().length];
 
-	private static Map<Pair<Integer, Integer>, Float> createZombieSpawnsMap() {
-		Map<Pair<Integer, Integer>, Float> result = new HashMap<Pair<Integer, Integer>, Float>();
-		// Fill map.
-		//// Left spawn points.
-		Pair spawn1 = new Pair(14, 98);
-		result.put(spawn1, 0f);
+	/**
+	 * Whether each weapon resolves its shots instantly with a ray cast instead of firing bullet bodies.
+	 */
+	private final boolean[] hitscanWeapons = new boolean[PlayerModel.Weapons.values().length];
 
-		Pair spawn2 = new Pair(14, 90);
-		result.put(spawn2, 0f);
+	/**
+	 * Casts the hitscan shots, which are stopped by zombies and walls.
+	 */
+	private final Hitscan hitscan = new Hitscan((short) (EntityBody.ZOMBIE_BODY | EntityBody.MAP_WALL));
 
-		//// Bottom spawn points.
-		Pair spawn3 = new Pair(50, 70);
-		result.put(spawn3, (float) Math.PI/2);
+	/**
+	 * Number of hitscan shots fired, and where the last one started and ended, so the view can draw tracers.
+	 */
+	private int hitscanShots;
+	private final Vector2 hitscanStart = new Vector2(), hitscanEnd = new Vector2();
 
-		Pair spawn4 = new Pair(57, 70);
-		result.put(spawn4, (float) Math.PI/2);
+	/**
+	 * The handlers of the contacts reported by beginContact() and endContact(), by pair of collision categories.
+	 */
+	private final ContactDispatcher beginContactHandlers = new ContactDispatcher();
+	private final ContactDispatcher endContactHandlers = new ContactDispatcher();
 
-		Pair spawn5 = new Pair(84, 75);
-		result.put(spawn5, (float) Math.PI/2);
+	/**
+	 * Handles of the players and zombies touching, two by two, in the order they began touching.
+	 * A zombie attacks on every step it touches a player, so the pair is tracked from beginContact() to
+	 * endContact() instead of being found again by preSolve() on every step. Sized for a player surrounded by
+	 * zombies, so a horde closing in doesn't make it grow.
+	 */
+	private final IntArray touchingPlayerZombies = new IntArray(2 * 64);
 
-		//// Right spawn points.
-		Pair spawn6 = new Pair(121, 98);
-		result.put(spawn6, (float) Math.PI);
+	/**
+	 * Contacts reported during a world step, resolved once the step is over.
+	 */
+	private final ContactQueue contactQueue = new ContactQueue(256);
 
-		Pair spawn7 = new Pair(121, 90);
-		result.put(spawn7, (float) Math.PI);
+	/**
+	 * Scratch containers reused every update so the steady-state game loop doesn't allocate.
+	 */
+	private final Array<Body> bodiesToDestroy = new Array<Body>();
+	private final Vector2 knockBackDirection = new Vector2();
 
-		//// Top spawn points.
-		Pair spawn8 = new Pair(50, 148);
-		result.put(spawn8, (float) Math.PI * 1.5f);
 
-		Pair spawn9 = new Pair(58, 148);
-		result.put(spawn9, (float) Math.PI * 1.5f);
 
-		Pair spawn10 = new Pair(112, 148);
-		result.put(spawn10, (float) Math.PI * 1.5f);
-		return result;
-	}
+	/**
+	 * Zombie spawn points: their coordinates in meters and the rotation the zombies spawn with.
+	 */
+	static final float[] SPAWN_X = {
+			14, 14,					// Left spawn points.
+			50, 57, 84,				// Bottom spawn points.
+			121, 121,				// Right spawn points.
+			50, 58, 112				// Top spawn points.
+	};
+	static final float[] SPAWN_Y = {
+			98, 90,
+			70, 70, 75,
+			98, 90,
+			148, 148, 148
+	};
+	static final float[] SPAWN_ROTATION = {
+			0, 0,
+			(float) Math.PI/2, (float) Math.PI/2, (float) Math.PI/2,
+			(float) Math.PI, (float) Math.PI,
+			(float) Math.PI * 1.5f, (float) Math.PI * 1.5f, (float) Math.PI * 1.5f
+	};
 
+	/**
+	 * Distance from a spawn point that must be free of bodies for a zombie to spawn there.
+	 */
+	private static final float SPAWN_CLEARANCE = 6;
 
 	/**
-	 * Creates a new GameController that controls the physics of a certain GameModel.
+	 * Size of the map in meters (50x32 tiles of 128 pixels).
+	 */
+	public static final float MAP_WIDTH = 50 * 128 * GameView.PIXEL_TO_METER;
+	public static final float MAP_HEIGHT = 32 * 128 * GameView.PIXEL_TO_METER;
+
+	/**
+	 * Tracks the bodies near the spawn points.
+	 */
+	private final SpawnOccupancy spawnOccupancy = new SpawnOccupancy(MAP_WIDTH, MAP_HEIGHT, 0.5f, SPAWN_X, SPAWN_Y, SPAWN_CLEARANCE);
+
+	/**
+	 * Paces the spawning of the zombies of every round.
+	 */
+	private final WaveScheduler waves = new WaveScheduler(SPAWN_X.length);
+
+	/**
+	 * Times the phases of the tick.
+	 */
+	private final FrameProfiler profiler;
+
+	/**
+	 * Number of contacts resolved on the last world step.
+	 */
+	private int contactsResolved;
+
+	/**
+	 * Side of a flow field cell in meters.
+	 */
+	private static final float FLOW_FIELD_CELL_SIZE = 1;
+
+	/**
+	 * Distance from the walls the flow field keeps the zombies at, in meters.
+	 */
+	private static final float WALL_CLEARANCE = 1.5f;
+
+	/**
+	 * Leads the zombies to the player around the map walls.
+	 */
+	private final FlowField flowField = new FlowField(MAP_WIDTH, MAP_HEIGHT, FLOW_FIELD_CELL_SIZE);
+
+	/**
+	 * Maximum number of line of sight rays cast per tick.
+	 */
+	private static final int LINE_OF_SIGHT_RAYS_PER_TICK = 20;
+
+	/**
+	 * Checks which zombies can see the player.
+	 */
+	private LineOfSight lineOfSight;
+
+	/**
+	 * Picks the zombies whose AI is updated on each tick.
+	 */
+	private final ZombieLod zombieLod = new ZombieLod();
+
+	/**
+	 * Point the zombie being updated heads to.
+	 */
+	private final Vector2 waypoint = new Vector2();
+
+	/**
+	 * The rectangles of the map walls in meters, as x, y, width and height, and the static bodies created from them.
+	 */
+	private final FloatArray wallRectangles = new FloatArray();
+	private final Array<Body> walls = new Array<Body>();
+
+	/**
+	 * Creates a new GameController that controls the physics of a certain GameModel and starts a new game.
 	 *
+	 * @param model the model of the game.
+	 * @param profiler times the phases of the ticks.
 	 */
-	private GameController() {
+	public GameController(GameModel model, FrameProfiler profiler) {
+		this.model = model;
+		this.profiler = profiler;
+		registerContactHandlers();
 	    startNewGame();
 	}
 
 	/**
-	 * Returns a singleton instance of a game controller
+	 * Returns a singleton instance of a game controller, the controller of the default match.
 	 *
 	 * @return the singleton instance
 	 */
 	public static GameController getInstance() {
 		if (instance == null)
-			instance = new GameController();
+			instance = new GameController(GameModel.getInstance(), FrameProfiler.getInstance());
 		return instance;
 	}
 
 	/**
-	 * Calculates the next game update of duration delta (in seconds).
+	 * Returns the model of the game controlled.
+	 * @return the game model.
+	 */
+	public GameModel getModel()
+	{
+		return model;
+	}
+
+	/**
+	 * Returns the profiler timing the phases of the ticks.
+	 * @return the frame profiler.
+	 */
+	public FrameProfiler getProfiler()
+	{
+		return profiler;
+	}
+
+	/**
+	 * Advances the game by delta seconds in ticks of 1/60 s, keeping what is left for the next call.
+	 * The game itself is ticked by a SimulationLoop; this runs the same ticks, without input or rounds,
+	 * and takes at most the same 0.25 s of a long frame into account. The blood spills of the last call are removed.
 	 *
 	 * @param delta The time since the last update.
 	 */
 	public void update(float delta) {
+		model.removeBloodSpills();
+		accumulator += Math.min(delta, SimulationLoop.MAX_FRAME_TIME);
+		while (accumulator >= UPDATE_TICK_TIME) {
+			tick(UPDATE_TICK_TIME);
+			accumulator -= UPDATE_TICK_TIME;
+		}
+	}
+
+	/**
+	 * Advances the game by exactly one fixed simulation step of duration dt (in seconds).
+	 * The world is stepped once with dt so the caller fully owns the tick rate.
+	 *
+	 * @param dt The duration of the tick in seconds.
+	 */
+	public void tick(float dt) {
+		profiler.begin(FrameProfiler.Phase.AI_UPDATE);
+		updateTimers(dt);
+		profiler.end(FrameProfiler.Phase.AI_UPDATE);
+
+		profiler.begin(FrameProfiler.Phase.WORLD_STEP);
+		world.step(dt, 6, 2);
+		profiler.end(FrameProfiler.Phase.WORLD_STEP);
+
+		profiler.begin(FrameProfiler.Phase.CONTACTS);
+		resolveContacts();
+		profiler.end(FrameProfiler.Phase.CONTACTS);
+
+		profiler.begin(FrameProfiler.Phase.AI_UPDATE);
+		updateEntities(dt);
+		profiler.end(FrameProfiler.Phase.AI_UPDATE);
+	}
 
+	/**
+	 * Updates the weapon and player state timers.
+	 *
+	 * @param delta The time since the last update.
+	 */
+	private void updateTimers(float delta) {
 		if (!(timeToNextShot < 0))
 			timeToNextShot -= delta;
 
@@ -223,76 +443,62 @@ public class GameController implements ContactListener {
 
 		if(Gdx.app != null && Gdx.app.getType() == Application.ApplicationType.Android && motionDetectorOn)
 			md.update(delta);
+	}
 
-		float frameTime = Math.min(delta, 0.25f);
-		accumulator += frameTime;
-		while (accumulator >= 1/60f) {
-			world.step(1/60f, 6, 2);
-			accumulator -= 1/60f;
+	/**
+	 * Updates every entity after the physics world has been stepped.
+	 *
+	 * @param delta The time since the last update.
+	 */
+	private void updateEntities(float delta) {
+		for (int i = 0; i < players.size(); i++) {
+			PlayerModel playerModel = players.getModel(i);
+			syncModel(playerModel, players.getBody(i).getBody());
+			spawnOccupancy.update(players.getBody(i));
+			if (playerModel.getHealth() <= 0)
+				playerModel.die();
 		}
 
-		Array<Body> bodies = new Array<Body>();
-		world.getBodies(bodies);
-
-		for (Body body : bodies) {
-			if(! (body.getUserData() instanceof EntityModel) ) continue;
+		for (int i = 0; i < bullets.size(); i++)
+			syncModel(bullets.getModel(i), bullets.getBody(i).getBody());
 
-			((EntityModel) body.getUserData()).setPosition(body.getPosition().x, body.getPosition().y);
-			((EntityModel) body.getUserData()).setRotation(body.getAngle());
+		// Only rebuilds the flow field if the player moved to another cell.
+		flowField.setTarget(selfPlayerBody.getX(), selfPlayerBody.getY());
+		lineOfSight.update(selfPlayerBody.getX(), selfPlayerBody.getY());
 
-			if(body.getUserData() instanceof PlayerModel){
-				PlayerModel playerModel = (PlayerModel) body.getUserData();
-				if (playerModel.getHealth() <= 0)
-					playerModel.die();
-			}
+		float xPlayer = selfPlayerBody.getX();
+		float yPlayer = selfPlayerBody.getY();
 
+		// Every zombie is synced every tick, but only the ones the LOD scheduler picks get their AI updated.
+		zombieLod.begin();
+		for (int i = 0; i < zombies.size(); i++) {
+			// Fazer calculo com base no corpo do zombie model.
+			ZombieModel zombie = zombies.getModel(i);
+			syncModel(zombie, zombies.getBody(i).getBody());
+			spawnOccupancy.update(zombies.getBody(i));
 
-			if(body.getUserData() instanceof ZombieModel)
+			if (zombie.getHealth() < 0)//zombie dies
 			{
-				// Fazer calculo com base no corpo do zombie model.
-				ZombieModel zombie = (ZombieModel) body.getUserData();
-
-				if (zombie.getHealth() < 0)//zombie dies
-				{
-					BloodSpillModel spill = GameModel.getInstance().getBloodSpill();
-					spill.setPosition(zombie.getX(), zombie.getY());
-					spill.setZombieSize(zombie.getSize());
-					zombie.goToHell();
-					zombies_killed++;
-					continue;
-				}
-				float xPlayer = selfPlayerBody.getX();
-				float yPlayer = selfPlayerBody.getY();
-
-				zombie.calculateNewAngle(xPlayer, yPlayer);
-
-				body.setTransform(body.getPosition(), zombie.getRotation());
-
-				float velZombie = zombie.getVel();
-
-				// If player is alive make the zombie go to him.
-				if(!GameModel.getInstance().getSelfPlayer().isDead())
-					body.setLinearVelocity(velZombie * (float) Math.cos(zombie.getRotation()),velZombie * (float) Math.sin(zombie.getRotation()));
-				// Otherwise make the zombie stay static.
-				else
-					body.setLinearVelocity(0, 0);
-
-                zombie.updateTimeToNextAttack(delta);
-
-				Vector2 knocBack_vec = zombie.get_knockBack_vector(delta);
-
-				if(knocBack_vec != null)
-				{
-					Vector2 curVelocity = body.getLinearVelocity();
-					curVelocity.add(knocBack_vec);
-					body.setLinearVelocity(curVelocity);
-				}
-
+				BloodSpillModel spill = model.getBloodSpill();
+				spill.setPosition(zombie.getX(), zombie.getY());
+				spill.setZombieSize(zombie.getSize());
+				zombie.goToHell();
+				zombies_killed++;
+				continue;
 			}
+			zombieLod.schedule(i, zombie, delta, xPlayer, yPlayer);
+		}
+
+		long aiStart = System.nanoTime();
+		IntArray due = zombieLod.getDue();
+		for (int d = 0; d < due.size; d++) {
+			int i = due.get(d);
+			updateZombieAi(zombies.getModel(i), zombies.getBody(i).getBody(), delta, xPlayer, yPlayer);
 		}
+		zombieLod.end(System.nanoTime() - aiStart);
 
 		if(timeToNextState < 0){
-			PlayerModel player = GameModel.getInstance().getSelfPlayer();
+			PlayerModel player = model.getSelfPlayer();
 			selfPlayerBody.disableKnifeHitFixture();
 			if((player.getCurrentState() == PlayerModel.States.SHOOT || player.getCurrentState() == PlayerModel.States.RELOAD)){
 
@@ -304,13 +510,13 @@ public class GameController implements ContactListener {
 						player.replenishPistolAmmo();
 				}
 
-				GameModel.getInstance().getSelfPlayer().setCurrentState(PlayerModel.States.IDLE);
-				GameModel.getInstance().getSelfPlayer().resetStateTime();
+				model.getSelfPlayer().setCurrentState(PlayerModel.States.IDLE);
+				model.getSelfPlayer().resetStateTime();
 				timeToNextState = Float.MAX_VALUE;
 			}
 		}
 
-		PlayerModel player = GameModel.getInstance().getSelfPlayer();
+		PlayerModel player = model.getSelfPlayer();
 		if (player.getCurrentState() == PlayerModel.States.SHOOT
 				&& player.getCurrentWeapon() == PlayerModel.Weapons.KNIFE)
 		{
@@ -322,27 +528,81 @@ public class GameController implements ContactListener {
 		}
 
 		// Regenerate player health.
-		GameModel.getInstance().getSelfPlayer().regenerateHealth(delta);
+		model.getSelfPlayer().regenerateHealth(delta);
+	}
 
-		// Update blood spills.
-		List<BloodSpillModel> spills = GameModel.getInstance().getBloodSpills();
-		List<BloodSpillModel> bloodSpillsToRemove = new ArrayList<BloodSpillModel>();
-		for(BloodSpillModel spill : spills)
-		{
-			spill.updateSpillTime(delta);
-			if(spill.isFlaggedToBeRemoved()) bloodSpillsToRemove.add(spill);
+	/**
+	 * Steers a zombie towards the player and updates its timers and knockback.
+	 * The body keeps the velocity set here until the zombie's next AI update.
+	 *
+	 * @param zombie the zombie model.
+	 * @param body the body supporting the zombie.
+	 * @param delta the duration of the current tick.
+	 * @param xPlayer the x-coordinate of the player.
+	 * @param yPlayer the y-coordinate of the player.
+	 */
+	private void updateZombieAi(ZombieModel zombie, Body body, float delta, float xPlayer, float yPlayer) {
+		float elapsed = zombie.getAiElapsed();
+		zombie.resetAiElapsed();
+
+		// Go straight to the player when he is in sight, otherwise follow the flow field around the walls.
+		if (zombie.canSeePlayer())
+			zombie.calculateNewAngle(xPlayer, yPlayer);
+		else {
+			flowField.getWaypoint(zombie.getX(), zombie.getY(), xPlayer, yPlayer, waypoint);
+			zombie.calculateNewAngle(waypoint.x, waypoint.y);
 		}
-		// Remove blood spills no longer needed.
-		for(BloodSpillModel spill : bloodSpillsToRemove)
+
+		body.setTransform(body.getPosition(), zombie.getRotation());
+
+		float velZombie = zombie.getVel();
+
+		// If player is alive make the zombie go to him.
+		if(!model.getSelfPlayer().isDead())
+			body.setLinearVelocity(velZombie * (float) Math.cos(zombie.getRotation()),velZombie * (float) Math.sin(zombie.getRotation()));
+		// Otherwise make the zombie stay static.
+		else
+			body.setLinearVelocity(0, 0);
+
+		zombie.updateTimeToNextAttack(elapsed);
+
+		// Zombies being knocked back are updated every tick, unless the player is dead.
+		Vector2 knocBack_vec = model.getSelfPlayer().isDead() ? null : zombie.get_knockBack_vector(delta);
+
+		if(knocBack_vec != null)
 		{
-			GameModel.getInstance().remove(spill);
+			Vector2 curVelocity = body.getLinearVelocity();
+			curVelocity.add(knocBack_vec);
+			body.setLinearVelocity(curVelocity);
 		}
 	}
 
 	/**
-	 * Processes current round information.
+	 * Copies the position and rotation of a body to the model it supports.
+	 *
+	 * @param model the model to update.
+	 * @param body the body supporting the model.
+	 */
+	private void syncModel(EntityModel model, Body body) {
+		model.setPosition(body.getPosition().x, body.getPosition().y);
+		model.setRotation(body.getAngle());
+	}
+
+	/**
+	 * Processes current round information, as a tick at the default tick rate.
 	 */
 	public void handleRounds(GameView.States currentState)
+	{
+		handleRounds(currentState, 1f / SimulationLoop.DEFAULT_TICK_RATE);
+	}
+
+	/**
+	 * Processes current round information: spawns the zombies of the round the wave scheduler allows on this tick.
+	 *
+	 * @param currentState the state the view is in.
+	 * @param dt the duration of the tick in seconds.
+	 */
+	public void handleRounds(GameView.States currentState, float dt)
 	{
 		motionDetectorOn = false;
 		/** THE VIEW IS DISPLAYING THE GAME AND NOT ANY START MENU / OVERLAY. */
@@ -350,63 +610,62 @@ public class GameController implements ContactListener {
 		{
 			motionDetectorOn = true;
 			// Set zombie count at the start of the round.
-			if(zombiesLeftToSpawn == Integer.MAX_VALUE)
-			{
-				zombiesLeftToSpawn = getNumberOfZombiesThisRound();
-			}
-			if(zombiesLeftToSpawn > 0)
+			if(!waves.isRoundStarted())
+				waves.startRound(currentDifficulty, getNumberOfZombiesThisRound());
+
+			int toSpawn = waves.beginTick(dt);
+			// Visit every spawn point at most once, starting where the last tick stopped.
+			for(int i = 0; i < SPAWN_X.length && toSpawn > 0; i++)
 			{
-				for(Pair<Integer, Integer> p : ZOMBIE_SPAWNS.keySet())
+				int p = waves.nextSpawnPoint();
+				// Check if spawn point is free
+				if(spawnOccupancy.isFree(p))
 				{
-					if(zombiesLeftToSpawn == 0) break;
-					// Check if spawn point is free
-					if(isSpawnPointFree(p))
-					{
-						// Spawn zombie of random size.
-						int random = (int) (Math.random() * 3f);
-						ZombieModel newZombie;
-						if(random == 0) // Small zombie
-						{
-							newZombie = new ZombieModel(p.getKey(),p.getValue(), ZOMBIE_SPAWNS.get(p), ZombieModel.Sizes.SMALL);
-							SmallZombieBody newZombieBody = new SmallZombieBody(world, newZombie);
-						}
-						else if(random == 1) // Medium zombie
-						{
-							newZombie = new ZombieModel(p.getKey(),p.getValue(), ZOMBIE_SPAWNS.get(p), ZombieModel.Sizes.MEDIUM);
-							MediumZombieBody newZombieBody = new MediumZombieBody(world, newZombie);
-						}
-						else // Big zombie (random == 2)
-						{
-							newZombie = new ZombieModel(p.getKey(),p.getValue(), ZOMBIE_SPAWNS.get(p), ZombieModel.Sizes.BIG);
-							BigZombieBody newZombieBody = new BigZombieBody(world, newZombie);
-						}
-						GameModel.getInstance().addZombie(newZombie);
-						zombiesLeftToSpawn--;
-					}
+					// Spawn zombie of random size.
+					int random = model.getRandom().get(GameRandom.Streams.SPAWN).nextInt(3);
+					ZombieModel.Sizes size;
+					if(random == 0) // Small zombie
+						size = ZombieModel.Sizes.SMALL;
+					else if(random == 1) // Medium zombie
+						size = ZombieModel.Sizes.MEDIUM;
+					else // Big zombie (random == 2)
+						size = ZombieModel.Sizes.BIG;
+					spawnZombie(SPAWN_X[p], SPAWN_Y[p], SPAWN_ROTATION[p], size);
+					waves.spawned();
+					toSpawn--;
 				}
 			}
 		}
 	}
 
 	/**
-	 * Checks if a given point is not colliding with any box2d zombie or player body.
-	 * @param point The point which will be checked for collisions.
+	 * Spawns a zombie, adding it to the model and the physics world.
+	 * Its model and body are taken from their pools, reset as a new zombie.
+	 *
+	 * @param x The x-coordinate of the zombie in meters.
+	 * @param y The y-coordinate of the zombie in meters.
+	 * @param rotation The rotation of the zombie in radians.
+	 * @param size The size of the zombie.
+	 * @return the model of the new zombie.
 	 */
-	private boolean isSpawnPointFree(Pair<Integer, Integer> point)
+	public ZombieModel spawnZombie(float x, float y, float rotation, ZombieModel.Sizes size)
 	{
-		Array<Body> bodies = new Array<Body>();
-		Vector2 point_vector = new Vector2(point.getKey(), point.getValue());
-		world.getBodies(bodies);
-		for (Body body : bodies ) {
-			if ( body.getUserData() instanceof EntityModel ) {
-				Vector2 body_pos = body.getPosition();
-				if(body_pos.dst2(point_vector) < 36)
-				{
-					return false;
-				}
-			}
-		}
-		return true;
+		ZombieModel newZombie = model.getZombie(size);
+		newZombie.setPosition(x, y);
+		newZombie.setRotation(rotation);
+		createZombieBody(newZombie);
+		return newZombie;
+	}
+
+	/**
+	 * Creates and registers the body of a zombie.
+	 * @param zombie the zombie model.
+	 */
+	private void createZombieBody(ZombieModel zombie)
+	{
+		EntityBody body = zombieBodies[zombie.getSize().ordinal()].obtain(zombie);
+		zombies.add(zombie, body);
+		spawnOccupancy.track(body);
 	}
 
 	/**
@@ -418,15 +677,115 @@ public class GameController implements ContactListener {
 		return world;
 	}
 
+	/**
+	 * Returns the service checking which zombies can see the player, along with its ray and staleness counters.
+	 *
+	 * @return The line of sight service.
+	 */
+	public LineOfSight getLineOfSight() {
+		return lineOfSight;
+	}
+
+	/**
+	 * Returns the scheduler picking the zombies whose AI is updated, along with its bucket and timing counters.
+	 *
+	 * @return The zombie LOD scheduler.
+	 */
+	public ZombieLod getZombieLod() {
+		return zombieLod;
+	}
+
+	/**
+	 * Makes a weapon resolve its shots instantly with a ray cast, or fire bullet bodies again.
+	 *
+	 * @param weapon The weapon.
+	 * @param hitscan True to resolve its shots with a ray cast.
+	 */
+	public void setHitscan(PlayerModel.Weapons weapon, boolean hitscan) {
+		hitscanWeapons[weapon.ordinal()] = hitscan;
+	}
+
+	/**
+	 * @param weapon The weapon.
+	 * @return True if the weapon resolves its shots with a ray cast.
+	 */
+	public boolean isHitscan(PlayerModel.Weapons weapon) {
+		return hitscanWeapons[weapon.ordinal()];
+	}
+
+	/**
+	 * Returns the number of hitscan shots fired so far, so the view can tell when a new one is fired.
+	 *
+	 * @return The number of hitscan shots.
+	 */
+	public int getHitscanShots() {
+		return hitscanShots;
+	}
+
+	/**
+	 * @return Where the last hitscan shot started, in meters.
+	 */
+	public Vector2 getHitscanStart() {
+		return hitscanStart;
+	}
+
+	/**
+	 * @return Where the last hitscan shot ended, in meters: what it hit or the end of its range.
+	 */
+	public Vector2 getHitscanEnd() {
+		return hitscanEnd;
+	}
+
+	/**
+	 * Returns the pool of zombie bodies of a size, along with its counters.
+	 *
+	 * @param size The size of the zombies.
+	 * @return The zombie body pool.
+	 */
+	public EntityBodyPool<?> getZombieBodyPool(ZombieModel.Sizes size) {
+		return zombieBodies[size.ordinal()];
+	}
+
+	/**
+	 * Returns the pool of bullet bodies, along with its counters.
+	 *
+	 * @return The bullet body pool.
+	 */
+	public EntityBodyPool<BulletBody> getBulletBodyPool() {
+		return bulletBodies;
+	}
+
+	/**
+	 * Sizes the pool of bullet bodies. The pool is built with every new world, so the sizes apply from the next new game.
+	 *
+	 * @param size The maximum number of free bullet bodies kept for reuse.
+	 * @param prewarm The number of bullet bodies prebuilt when a new game starts, capped by the size.
+	 */
+	public void setBulletBodyPool(int size, int prewarm) {
+		bulletBodyPoolSize = size;
+		bulletBodyPrewarm = prewarm;
+	}
+
+	/**
+	 * Sizes the pools of zombie bodies. The pools are built with every new world, so the sizes apply from the next new game.
+	 *
+	 * @param size The maximum number of free zombie bodies of each size kept for reuse.
+	 * @param prewarm The number of zombie bodies of each size prebuilt when a new game starts, capped by the size.
+	 */
+	public void setZombieBodyPool(int size, int prewarm) {
+		zombieBodyPoolSize = size;
+		zombieBodyPrewarm = prewarm;
+	}
+
 	/**
 	 * Processes this player movement.
 	 *
 	 * @param movementMask A bit mask which represents the direction the player is going.
 	 * @param dt time since last time inputs where handled in seconds
-	 * @param camera the camera being used in the gameview class for the libgdx screen.
+	 * @param aimAngle the angle the player should be pointed at in radians, or NaN to keep the current one.
 	 */
-	public void processMovement(short movementMask, float dt, OrthographicCamera camera) {
-		PlayerModel selfPlayerModel = GameModel.getInstance().getSelfPlayer();
+	public void processMovement(short movementMask, float dt, float aimAngle) {
+		PlayerModel selfPlayerModel = model.getSelfPlayer();
 		selfPlayerBody.setLinearVelocity(0, 0);    // Make the player stand still.
 
 		// Calculate new linear velocity for the player.
@@ -465,30 +824,39 @@ public class GameController implements ContactListener {
 		}
 
 		// Apply knockback.
-		Vector2 knocBack_vec = selfPlayerModel.get_knockBack_vector(dt);
+		Vector2 knocBack_vec = selfPlayerModel.isDead() ? null : selfPlayerModel.get_knockBack_vector(dt);
 
 		if(knocBack_vec != null)
 		{
-			Vector2 curVelocity = new Vector2(newVel_X, newVel_Y);
-			curVelocity.add(knocBack_vec);
-			selfPlayerBody.setLinearVelocity(curVelocity.x, curVelocity.y);
+			selfPlayerBody.setLinearVelocity(newVel_X + knocBack_vec.x, newVel_Y + knocBack_vec.y);
 		}
 
+		// Make the player body be pointed towards the crosshair.
+		if (!Float.isNaN(aimAngle))
+			selfPlayerBody.setAngle(aimAngle);
+
+		// Remove momentum.
+		selfPlayerBody.setAngularVelocity(0);
+	}
 
+	/**
+	 * Calculates the angle the player must face to aim at a given world point.
+	 *
+	 * @param targetX the x-coordinate of the crosshair in meters.
+	 * @param targetY the y-coordinate of the crosshair in meters.
+	 * @return the angle in radians the player body should be set to.
+	 */
+	public float calculateAimAngle(float targetX, float targetY) {
+		PlayerModel selfPlayerModel = model.getSelfPlayer();
 		// Calculate relative gun position to the player center.
 		Vector2 gunPos = selfPlayerBody.getWeaponFiringPosition();
-		// Make the player body be pointed towards the crosshair.
-		Vector3 screen_coords = new Vector3(Gdx.input.getX(),Gdx.input.getY(),0);
-		Vector3 world_coords = camera.unproject(screen_coords);
-		world_coords.x = (float)world_coords.x * GameView.PIXEL_TO_METER;//
-		world_coords.y = (float)world_coords.y * GameView.PIXEL_TO_METER;//
 
 		// Band-Aid over here! If we assume player position = weapon position then
 		// the player will rotate infinitely if the crosshair is near the player.
 		// The strategy is to calculate the distance between the crosshair and the weapon position
 		// and apply a linear function to it.
 		float gunPos_weight;
-		float distance = world_coords.dst2(gunPos.x, gunPos.y, 0);
+		float distance = Vector2.dst2(targetX, targetY, gunPos.x, gunPos.y);
 
 		final float upper_bound = 15;
 		final float lower_bound = 9;
@@ -508,12 +876,7 @@ public class GameController implements ContactListener {
 
 		float 	player_x 	= 	selfPlayerModel.getX() + gunPos.x * gunPos_weight,
 				player_y 	= 	selfPlayerModel.getY() + gunPos.y * gunPos_weight;
-		float angle = (float) Math.atan2(world_coords.y - player_y , world_coords.x - player_x);
-		if (Gdx.app.getType() != Application.ApplicationType.Android)
-			selfPlayerBody.setAngle(angle);
-
-		// Remove momentum.
-		selfPlayerBody.setAngularVelocity(0);
+		return (float) Math.atan2(targetY - player_y , targetX - player_x);
 	}
 
 	public PlayerBody getSelfPlayerBody() {
@@ -525,12 +888,11 @@ public class GameController implements ContactListener {
 	 * @param weapon weapon the player will hold.
 	 */
 	public void switchToWeapon(PlayerModel.Weapons weapon){
-		PlayerModel selfPlayerModel = GameModel.getInstance().getSelfPlayer();
+		PlayerModel selfPlayerModel = model.getSelfPlayer();
 		PlayerModel.Weapons currentWeapon = selfPlayerModel.getCurrentWeapon();
 		if(weapon == currentWeapon) return; // Do nothing if player is already holding this weapon
-		else if (Gdx.app != null){
+		else
 			selfPlayerModel.doDrawSound();
-		}
 		selfPlayerModel.setCurrentWeapon(weapon);
 		selfPlayerModel.resetStateTime();
 		selfPlayerModel.setCurrentState(PlayerModel.States.IDLE);
@@ -542,7 +904,7 @@ public class GameController implements ContactListener {
 	 * @param next if true switch to the next weapon otherwise switch to the previous weapon
 	 */
 	public void switchToWeapon(boolean next){
-		PlayerModel selfPlayerModel = GameModel.getInstance().getSelfPlayer();
+		PlayerModel selfPlayerModel = model.getSelfPlayer();
 		PlayerModel.Weapons currentWeapon = selfPlayerModel.getCurrentWeapon();
 
 
@@ -576,13 +938,13 @@ public class GameController implements ContactListener {
 		}
 
 
-		if(Gdx.app != null) selfPlayerModel.doDrawSound();
+		selfPlayerModel.doDrawSound();
 		selfPlayerModel.resetStateTime();
 		selfPlayerModel.setCurrentState(PlayerModel.States.IDLE);
 	}
 
 	public void reload() {
-		PlayerModel selfPlayerModel = GameModel.getInstance().getSelfPlayer();
+		PlayerModel selfPlayerModel = model.getSelfPlayer();
 		if(selfPlayerModel.getCurrentState() == PlayerModel.States.RELOAD)
 			return;
 		if((selfPlayerModel.getPistolCurrentAmmo() != MAX_PISTOL_AMMO && selfPlayerModel.getCurrentWeapon() == PlayerModel.Weapons.PISTOL) ||
@@ -590,8 +952,7 @@ public class GameController implements ContactListener {
 			selfPlayerModel.setCurrentState(PlayerModel.States.RELOAD);
 			selfPlayerModel.resetStateTime();
 			timeToNextState = DEFAULT_TIME_TO_NEXT_STATE_RELOAD;
-			if(Gdx.app != null)
-				selfPlayerModel.doReloadSound();
+			selfPlayerModel.doReloadSound();
 		}
 
 	}
@@ -601,7 +962,7 @@ public class GameController implements ContactListener {
 	 */
 	public void shoot() {
 
-		PlayerModel player = GameModel.getInstance().getSelfPlayer();
+		PlayerModel player = model.getSelfPlayer();
 
 		if(player.getCurrentState() == PlayerModel.States.RELOAD)
 			return;
@@ -619,15 +980,22 @@ public class GameController implements ContactListener {
 					return;
 
 			if(player.getCurrentWeapon() != PlayerModel.Weapons.KNIFE){
-				// Get bullet from pools.
-				BulletModel bullet = GameModel.getInstance().getBullet(player.getCurrentWeapon());
-				// Set bullet position & angle.
 				Vector2 weaponPosition = selfPlayerBody.getWeaponFiringPosition();
-				bullet.setPosition(weaponPosition.x, weaponPosition.y);
-				bullet.setRotation(selfPlayerBody.getAngle() - (float)Math.PI/2);
-
-				BulletBody body = new BulletBody(world, bullet);
-				body.setLinearVelocity(BULLET_SPEED);
+				float rotation = selfPlayerBody.getAngle() - (float)Math.PI/2;
+
+				if (hitscanWeapons[player.getCurrentWeapon().ordinal()])
+					fireHitscan(player.getCurrentWeapon(), weaponPosition.x, weaponPosition.y, rotation);
+				else {
+					// Get bullet from pools.
+					BulletModel bullet = model.getBullet(player.getCurrentWeapon());
+					// Set bullet position & angle.
+					bullet.setPosition(weaponPosition.x, weaponPosition.y);
+					bullet.setRotation(rotation);
+
+					BulletBody body = bulletBodies.obtain(bullet);
+					body.setLinearVelocity(BULLET_SPEED);
+					bullets.add(bullet, body);
+				}
 			}
 
 			if(player.getCurrentWeapon() == PlayerModel.Weapons.RIFLE){
@@ -653,70 +1021,252 @@ public class GameController implements ContactListener {
 
 	}
 
+	/**
+	 * Resolves a shot instantly: the first zombie or wall in its path is hit.
+	 *
+	 * @param weapon the weapon shooting.
+	 * @param x the x-coordinate of the weapon in meters.
+	 * @param y the y-coordinate of the weapon in meters.
+	 * @param rotation the rotation a bullet of the shot would have.
+	 */
+	private void fireHitscan(PlayerModel.Weapons weapon, float x, float y, float rotation) {
+		// The direction bullets travel in, see EntityBody.setLinearVelocity().
+		float directionX = (float) -Math.sin(rotation), directionY = (float) Math.cos(rotation);
+
+		// Box2D doesn't report fixtures the ray starts in, so cast from level with the player's center
+		// to also hit zombies the weapon is already inside of, like a bullet fired there would.
+		float backtrack = (x - selfPlayerBody.getX()) * directionX + (y - selfPlayerBody.getY()) * directionY;
+		Fixture hit = hitscan.cast(world, x - directionX * backtrack, y - directionY * backtrack, directionX, directionY, HITSCAN_RANGE + backtrack);
+		if (hit != null) {
+			int handle = EntityBody.handleOf(hit.getBody());
+			ZombieModel zombie = model.resolveZombie(handle);
+			if (zombie != null)
+				damageZombie(zombie, hit.getBody(), BulletModel.getDamage(weapon), directionX, directionY);
+		}
+
+		hitscanStart.set(x, y);
+		hitscanEnd.set(hitscan.getEnd());
+		hitscanShots++;
+	}
+
+	/**
+	 * Removes the entities flagged for removal from the model and the physics world, going only through the
+	 * handles the model listed when they were flagged.
+	 * Pooled bodies go back to their pool, the other bodies are destroyed together once the entities have been removed.
+	 */
 	public void removeFlagged() {
-		Array<Body> bodies = new Array<Body>();
-		world.getBodies(bodies);
-		for (Body body : bodies) {
-			if ( body.getUserData() instanceof EntityModel && ((EntityModel)body.getUserData()).isFlaggedToBeRemoved()) {
-				GameModel.getInstance().remove((EntityModel) body.getUserData());
-				world.destroyBody(body);
-			}
+		IntArray flagged = model.getFlaggedHandles();
+		for (int i = 0; i < flagged.size; i++) {
+			int handle = flagged.get(i);
+			EntityHandle.Kind kind = EntityHandle.kindOf(handle);
+			if (kind == EntityHandle.Kind.ZOMBIE)
+				removeFlagged(zombies, handle);
+			else if (kind == EntityHandle.Kind.BULLET)
+				removeFlagged(bullets, handle);
+			else if (kind == EntityHandle.Kind.PLAYER)
+				removeFlagged(players, handle);
 		}
+		flagged.clear();
+
+		for (int i = 0; i < bodiesToDestroy.size; i++)
+			world.destroyBody(bodiesToDestroy.get(i));
+		bodiesToDestroy.clear();
+	}
+
+	/**
+	 * Removes a flagged entity of a registry, freeing its body or queueing it to be destroyed.
+	 * @param registry the registry of the entity's type.
+	 * @param handle the handle of the entity, ignored if stale or no longer flagged.
+	 */
+	private void removeFlagged(EntityRegistry<?> registry, int handle) {
+		int index = registry.indexOf(handle);
+		if (index < 0 || !registry.getModel(index).isFlaggedToBeRemoved())
+			return;
+		EntityBody body = registry.getBody(index);
+		spawnOccupancy.untrack(body);
+		registry.removeIndex(index);
+		model.remove(handle);
+		if (body.getPool() != null)
+			body.getPool().free(body);
+		else
+			bodiesToDestroy.add(body.getBody());
 	}
 
 	@Override
 	public void beginContact(Contact contact) {
-		// Knife Sensor touched
-		if(contact.getFixtureA().isSensor() || contact.getFixtureB().isSensor())
-		{
-			ZombieModel zombieModel;
-			PlayerModel playerModel;
-
-			contact.getFixtureA().getBody().setAngularVelocity(0);
-			contact.getFixtureB().getBody().setAngularVelocity(0);
+		beginContactHandlers.dispatch(contact);
+	}
 
-			if(contact.getFixtureA().isSensor())
-			{
-				playerModel = (PlayerModel) contact.getFixtureA().getBody().getUserData();
-				zombieModel = (ZombieModel) contact.getFixtureB().getBody().getUserData();
+	/**
+	 * Registers what each pair of collision categories does when it begins and ends touching.
+	 * Every handler only queues the contact or tracks the pair, which is resolved after the world step.
+	 *
+	 * A bullet is removed by the first thing it hits, so its contacts are handled when they begin; preSolve(),
+	 * which Box2D calls on every step for every pair touching, doesn't classify contacts at all.
+	 */
+	private void registerContactHandlers() {
+		ContactDispatcher.Handler bulletHit = new ContactDispatcher.Handler() {
+			@Override
+			public void onContact(Contact contact, Fixture bullet, Fixture other) {
+				queueContact(ContactQueue.Type.BULLET_HIT, contact, bullet.getBody(), other.getBody());
 			}
-			else
-			{
-				playerModel = (PlayerModel) contact.getFixtureB().getBody().getUserData();
-				zombieModel = (ZombieModel) contact.getFixtureA().getBody().getUserData();
+		};
+		beginContactHandlers.register(EntityBody.BULLET_BODY, EntityBody.MAP_WALL, bulletHit);
+		beginContactHandlers.register(EntityBody.BULLET_BODY, EntityBody.PLAYER_BODY, bulletHit);
+		beginContactHandlers.register(EntityBody.BULLET_BODY, EntityBody.BULLET_BODY, new ContactDispatcher.Handler() {
+			@Override
+			public void onContact(Contact contact, Fixture bulletA, Fixture bulletB) {
+				queueContact(ContactQueue.Type.BULLET_HIT, contact, bulletA.getBody(), bulletB.getBody());
+				queueContact(ContactQueue.Type.BULLET_HIT, contact, bulletB.getBody(), bulletA.getBody());
+			}
+		});
+		beginContactHandlers.register(EntityBody.BULLET_BODY, EntityBody.ZOMBIE_BODY, new ContactDispatcher.Handler() {
+			@Override
+			public void onContact(Contact contact, Fixture bullet, Fixture zombie) {
+				queueContact(ContactQueue.Type.BULLET_ZOMBIE, contact, bullet.getBody(), zombie.getBody());
+			}
+		});
+		beginContactHandlers.register(EntityBody.PLAYER_BODY, EntityBody.ZOMBIE_BODY, new ContactDispatcher.Handler() {
+			@Override
+			public void onContact(Contact contact, Fixture player, Fixture zombie) {
+				touchingPlayerZombies.add(EntityBody.handleOf(player.getBody()));
+				touchingPlayerZombies.add(EntityBody.handleOf(zombie.getBody()));
 			}
+		});
+		endContactHandlers.register(EntityBody.PLAYER_BODY, EntityBody.ZOMBIE_BODY, new ContactDispatcher.Handler() {
+			@Override
+			public void onContact(Contact contact, Fixture player, Fixture zombie) {
+				untrackTouching(EntityBody.handleOf(player.getBody()), EntityBody.handleOf(zombie.getBody()));
+			}
+		});
+		beginContactHandlers.register(EntityBody.PLAYER_KNIFE, EntityBody.ZOMBIE_BODY, new ContactDispatcher.Handler() {
+			@Override
+			public void onContact(Contact contact, Fixture knife, Fixture zombie) {
+				queueContact(ContactQueue.Type.KNIFE_ZOMBIE, contact, knife.getBody(), zombie.getBody());
+			}
+		});
+	}
 
-			// Is the player holding the knife and is he attacking with it?
-			if(playerModel.getCurrentWeapon() == PlayerModel.Weapons.KNIFE &&
-					playerModel.getCurrentState() == PlayerModel.States.SHOOT)
-			{
-				// Dont hit the zombie if the animation if nearly done.
-				if(timeToNextState >= TIME_BETWEEN_SHOTS_KNIFE * 0.3)
-				{
-					zombieModel.setKnockBack(10, new Vector2(1, 0).rotateRad(playerModel.getRotation()));
-					zombieModel.takeDamage(PlayerModel.DEFAULT_DAMAGE_KNIFE);;
+	/**
+	 * Resolves the contacts queued during the last world step, in the order they were reported.
+	 * A bullet only hits once: the contacts of bullets already flagged for removal are dropped,
+	 * as are the contacts of entities removed since, whose handles no longer resolve.
+	 */
+	private void resolveContacts() {
+		queueTouching();
+		contactsResolved = contactQueue.size();
+		while (!contactQueue.isEmpty()) {
+			int handleA = contactQueue.getHandleA(), handleB = contactQueue.getHandleB();
+			switch (contactQueue.getType()) {
+				case BULLET_HIT: {
+					BulletModel bullet = model.resolveBullet(handleA);
+					if (bullet != null && !bullet.isFlaggedToBeRemoved())
+						bullet.setFlaggedForRemoval(true);
+					break;
+				}
+				case BULLET_ZOMBIE: {
+					BulletModel bullet = model.resolveBullet(handleA);
+					ZombieModel zombie = model.resolveZombie(handleB);
+					if (bullet != null && !bullet.isFlaggedToBeRemoved()) {
+						bullet.setFlaggedForRemoval(true);
+						if (zombie != null)
+							bulletZombieCollision(bullet, bullets.getBodyByHandle(handleA).getBody(), zombie, zombies.getBodyByHandle(handleB).getBody());
+					}
+					break;
+				}
+				case PLAYER_ZOMBIE: {
+					PlayerModel player = model.resolvePlayer(handleA);
+					ZombieModel zombie = model.resolveZombie(handleB);
+					if (player != null && zombie != null)
+						playerZombieCollision(player, zombie, zombies.getBodyByHandle(handleB).getBody());
+					break;
+				}
+				case KNIFE_ZOMBIE: {
+					PlayerModel player = model.resolvePlayer(handleA);
+					ZombieModel zombie = model.resolveZombie(handleB);
+					if (player != null && zombie != null)
+						knifeZombieCollision(player, players.getBodyByHandle(handleA).getBody(), zombie, zombies.getBodyByHandle(handleB).getBody());
+					break;
 				}
 			}
+			contactQueue.pop();
 		}
 	}
 
-    /**
-     * A bullet colided with something. Lets remove it.
-     *
-     * @param bulletBody the bullet that colided
-     */
-    private void bulletCollision(Body bulletBody) {
-        ((BulletModel)bulletBody.getUserData()).setFlaggedForRemoval(true);
-    }
+	/**
+	 * Queues a PLAYER_ZOMBIE contact for every player and zombie still touching, at the zombie's position.
+	 */
+	private void queueTouching() {
+		for (int i = 0; i < touchingPlayerZombies.size; i += 2) {
+			ZombieModel zombie = model.resolveZombie(touchingPlayerZombies.get(i + 1));
+			if (zombie != null)
+				contactQueue.push(ContactQueue.Type.PLAYER_ZOMBIE, touchingPlayerZombies.get(i), touchingPlayerZombies.get(i + 1), zombie.getX(), zombie.getY());
+		}
+	}
+
+	/**
+	 * Stops tracking a player and a zombie that no longer touch.
+	 *
+	 * @param player the handle of the player.
+	 * @param zombie the handle of the zombie.
+	 */
+	private void untrackTouching(int player, int zombie) {
+		for (int i = 0; i < touchingPlayerZombies.size; i += 2)
+			if (touchingPlayerZombies.get(i) == player && touchingPlayerZombies.get(i + 1) == zombie) {
+				touchingPlayerZombies.removeRange(i, i + 1);
+				return;
+			}
+	}
+
+	/**
+	 * Queues a contact to be resolved after the world step, taking its first contact point.
+	 *
+	 * @param type the kind of contact.
+	 * @param contact the contact reported by Box2D.
+	 * @param bodyA the first body, as defined by the type.
+	 * @param bodyB the second body.
+	 */
+	private void queueContact(ContactQueue.Type type, Contact contact, Body bodyA, Body bodyB) {
+		int handleA = EntityBody.handleOf(bodyA), handleB = EntityBody.handleOf(bodyB);
+		WorldManifold manifold = contact.getWorldManifold();
+		if (manifold.getNumberOfContactPoints() > 0)
+			contactQueue.push(type, handleA, handleB, manifold.getPoints()[0].x, manifold.getPoints()[0].y);
+		else
+			contactQueue.push(type, handleA, handleB, bodyB.getPosition().x, bodyB.getPosition().y);
+	}
+
+	/**
+	 * The player's knife touched a zombie.
+	 * @param playerModel the player holding the knife
+	 * @param playerBody the body of the player
+	 * @param zombieModel the zombie touched
+	 * @param zombieBody the body of the zombie
+	 */
+	private void knifeZombieCollision(PlayerModel playerModel, Body playerBody, ZombieModel zombieModel, Body zombieBody) {
+		playerBody.setAngularVelocity(0);
+		zombieBody.setAngularVelocity(0);
+
+		// Is the player holding the knife and is he attacking with it?
+		if(playerModel.getCurrentWeapon() == PlayerModel.Weapons.KNIFE &&
+				playerModel.getCurrentState() == PlayerModel.States.SHOOT)
+		{
+			// Dont hit the zombie if the animation if nearly done.
+			if(timeToNextState >= TIME_BETWEEN_SHOTS_KNIFE * 0.3)
+			{
+				zombieModel.setKnockBack(10, knockBackDirection.set(1, 0).rotateRad(playerModel.getRotation()));
+				zombieModel.takeDamage(PlayerModel.DEFAULT_DAMAGE_KNIFE);;
+			}
+		}
+	}
 
     /**
      * A bullet collided with an zombie.
-     * @param bulletBody the bullet that collided
-     * @param zombieBody the zombie that collided
+     * @param bulletModel the bullet that collided
+     * @param bulletBody the body of the bullet
+     * @param zombieModel the zombie that collided
+     * @param zombieBody the body of the zombie
      */
-    private void bulletZombieCollision(Body bulletBody, Body zombieBody) {
-        ZombieModel zombieModel = (ZombieModel) zombieBody.getUserData();
-		BulletModel bulletModel = (BulletModel) bulletBody.getUserData();
+    private void bulletZombieCollision(BulletModel bulletModel, Body bulletBody, ZombieModel zombieModel, Body zombieBody) {
 
 		/*Vector2 test = zombieBody.getPosition();
 		zombieBody.getPosition().x += (float) (zombieModel.getX() + 200*Math.cos(zombieModel.getRotation()));
@@ -724,32 +1274,44 @@ public class GameController implements ContactListener {
 		//zombieModel.setPosition((float) (zombieModel.getX() + 200*Math.cos(zombieModel.getRotation())), (float) (zombieModel.getY() + 200*Math.sin(zombieModel.getRotation())));
 
         /* TIRAR VIDA AO ZOMBIE_MEDIUM! */
-		zombieModel.takeDamage(bulletModel.getDamageToGive());
+		float angle = bulletBody.getAngle() + (float) Math.PI/2;
+		damageZombie(zombieModel, zombieBody, bulletModel.getDamageToGive(), (float) Math.cos(angle), (float) Math.sin(angle));
+    }
+
+	/**
+	 * Damages a zombie hit by a shot and knocks it back.
+	 * @param zombieModel the zombie hit
+	 * @param zombieBody the body of the zombie
+	 * @param damage the damage of the shot
+	 * @param directionX the x-component of the unit direction of the shot
+	 * @param directionY the y-component of the unit direction of the shot
+	 */
+	private void damageZombie(ZombieModel zombieModel, Body zombieBody, float damage, float directionX, float directionY) {
+		zombieModel.takeDamage(damage);
 		//Gdx.app.log("bulletBody.getAngle()", "" + bulletBody.getAngle());
-		zombieModel.setKnockBack(9, new Vector2(1,0).rotateRad(bulletBody.getAngle() + (float) Math.PI/2));
+		zombieModel.setKnockBack(9, knockBackDirection.set(directionX, directionY));
 		zombieBody.setAngularVelocity(0);
-    }
+	}
 
     /**
      * the player collided with an zombie (attacking).
-     * @param playerBody the player that collided
-     * @param zombieBody the zombie that collided
+     * @param player the player that collided
+     * @param zombieModel the zombie that collided
+     * @param zombieBody the body of the zombie
      */
-    private void playerZombieCollision(Body playerBody, Body zombieBody) {
-		ZombieModel zombieModel = (ZombieModel) zombieBody.getUserData();
+    private void playerZombieCollision(PlayerModel player, ZombieModel zombieModel, Body zombieBody) {
 		zombieModel.setCurrentState(ZombieModel.States.ATTACK);
-		PlayerModel player = GameModel.getInstance().getSelfPlayer();
 
         if (zombieModel.getTimeToNextAttack() < 0){
 			player.takeDamage(zombieModel.getDamageToGive());
 			zombieModel.setNewTimeToNextAttack();
 			if(!player.isDead()) {
 				if(zombieModel.getSize() == ZombieModel.Sizes.SMALL)
-					player.setKnockBack(10, new Vector2(1, 0).rotateRad(zombieBody.getAngle()));
+					player.setKnockBack(10, knockBackDirection.set(1, 0).rotateRad(zombieBody.getAngle()));
 				else if(zombieModel.getSize() == ZombieModel.Sizes.MEDIUM)
-					player.setKnockBack(12, new Vector2(1, 0).rotateRad(zombieBody.getAngle()));
+					player.setKnockBack(12, knockBackDirection.set(1, 0).rotateRad(zombieBody.getAngle()));
 				else if(zombieModel.getSize() == ZombieModel.Sizes.BIG)
-					player.setKnockBack(14, new Vector2(1, 0).rotateRad(zombieBody.getAngle()));
+					player.setKnockBack(14, knockBackDirection.set(1, 0).rotateRad(zombieBody.getAngle()));
 			}
 		}
 
@@ -763,6 +1325,7 @@ public class GameController implements ContactListener {
 
 	@Override
 	public void endContact(Contact contact) {
+		endContactHandlers.dispatch(contact);
 		contact.getFixtureA().getBody().setAngularVelocity(0);
 		contact.getFixtureB().getBody().setAngularVelocity(0);
 	}
@@ -770,22 +1333,6 @@ public class GameController implements ContactListener {
 	@Override
 	public void preSolve(Contact contact, Manifold oldManifold) {
 
-		Body bodyA = contact.getFixtureA().getBody();
-		Body bodyB = contact.getFixtureB().getBody();
-
-		if (bodyA.getUserData() instanceof BulletModel)
-			bulletCollision(bodyA);
-		if (bodyB.getUserData() instanceof BulletModel)
-			bulletCollision(bodyB);
-
-		if (bodyA.getUserData() instanceof BulletModel && bodyB.getUserData() instanceof ZombieModel)
-			bulletZombieCollision(bodyA, bodyB);
-		if (bodyA.getUserData() instanceof ZombieModel && bodyB.getUserData() instanceof BulletModel)
-			bulletZombieCollision(bodyB, bodyA);
-		if (bodyA.getUserData() instanceof PlayerModel && bodyB.getUserData() instanceof ZombieModel)
-			playerZombieCollision(bodyA, bodyB);
-		if (bodyA.getUserData() instanceof ZombieModel && bodyB.getUserData() instanceof PlayerModel)
-			playerZombieCollision(bodyB, bodyA);
 	}
 
 	@Override
@@ -794,57 +1341,165 @@ public class GameController implements ContactListener {
 	}
 
 	/**
-	 * Starts a new game.
+	 * Creates the walls of a map, replacing the ones of the previous map, and blocks them on the flow field.
+	 * The walls are the rectangles of the map's object layer.
+	 *
+	 * @param map the map loaded from its TMX file.
 	 */
-	public void startNewGame()
-	{
-		// Create world if it doesn't exist yet.
-		if(world == null) world = new World(new Vector2(0, 0), true);
+	public void loadMap(TiledMap map) {
+		FloatArray rectangles = new FloatArray();
+		for (RectangleMapObject object : map.getLayers().get(1).getObjects().getByType(RectangleMapObject.class)) {
+			Rectangle rect = object.getRectangle();
+			rectangles.add(rect.getX() * GameView.PIXEL_TO_METER);
+			rectangles.add(rect.getY() * GameView.PIXEL_TO_METER);
+			rectangles.add(rect.getWidth() * GameView.PIXEL_TO_METER);
+			rectangles.add(rect.getHeight() * GameView.PIXEL_TO_METER);
+		}
+		loadWalls(rectangles);
+	}
 
-		// Delete all bodies from the world.
-		Array<Body> bodies = new Array<Body>();
-		world.getBodies(bodies);
-		for(int i = 0; i < bodies.size; i++)
-		{
-			if(!world.isLocked() && bodies.get(i).getUserData() instanceof EntityModel)
-				world.destroyBody(bodies.get(i));
+	/**
+	 * Creates walls, replacing the ones of the previous map, and blocks them on the flow field.
+	 * They are created again on every new game.
+	 *
+	 * @param rectangles the rectangles of the walls in meters, as x, y, width and height.
+	 */
+	public void loadWalls(FloatArray rectangles) {
+		for (int i = 0; i < walls.size; i++)
+			world.destroyBody(walls.get(i));
+		walls.clear();
+		wallRectangles.clear();
+		wallRectangles.addAll(rectangles);
+
+		flowField.clearObstacles();
+		for (int i = 0; i + 3 < wallRectangles.size; i += 4)
+			flowField.addObstacle(wallRectangles.get(i) - WALL_CLEARANCE, wallRectangles.get(i + 1) - WALL_CLEARANCE,
+					wallRectangles.get(i + 2) + 2 * WALL_CLEARANCE, wallRectangles.get(i + 3) + 2 * WALL_CLEARANCE);
+		createWalls();
+	}
+
+	/**
+	 * Creates the static bodies of the walls.
+	 */
+	private void createWalls() {
+		BodyDef bdef = new BodyDef();
+		bdef.type = BodyDef.BodyType.StaticBody;
+		PolygonShape shape = new PolygonShape();
+		FixtureDef fdef = new FixtureDef();
+		fdef.shape = shape;
+		fdef.filter.categoryBits = EntityBody.MAP_WALL;
+		fdef.filter.maskBits = ~0;
+
+		for (int i = 0; i + 3 < wallRectangles.size; i += 4) {
+			float x = wallRectangles.get(i), y = wallRectangles.get(i + 1);
+			float width = wallRectangles.get(i + 2), height = wallRectangles.get(i + 3);
+
+			bdef.position.set(x + width / 2, y + height / 2);
+			Body body = world.createBody(bdef);
+			shape.setAsBox(width / 2, height / 2);
+			ContactDispatcher.tag(body.createFixture(fdef));
+			walls.add(body);
 		}
-		// Do a initial world step to process all the body deletions.
-		world.step(1/60f, 6, 2);
+		shape.dispose();
+	}
 
-		// Signal the model that a new game will begin.
-		GameModel.getInstance().startNewGame();
+	/**
+	 * Returns the walls of the current map.
+	 * @return the rectangles of the walls in meters, as x, y, width and height. Must not be modified.
+	 */
+	public FloatArray getWalls() {
+		return wallRectangles;
+	}
 
-		List<PlayerModel> players = GameModel.getInstance().getPlayers();
-		selfPlayerBody = new PlayerBody(world, players.get(0));
+	/**
+	 * Starts a new game with a random seed.
+	 */
+	public void startNewGame()
+	{
+		startNewGame(GameRandom.newSeed());
+	}
 
-		List<ZombieModel> zombies = GameModel.getInstance().getZombies();
-		for(ZombieModel zombie : zombies) {
-			if (zombie.getSize() == ZombieModel.Sizes.MEDIUM) {
-				new MediumZombieBody(world, zombie);
+	/**
+	 * Starts a new game. Every game runs on a new world, so that given the same seed,
+	 * difficulty, walls and player input it plays out the same way.
+	 *
+	 * The body pools are built for the new world and prewarmed here, sized as set with setBulletBodyPool()
+	 * and setZombieBodyPool(), so the bodies are created before the game is played rather than on its first
+	 * shots and spawns.
+	 *
+	 * @param seed the seed of the random numbers used by the game.
+	 */
+	public void startNewGame(long seed)
+	{
+		if(world != null)
+			world.dispose();
+		world = new World(new Vector2(0, 0), true);
+		FixtureCache.build();
+		bulletBodies = new EntityBodyPool<BulletBody>(world, bulletBodyPoolSize) {
+			@Override
+			protected BulletBody newBody(World world) {
+				return new BulletBody(world);
 			}
-			else if (zombie.getSize() == ZombieModel.Sizes.SMALL) {
-				new SmallZombieBody(world, zombie);
+		};
+		zombieBodies[ZombieModel.Sizes.SMALL.ordinal()] = new EntityBodyPool<SmallZombieBody>(world, zombieBodyPoolSize) {
+			@Override
+			protected SmallZombieBody newBody(World world) {
+				return new SmallZombieBody(world);
 			}
-			else if (zombie.getSize() == ZombieModel.Sizes.BIG){
-				new BigZombieBody(world, zombie);
+		};
+		zombieBodies[ZombieModel.Sizes.MEDIUM.ordinal()] = new EntityBodyPool<MediumZombieBody>(world, zombieBodyPoolSize) {
+			@Override
+			protected MediumZombieBody newBody(World world) {
+				return new MediumZombieBody(world);
 			}
-		}
+		};
+		zombieBodies[ZombieModel.Sizes.BIG.ordinal()] = new EntityBodyPool<BigZombieBody>(world, zombieBodyPoolSize) {
+			@Override
+			protected BigZombieBody newBody(World world) {
+				return new BigZombieBody(world);
+			}
+		};
+		bulletBodies.prewarm(bulletBodyPrewarm);
+		for (EntityBodyPool<?> pool : zombieBodies)
+			pool.prewarm(zombieBodyPrewarm);
+		walls.clear();
+		createWalls();
+		lineOfSight = new LineOfSight(world, zombies, LINE_OF_SIGHT_RAYS_PER_TICK);
+
+		players.clear();
+		zombies.clear();
+		bullets.clear();
+		spawnOccupancy.clear();
+		contactQueue.clear();
+		touchingPlayerZombies.clear();
+		accumulator = 0;
+		// The player is ready to shoot and has no state change pending.
+		timeToNextShot = -1;
+		timeToNextState = Float.MAX_VALUE;
 
-		List<BulletModel> bullets = GameModel.getInstance().getBullets();
-		for(BulletModel bullet : bullets) {
-			new BulletBody(world, bullet);
-		}
+		// Signal the model that a new game will begin.
+		model.startNewGame(seed);
+
+		PlayerModel selfPlayer = model.getPlayers().get(0);
+		selfPlayerBody = new PlayerBody(world, selfPlayer);
+		players.add(selfPlayer, selfPlayerBody);
+		spawnOccupancy.track(selfPlayerBody);
+
+		for(ZombieModel zombie : model.getZombies())
+			createZombieBody(zombie);
+
+		for(BulletModel bullet : model.getBullets())
+			bullets.add(bullet, bulletBodies.obtain(bullet));
 
 		world.setContactListener(this);
 
 		// Initialize round info.
 		currentRound = 1;
-		this.zombiesLeftToSpawn = Integer.MAX_VALUE;
+		waves.reset();
 		zombies_killed = 0;
 
 		if(Gdx.app != null && Gdx.app.getType() == Application.ApplicationType.Android)
-			md = new MotionDetector();
+			md = new MotionDetector(this);
 	}
 
 	/**
@@ -856,15 +1511,44 @@ public class GameController implements ContactListener {
 		this.currentDifficulty = difficulty;
 	}
 
+	/**
+	 * Returns the game difficulty.
+	 * @return the difficulty, null if none was chosen.
+	 */
+	public Difficulty getGameDifficulty()
+	{
+		return currentDifficulty;
+	}
+
+	/**
+	 * Returns the seed of the current game.
+	 * @return the seed passed to startNewGame.
+	 */
+	public long getSeed()
+	{
+		return model.getRandom().getSeed();
+	}
+
+	/**
+	 * Stops every entity and makes their bodies static.
+	 */
 	public void makeBodiesStill()
 	{
-		Array<Body> bodies = new Array<Body>();
-		world.getBodies(bodies);
+		makeBodiesStill(players);
+		makeBodiesStill(zombies);
+		makeBodiesStill(bullets);
+	}
 
-		for (Body body : bodies) {
+	/**
+	 * Stops every entity of a registry and makes their bodies static.
+	 * @param registry the registry holding the entities.
+	 */
+	private void makeBodiesStill(EntityRegistry<?> registry)
+	{
+		for (int i = 0; i < registry.size(); i++) {
+			Body body = registry.getBody(i).getBody();
 			body.setLinearVelocity(0, 0);
 			body.setType(BodyDef.BodyType.StaticBody);
-
 		}
 	}
 
@@ -893,6 +1577,33 @@ public class GameController implements ContactListener {
 			return 0;
 	}
 
+	/**
+	 * Returns the number of zombies of the current round that haven't spawned yet.
+	 * @return Number of zombies still to spawn this round.
+	 */
+	public int getZombiesLeftToSpawn()
+	{
+		return waves.isRoundStarted() ? waves.getZombiesLeft() : getNumberOfZombiesThisRound();
+	}
+
+	/**
+	 * Returns the number of contacts resolved after the last world step.
+	 * @return the number of contacts.
+	 */
+	public int getContactsResolved()
+	{
+		return contactsResolved;
+	}
+
+	/**
+	 * Returns the scheduler pacing the spawning of the zombies, to configure the waves of every difficulty.
+	 * @return the wave scheduler.
+	 */
+	public WaveScheduler getWaveScheduler()
+	{
+		return waves;
+	}
+
 	/**
 	 * Returns the number of zombies tha thte player has killed this game.
 	 * @return the kill count by the player.
@@ -906,6 +1617,6 @@ public class GameController implements ContactListener {
 	 */
 	public void startNewRound(){
 		currentRound++;
-		zombiesLeftToSpawn = getNumberOfZombiesThisRound();
+		waves.startRound(currentDifficulty, getNumberOfZombiesThisRound());
 	}
 }
@@ -0,0 +1,112 @@
+package com.batataproductions.game.controller;
+
+import com.badlogic.gdx.physics.box2d.World;
+import com.batataproductions.game.model.GameModel;
+import com.batataproductions.game.model.GameRandom;
+import com.batataproductions.game.profiling.FrameProfiler;
+
+/**
+ * A match of the game: its model, the controller simulating it in its own physics world, its random
+ * numbers and the loop ticking it.
+ *
+ * Matches share no state, so several can be played at once, each on a thread of its own, by servers,
+ * bots and benchmarks. A match must only be used by one thread at a time.
+ *
+ * The match shown on the screen is the default match, whose model and controller are also returned by
+ * GameModel.getInstance() and GameController.getInstance().
+ */
+public class Match {
+
+	/**
+	 * The match shown on the screen, created the first time it's asked for.
+	 */
+	private static Match defaultMatch;
+
+	private final GameModel model;
+	private final GameController controller;
+	private final SimulationLoop loop;
+
+	/**
+	 * Creates a match with its own model, world and random numbers, ticking at the default tick rate.
+	 * Its phases aren't timed, see getProfiler().
+	 *
+	 * @param difficulty the difficulty of the match.
+	 * @param seed the seed of the match's random numbers.
+	 */
+	public Match(GameController.Difficulty difficulty, long seed) {
+		this(new GameModel(), new FrameProfiler(FrameProfiler.DEFAULT_FRAMES));
+		controller.getProfiler().setEnabled(false);
+		controller.setGameDifficulty(difficulty);
+		controller.startNewGame(seed);
+	}
+
+	private Match(GameModel model, FrameProfiler profiler) {
+		this(new GameController(model, profiler));
+	}
+
+	private Match(GameController controller) {
+		this.model = controller.getModel();
+		this.controller = controller;
+		this.loop = new SimulationLoop(controller);
+	}
+
+	/**
+	 * Returns the match shown on the screen.
+	 *
+	 * @return the default match, made of the singleton model and controller.
+	 */
+	public static synchronized Match getDefault() {
+		if (defaultMatch == null)
+			defaultMatch = new Match(GameController.getInstance());
+		return defaultMatch;
+	}
+
+	/**
+	 * @return the model of the match.
+	 */
+	public GameModel getModel() {
+		return model;
+	}
+
+	/**
+	 * @return the controller simulating the match.
+	 */
+	public GameController getController() {
+		return controller;
+	}
+
+	/**
+	 * @return the physics world of the match, replaced whenever a new game starts.
+	 */
+	public World getWorld() {
+		return controller.getWorld();
+	}
+
+	/**
+	 * @return the random numbers of the match.
+	 */
+	public GameRandom getRandom() {
+		return model.getRandom();
+	}
+
+	/**
+	 * @return the loop ticking the match.
+	 */
+	public SimulationLoop getLoop() {
+		return loop;
+	}
+
+	/**
+	 * @return the profiler timing the phases of the match's ticks.
+	 */
+	public FrameProfiler getProfiler() {
+		return controller.getProfiler();
+	}
+
+	/**
+	 * Frees the physics world of the match, which can't be played afterwards.
+	 */
+	public void dispose() {
+		controller.getWorld().dispose();
+	}
+}
@@ -3,7 +3,6 @@ package com.batataproductions.game.controller;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Quaternion;
-import com.batataproductions.game.controller.GameController;
 
 public class MotionDetector {
     private float initialYaw;
@@ -15,7 +14,10 @@ public class MotionDetector {
 
     private static final float D_TIME_TO_NEXT_WEAPON = 2f;
 
-    public MotionDetector(){
+    private final GameController controller;
+
+    public MotionDetector(GameController controller){
+        this.controller = controller;
         timeToNextWeapon = -1f;
         calibrate();
 
@@ -51,20 +53,20 @@ public class MotionDetector {
         if ( tmp[2] > -180 + initialYaw && tmp[2] < initialYaw ){
             // reload
             if (Math.abs(tmp[2] - initialYaw) > VAR_YAW){
-                GameController.getInstance().shoot();
+                controller.shoot();
             }
         }
         else if  ( tmp[2] > initialYaw && tmp[2] < 180 + initialYaw ){
             // move phone to
             if (Math.abs(initialYaw - tmp[2]) > VAR_YAW){
-                GameController.getInstance().reload();
+                controller.reload();
             }
         }
         else if (  tmp[1] > -180 + initialRoll && tmp[1] < initialRoll  && timeToNextWeapon < 0 ){
             // move phone to change to next weapon
             if (Math.abs(tmp[1] - initialRoll) > VAR_ROLL){
 
-                GameController.getInstance().switchToWeapon(false);
+                controller.switchToWeapon(false);
                 timeToNextWeapon = D_TIME_TO_NEXT_WEAPON;
             }
         }
@@ -72,7 +74,7 @@ public class MotionDetector {
             // move phone to change to previous weapon
             if (Math.abs(initialRoll - tmp[1]) > VAR_ROLL){
 
-                GameController.getInstance().switchToWeapon(true);
+                controller.switchToWeapon(true);
                 timeToNextWeapon = D_TIME_TO_NEXT_WEAPON;
             }
         }
@@ -0,0 +1,222 @@
+package com.batataproductions.game.controller;
+
+import com.batataproductions.game.controller.replay.ReplayWriter;
+import com.batataproductions.game.profiling.FrameProfiler;
+import com.batataproductions.game.view.GameView;
+
+/**
+ * Advances the game logic in fixed ticks, independently of the rate the game is rendered at.
+ *
+ * The view feeds the loop with the player input and the time since the last frame and only draws
+ * the latest state. All the controller and model logic runs inside tick(), which doesn't touch
+ * Gdx.graphics, so the loop may also be driven headless as fast as the machine allows.
+ *
+ * The blood spills of a frame are kept until the next frame begins, for the view to stamp them into its decals.
+ */
+public class SimulationLoop {
+
+	/**
+	 * Default number of ticks per second.
+	 */
+	public static final int DEFAULT_TICK_RATE = 60;
+
+	/**
+	 * Max frame time taken into account so a long frame doesn't make the loop spiral trying to catch up.
+	 */
+	static final float MAX_FRAME_TIME = 0.25f;
+
+	/**
+	 * The controller whose logic is advanced.
+	 */
+	private final GameController controller;
+
+	/**
+	 * Number of ticks per second and the duration of a single tick in seconds.
+	 */
+	private final int tickRate;
+	private final float tickTime;
+
+	/**
+	 * Frame time not yet consumed by ticks.
+	 */
+	private float accumulator;
+
+	/**
+	 * Number of ticks ran since the loop was created.
+	 */
+	private long tickCount;
+
+	/**
+	 * Player input applied on every tick.
+	 */
+	private final TickInput input = new TickInput();
+
+	/**
+	 * View state the last frame was in.
+	 */
+	private GameView.States currentState = GameView.States.GAME_RUNNING;
+
+	/**
+	 * Records the input of every tick, null if the game isn't being recorded.
+	 */
+	private ReplayWriter recorder;
+
+	/**
+	 * Times the phases of the ticks.
+	 */
+	private final FrameProfiler profiler;
+
+	/**
+	 * Creates a loop ticking at the default tick rate.
+	 *
+	 * @param controller the controller whose logic is advanced.
+	 */
+	public SimulationLoop(GameController controller) {
+		this(controller, DEFAULT_TICK_RATE);
+	}
+
+	/**
+	 * Creates a loop ticking at a given rate.
+	 *
+	 * @param controller the controller whose logic is advanced.
+	 * @param tickRate number of ticks per second.
+	 */
+	public SimulationLoop(GameController controller, int tickRate) {
+		if (tickRate <= 0)
+			throw new IllegalArgumentException("Tick rate must be positive: " + tickRate);
+		this.controller = controller;
+		this.profiler = controller.getProfiler();
+		this.tickRate = tickRate;
+		this.tickTime = 1f / tickRate;
+	}
+
+	/**
+	 * Runs as many ticks as needed to catch up with the elapsed time, after removing the blood spills of the last frame.
+	 *
+	 * @param delta time since the last frame in seconds.
+	 * @param state the state the view is currently in.
+	 * @return the number of ticks ran.
+	 */
+	public int update(float delta, GameView.States state) {
+		currentState = state;
+		accumulator += Math.min(delta, MAX_FRAME_TIME);
+
+		controller.getModel().removeBloodSpills();
+		int ticks = 0;
+		while (accumulator >= tickTime) {
+			step();
+			accumulator -= tickTime;
+			ticks++;
+		}
+		return ticks;
+	}
+
+	/**
+	 * Runs a single tick of the game logic, as a frame of its own.
+	 */
+	public void tick() {
+		controller.getModel().removeBloodSpills();
+		step();
+	}
+
+	/**
+	 * Runs a single tick of the game logic, within a frame.
+	 */
+	private void step() {
+		if (recorder != null)
+			recorder.record(currentState, input);
+
+		if (input.isStartingNewRound())
+			controller.startNewRound();
+		profiler.begin(FrameProfiler.Phase.REMOVE_FLAGGED);
+		controller.removeFlagged();
+		profiler.end(FrameProfiler.Phase.REMOVE_FLAGGED);
+
+		profiler.begin(FrameProfiler.Phase.INPUT);
+		if (currentState == GameView.States.GAME_RUNNING)
+			applyInput();
+		else if (currentState == GameView.States.GAME_OVER)
+			controller.makeBodiesStill();
+		input.clearEvents();
+		profiler.end(FrameProfiler.Phase.INPUT);
+
+		controller.tick(tickTime);
+
+		profiler.begin(FrameProfiler.Phase.HANDLE_ROUNDS);
+		controller.handleRounds(currentState, tickTime);
+		profiler.end(FrameProfiler.Phase.HANDLE_ROUNDS);
+		tickCount++;
+	}
+
+	/**
+	 * Passes the player input to the controller.
+	 */
+	private void applyInput() {
+		controller.processMovement(input.getMovement(), tickTime, input.getAimAngle());
+
+		if (input.getWeaponToSwitch() != null)
+			controller.switchToWeapon(input.getWeaponToSwitch());
+		if (input.getWeaponCycle() != 0)
+			controller.switchToWeapon(input.getWeaponCycle() > 0);
+		if (input.isReloading())
+			controller.reload();
+		if (input.isShooting())
+			controller.shoot();
+	}
+
+	/**
+	 * Returns the input applied on the next ticks.
+	 * @return the player input.
+	 */
+	public TickInput getInput() {
+		return input;
+	}
+
+	/**
+	 * Sets the view state used by the next ticks when the loop is driven through tick().
+	 * @param state the state the view is in.
+	 */
+	public void setState(GameView.States state) {
+		currentState = state;
+	}
+
+	/**
+	 * Records the input of the next ticks.
+	 * @param recorder the writer of the replay, or null to stop recording.
+	 */
+	public void setRecorder(ReplayWriter recorder) {
+		this.recorder = recorder;
+	}
+
+	/**
+	 * Returns the number of ticks per second.
+	 * @return the tick rate.
+	 */
+	public int getTickRate() {
+		return tickRate;
+	}
+
+	/**
+	 * Returns the duration of a single tick.
+	 * @return the tick duration in seconds.
+	 */
+	public float getTickTime() {
+		return tickTime;
+	}
+
+	/**
+	 * Returns the number of ticks ran since the loop was created.
+	 * @return the tick count.
+	 */
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	/**
+	 * Returns how far the loop is into the next tick. Useful to interpolate the rendered state.
+	 * @return a value between 0 and 1.
+	 */
+	public float getAlpha() {
+		return accumulator / tickTime;
+	}
+}
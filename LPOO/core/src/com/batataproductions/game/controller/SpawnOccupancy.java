@@ -0,0 +1,175 @@
+package com.batataproductions.game.controller;
+
+import com.batataproductions.game.controller.entities.EntityBody;
+
+/**
+ * A uniform grid tracking which cells hold the tracked bodies, used to know whether the
+ * zombie spawn points are free without looking at every body.
+ *
+ * Every spawn point watches the cells that intersect its clearance circle and keeps a count of
+ * the bodies inside them. The count only changes when a body crosses a cell boundary, so checking
+ * a spawn point is O(1). A spawn point is considered occupied while any body is in one of its
+ * cells, which may reserve up to a cell's diagonal more than the clearance radius, so the cells
+ * should be small compared to the distance between spawn points.
+ */
+public class SpawnOccupancy {
+
+	/**
+	 * Shared watcher list of the cells no spawn point watches.
+	 */
+	private static final int[] NO_WATCHERS = new int[0];
+
+	/**
+	 * Side of a grid cell in meters.
+	 */
+	private final float cellSize;
+
+	/**
+	 * Number of columns and rows of the grid.
+	 */
+	private final int columns, rows;
+
+	/**
+	 * For every cell, the indexes of the spawn points watching it.
+	 */
+	private final int[][] cellWatchers;
+
+	/**
+	 * For every spawn point, the number of tracked bodies inside the cells it watches.
+	 */
+	private final int[] occupants;
+
+	/**
+	 * Creates the grid for a map.
+	 *
+	 * @param width the width of the map in meters.
+	 * @param height the height of the map in meters.
+	 * @param cellSize the side of a grid cell in meters.
+	 * @param spawnX the x-coordinates of the spawn points.
+	 * @param spawnY the y-coordinates of the spawn points.
+	 * @param clearance the distance from a spawn point that must be free of bodies.
+	 */
+	public SpawnOccupancy(float width, float height, float cellSize, float[] spawnX, float[] spawnY, float clearance) {
+		this.cellSize = cellSize;
+		this.columns = (int) Math.ceil(width / cellSize);
+		this.rows = (int) Math.ceil(height / cellSize);
+		this.occupants = new int[spawnX.length];
+
+		// Count the watchers of each cell first so each list is allocated once.
+		int[] watcherCount = new int[columns * rows];
+		for (int s = 0; s < spawnX.length; s++)
+			countWatchedCells(spawnX[s], spawnY[s], clearance, watcherCount, null, s);
+
+		cellWatchers = new int[columns * rows][];
+		for (int cell = 0; cell < cellWatchers.length; cell++)
+			cellWatchers[cell] = watcherCount[cell] == 0 ? NO_WATCHERS : new int[watcherCount[cell]];
+		for (int s = 0; s < spawnX.length; s++)
+			countWatchedCells(spawnX[s], spawnY[s], clearance, watcherCount, cellWatchers, s);
+	}
+
+	/**
+	 * Visits the cells intersecting the clearance circle of a spawn point. Counts them when
+	 * watchers is null, otherwise fills the watcher lists using the counts as insertion indexes.
+	 */
+	private void countWatchedCells(float x, float y, float clearance, int[] watcherCount, int[][] watchers, int spawnPoint) {
+		int minCell = cellOf(x - clearance, y - clearance), maxCell = cellOf(x + clearance, y + clearance);
+		for (int row = minCell / columns; row <= maxCell / columns; row++)
+			for (int column = minCell % columns; column <= maxCell % columns; column++) {
+				int cell = row * columns + column;
+				if (!cellIntersects(cell, x, y, clearance))
+					continue;
+				if (watchers == null)
+					watcherCount[cell]++;
+				else
+					watchers[cell][--watcherCount[cell]] = spawnPoint;
+			}
+	}
+
+	/**
+	 * Checks if a cell intersects a circle.
+	 */
+	private boolean cellIntersects(int cell, float x, float y, float radius) {
+		float minX = (cell % columns) * cellSize, minY = (cell / columns) * cellSize;
+		float closestX = Math.max(minX, Math.min(x, minX + cellSize));
+		float closestY = Math.max(minY, Math.min(y, minY + cellSize));
+		float dx = x - closestX, dy = y - closestY;
+		return dx * dx + dy * dy < radius * radius;
+	}
+
+	/**
+	 * Returns the cell holding a point. Points outside the map are clamped to its border.
+	 */
+	private int cellOf(float x, float y) {
+		int column = Math.max(0, Math.min(columns - 1, (int) (x / cellSize)));
+		int row = Math.max(0, Math.min(rows - 1, (int) (y / cellSize)));
+		return row * columns + column;
+	}
+
+	/**
+	 * Starts tracking a body.
+	 *
+	 * @param body the body to track.
+	 */
+	public void track(EntityBody body) {
+		int cell = cellOf(body.getX(), body.getY());
+		body.setGridCell(cell);
+		enter(cell);
+	}
+
+	/**
+	 * Stops tracking a body.
+	 *
+	 * @param body the body to stop tracking.
+	 */
+	public void untrack(EntityBody body) {
+		if (body.getGridCell() < 0)
+			return;
+		leave(body.getGridCell());
+		body.setGridCell(-1);
+	}
+
+	/**
+	 * Updates the cell of a tracked body after it has moved.
+	 *
+	 * @param body the tracked body.
+	 */
+	public void update(EntityBody body) {
+		int cell = cellOf(body.getX(), body.getY());
+		if (cell == body.getGridCell())
+			return;
+		if (body.getGridCell() >= 0)
+			leave(body.getGridCell());
+		body.setGridCell(cell);
+		enter(cell);
+	}
+
+	private void enter(int cell) {
+		int[] watchers = cellWatchers[cell];
+		for (int i = 0; i < watchers.length; i++)
+			occupants[watchers[i]]++;
+	}
+
+	private void leave(int cell) {
+		int[] watchers = cellWatchers[cell];
+		for (int i = 0; i < watchers.length; i++)
+			occupants[watchers[i]]--;
+	}
+
+	/**
+	 * Checks if no tracked body is near a spawn point.
+	 *
+	 * @param spawnPoint the index of the spawn point.
+	 * @return true if a zombie may be spawned there.
+	 */
+	public boolean isFree(int spawnPoint) {
+		return occupants[spawnPoint] == 0;
+	}
+
+	/**
+	 * Stops tracking every body.
+	 */
+	public void clear() {
+		for (int i = 0; i < occupants.length; i++)
+			occupants[i] = 0;
+	}
+}
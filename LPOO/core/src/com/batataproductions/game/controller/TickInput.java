@@ -0,0 +1,171 @@
+package com.batataproductions.game.controller;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.batataproductions.game.model.entities.PlayerModel;
+
+/**
+ * The player input the simulation applies on its next tick.
+ * The movement mask and aim angle are held until they are changed while
+ * the shoot, reload, weapon switching and new round events are consumed by a single tick.
+ */
+public class TickInput {
+
+	/**
+	 * Number of steps a full turn of the aim angle is quantized to, so the recorded input is exactly the one played.
+	 */
+	public static final int AIM_STEPS = 1 << 16;
+
+	/**
+	 * A bit mask which represents the direction the player is going.
+	 */
+	private short movementMask;
+
+	/**
+	 * The angle the player is aiming at in radians, NaN if the player shouldn't be rotated.
+	 */
+	private float aimAngle = Float.NaN;
+
+	/**
+	 * Should the player shoot on the next tick?
+	 */
+	private boolean shoot;
+
+	/**
+	 * Should the player reload on the next tick?
+	 */
+	private boolean reload;
+
+	/**
+	 * Weapon the player will switch to on the next tick, null if none.
+	 */
+	private PlayerModel.Weapons weaponToSwitch;
+
+	/**
+	 * Weapon cycling on the next tick: 1 for the next weapon, -1 for the previous one and 0 for none.
+	 */
+	private int weaponCycle;
+
+	/**
+	 * Should the next round start on the next tick?
+	 */
+	private boolean newRound;
+
+	/**
+	 * Sets the direction the player is going.
+	 * @param movementMask A bit mask built from the GameController PLAYER_MOVE flags.
+	 */
+	public void setMovement(short movementMask) {
+		this.movementMask = movementMask;
+	}
+
+	/**
+	 * Sets the angle the player is aiming at, quantized to AIM_STEPS steps.
+	 * @param aimAngle the angle in radians, or NaN to keep the player's current rotation.
+	 */
+	public void setAimAngle(float aimAngle) {
+		this.aimAngle = Float.isNaN(aimAngle) ? Float.NaN : toAngle(toAimStep(aimAngle));
+	}
+
+	/**
+	 * Quantizes an angle.
+	 * @param angle the angle in radians.
+	 * @return the step of the angle, between 0 and AIM_STEPS - 1.
+	 */
+	public static int toAimStep(float angle) {
+		return Math.round(angle * (AIM_STEPS / MathUtils.PI2)) & (AIM_STEPS - 1);
+	}
+
+	/**
+	 * Returns the angle of a quantized step.
+	 * @param step the step, between 0 and AIM_STEPS - 1.
+	 * @return the angle in radians.
+	 */
+	public static float toAngle(int step) {
+		return step * (MathUtils.PI2 / AIM_STEPS);
+	}
+
+	/**
+	 * Makes the player shoot on the next tick.
+	 */
+	public void shoot() {
+		shoot = true;
+	}
+
+	/**
+	 * Makes the player reload on the next tick.
+	 */
+	public void reload() {
+		reload = true;
+	}
+
+	/**
+	 * Makes the player switch to a weapon on the next tick.
+	 * @param weapon weapon the player will hold.
+	 */
+	public void switchToWeapon(PlayerModel.Weapons weapon) {
+		weaponToSwitch = weapon;
+	}
+
+	/**
+	 * Makes the player cycle weapons on the next tick.
+	 * @param next if true switch to the next weapon otherwise switch to the previous weapon
+	 */
+	public void switchToWeapon(boolean next) {
+		weaponCycle = next ? 1 : -1;
+	}
+
+	/**
+	 * Makes the next round start on the next tick.
+	 */
+	public void startNewRound() {
+		newRound = true;
+	}
+
+	public short getMovement() {
+		return movementMask;
+	}
+
+	public float getAimAngle() {
+		return aimAngle;
+	}
+
+	public boolean isShooting() {
+		return shoot;
+	}
+
+	public boolean isReloading() {
+		return reload;
+	}
+
+	public PlayerModel.Weapons getWeaponToSwitch() {
+		return weaponToSwitch;
+	}
+
+	public int getWeaponCycle() {
+		return weaponCycle;
+	}
+
+	public boolean isStartingNewRound() {
+		return newRound;
+	}
+
+	/**
+	 * Consumes the one-shot events after they have been applied by a tick.
+	 */
+	void clearEvents() {
+		shoot = false;
+		reload = false;
+		weaponToSwitch = null;
+		weaponCycle = 0;
+		newRound = false;
+	}
+
+	/**
+	 * Resets all the input.
+	 */
+	public void clear() {
+		clearEvents();
+		movementMask = 0;
+		aimAngle = Float.NaN;
+	}
+}
@@ -0,0 +1,196 @@
+package com.batataproductions.game.controller;
+
+/**
+ * Paces the spawning of the zombies of a round, so a round doesn't start by spawning a zombie at every
+ * spawn point on the same tick.
+ *
+ * Every difficulty has a wave: a trickle curve and a spawn budget, the maximum number of zombies spawned
+ * per tick. The spawn points are visited in rotation, each tick continuing where the last one stopped, so
+ * the zombies don't always come out of the first free points. The total of zombies of a round doesn't change.
+ *
+ * A spawn costs about the same few microseconds whatever the size of the zombie and whether its body comes
+ * from a pool or is created, so the budget bounds the time a tick spends spawning. It is a count rather than
+ * a time so spawning doesn't depend on how fast the machine is, and replays play out as recorded.
+ */
+public class WaveScheduler {
+
+	/**
+	 * How the zombies of a round trickle in.
+	 * BURST spawns as many zombies as a tick allows, STEADY spawns them at a constant rate and
+	 * ESCALATING starts at that rate and speeds up as the round goes.
+	 */
+	public enum Curve { BURST, STEADY, ESCALATING }
+
+	/**
+	 * How many times faster than its starting rate an escalating wave spawns its last zombie.
+	 */
+	public static final float ESCALATION = 4;
+
+	/**
+	 * How the zombies of a round are spawned on a difficulty.
+	 */
+	public static class Wave {
+
+		/**
+		 * The trickle curve.
+		 */
+		public final Curve curve;
+
+		/**
+		 * Spawn budget: maximum number of zombies spawned on a single tick, whatever the curve.
+		 */
+		public final int maxSpawnsPerTick;
+
+		/**
+		 * Zombies spawned per second by STEADY waves, and at the start of ESCALATING ones.
+		 */
+		public final float spawnsPerSecond;
+
+		/**
+		 * Creates a wave.
+		 *
+		 * @param curve the trickle curve.
+		 * @param maxSpawnsPerTick the maximum number of zombies spawned on a single tick.
+		 * @param spawnsPerSecond the spawn rate, unused by BURST waves.
+		 */
+		public Wave(Curve curve, int maxSpawnsPerTick, float spawnsPerSecond) {
+			if (maxSpawnsPerTick <= 0)
+				throw new IllegalArgumentException("A wave must spawn at least one zombie per tick: " + maxSpawnsPerTick);
+			this.curve = curve;
+			this.maxSpawnsPerTick = maxSpawnsPerTick;
+			this.spawnsPerSecond = spawnsPerSecond;
+		}
+	}
+
+	/**
+	 * The wave of every difficulty, indexed by ordinal.
+	 */
+	private final Wave[] waves = new Wave[GameController.Difficulty.values().length];
+
+	/**
+	 * Number of spawn points and the next one visited.
+	 */
+	private final int spawnPoints;
+	private int nextSpawnPoint;
+
+	/**
+	 * Wave of the current round, null until a round starts.
+	 */
+	private Wave wave;
+
+	/**
+	 * Zombies of the current round, and how many of them haven't spawned yet.
+	 */
+	private int total, left;
+
+	/**
+	 * Zombies that may spawn so far according to the curve.
+	 */
+	private float credit;
+
+	/**
+	 * Creates a scheduler with the default waves.
+	 *
+	 * @param spawnPoints the number of spawn points.
+	 */
+	public WaveScheduler(int spawnPoints) {
+		this.spawnPoints = spawnPoints;
+		setWave(GameController.Difficulty.EASY, new Wave(Curve.STEADY, 1, 1.5f));
+		setWave(GameController.Difficulty.NORMAL, new Wave(Curve.ESCALATING, 2, 2));
+		setWave(GameController.Difficulty.HARD, new Wave(Curve.BURST, 3, 0));
+	}
+
+	/**
+	 * Sets how the zombies are spawned on a difficulty, with their spawn budget, from the next round on.
+	 *
+	 * @param difficulty the difficulty.
+	 * @param wave the wave.
+	 */
+	public void setWave(GameController.Difficulty difficulty, Wave wave) {
+		waves[difficulty.ordinal()] = wave;
+	}
+
+	/**
+	 * @param difficulty the difficulty.
+	 * @return how the zombies are spawned on the difficulty.
+	 */
+	public Wave getWave(GameController.Difficulty difficulty) {
+		return waves[difficulty.ordinal()];
+	}
+
+	/**
+	 * Forgets the current round, as when a new game starts.
+	 */
+	public void reset() {
+		wave = null;
+		total = left = 0;
+		credit = 0;
+		nextSpawnPoint = 0;
+	}
+
+	/**
+	 * Starts spawning the zombies of a round. The first one may spawn right away.
+	 *
+	 * @param difficulty the difficulty of the game, null if none was chosen yet.
+	 * @param zombies the number of zombies of the round.
+	 */
+	public void startRound(GameController.Difficulty difficulty, int zombies) {
+		wave = getWave(difficulty == null ? GameController.Difficulty.EASY : difficulty);
+		total = left = zombies;
+		credit = 1;
+	}
+
+	/**
+	 * @return whether a round was started since the game started.
+	 */
+	public boolean isRoundStarted() {
+		return wave != null;
+	}
+
+	/**
+	 * @return the number of zombies of the current round that haven't spawned yet.
+	 */
+	public int getZombiesLeft() {
+		return left;
+	}
+
+	/**
+	 * Advances the curve by a tick and returns how many zombies may spawn on it.
+	 *
+	 * @param dt the duration of the tick in seconds.
+	 * @return the number of zombies that may spawn.
+	 */
+	public int beginTick(float dt) {
+		if (wave == null || left == 0)
+			return 0;
+		if (wave.curve == Curve.BURST)
+			return Math.min(left, wave.maxSpawnsPerTick);
+
+		float rate = wave.spawnsPerSecond;
+		if (wave.curve == Curve.ESCALATING)
+			rate *= 1 + (ESCALATION - 1) * (total - left) / total;
+		// Credit isn't banked past a tick's worth, so a wave doesn't burst after the spawn points were taken.
+		credit = Math.min(credit + rate * dt, wave.maxSpawnsPerTick);
+		return Math.min(left, (int) credit);
+	}
+
+	/**
+	 * Returns the next spawn point to try and moves on to the one after it.
+	 *
+	 * @return the index of the spawn point.
+	 */
+	public int nextSpawnPoint() {
+		int point = nextSpawnPoint;
+		nextSpawnPoint = (nextSpawnPoint + 1) % spawnPoints;
+		return point;
+	}
+
+	/**
+	 * Counts a zombie as spawned.
+	 */
+	public void spawned() {
+		left--;
+		if (credit >= 1)
+			credit--;
+	}
+}
@@ -0,0 +1,281 @@
+package com.batataproductions.game.controller.ai;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * A grid over the map pointing every walkable cell to the next cell on the shortest path to a target.
+ *
+ * The field is rebuilt with Dijkstra from the target cell only when the target moves to another
+ * cell, so its cost doesn't depend on how many entities follow it. Following it is a single lookup.
+ * Paths are 8-connected but never cut the corner of a blocked cell.
+ */
+public class FlowField {
+
+	/**
+	 * Cost of moving to an orthogonal and to a diagonal neighbour.
+	 */
+	private static final int STRAIGHT_COST = 10, DIAGONAL_COST = 14;
+
+	/**
+	 * Distance of the cells the target can't be reached from.
+	 */
+	private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	/**
+	 * Column and row offsets of the neighbours of a cell. The first four are orthogonal.
+	 */
+	private static final int[] NEIGHBOUR_COLUMN = {1, -1, 0, 0, 1, 1, -1, -1};
+	private static final int[] NEIGHBOUR_ROW = {0, 0, 1, -1, 1, -1, 1, -1};
+
+	/**
+	 * Side of a cell in meters.
+	 */
+	private final float cellSize;
+
+	/**
+	 * Number of columns and rows of the grid.
+	 */
+	private final int columns, rows;
+
+	/**
+	 * Cells an entity can't stand on.
+	 */
+	private final boolean[] blocked;
+
+	/**
+	 * Path cost from every cell to the target cell.
+	 */
+	private final int[] distance;
+
+	/**
+	 * Next cell on the path from every cell to the target cell, -1 if there is none.
+	 */
+	private final int[] next;
+
+	/**
+	 * Binary heap of the cells to visit, ordered by their distance when they were pushed.
+	 * A cell may be pushed more than once; stale entries are skipped when popped.
+	 */
+	private final int[] heapCells, heapDistances;
+	private int heapSize;
+
+	/**
+	 * Cell the field currently leads to, -1 if it hasn't been built yet.
+	 */
+	private int targetCell = -1;
+
+	/**
+	 * Has any cell been blocked?
+	 */
+	private boolean hasObstacles;
+
+	/**
+	 * Creates an empty field covering a map.
+	 *
+	 * @param width the width of the map in meters.
+	 * @param height the height of the map in meters.
+	 * @param cellSize the side of a cell in meters.
+	 */
+	public FlowField(float width, float height, float cellSize) {
+		this.cellSize = cellSize;
+		this.columns = (int) Math.ceil(width / cellSize);
+		this.rows = (int) Math.ceil(height / cellSize);
+
+		blocked = new boolean[columns * rows];
+		distance = new int[columns * rows];
+		next = new int[columns * rows];
+		heapCells = new int[columns * rows * NEIGHBOUR_COLUMN.length];
+		heapDistances = new int[heapCells.length];
+	}
+
+	/**
+	 * Blocks the cells overlapping a rectangle.
+	 *
+	 * @param x the x-coordinate of the bottom left corner of the rectangle in meters.
+	 * @param y the y-coordinate of the bottom left corner of the rectangle in meters.
+	 * @param width the width of the rectangle in meters.
+	 * @param height the height of the rectangle in meters.
+	 */
+	public void addObstacle(float x, float y, float width, float height) {
+		int minColumn = clampColumn(x), maxColumn = clampColumn(x + width);
+		int minRow = clampRow(y), maxRow = clampRow(y + height);
+		for (int row = minRow; row <= maxRow; row++)
+			for (int column = minColumn; column <= maxColumn; column++)
+				blocked[row * columns + column] = true;
+
+		hasObstacles = true;
+		targetCell = -1;
+	}
+
+	/**
+	 * Unblocks every cell.
+	 */
+	public void clearObstacles() {
+		for (int i = 0; i < blocked.length; i++)
+			blocked[i] = false;
+		hasObstacles = false;
+		targetCell = -1;
+	}
+
+	/**
+	 * Moves the target of the field, rebuilding it if the target changed cell.
+	 *
+	 * @param x the x-coordinate of the target in meters.
+	 * @param y the y-coordinate of the target in meters.
+	 * @return true if the field was rebuilt.
+	 */
+	public boolean setTarget(float x, float y) {
+		int cell = cellOf(x, y);
+		if (cell == targetCell)
+			return false;
+		targetCell = cell;
+		if (hasObstacles)
+			build();
+		return true;
+	}
+
+	/**
+	 * Finds the point an entity should head to in order to reach the target.
+	 * Entities the field can't guide, such as those standing on a blocked cell or next to the target,
+	 * head straight to the target.
+	 *
+	 * @param x the x-coordinate of the entity in meters.
+	 * @param y the y-coordinate of the entity in meters.
+	 * @param targetX the x-coordinate of the target in meters.
+	 * @param targetY the y-coordinate of the target in meters.
+	 * @param waypoint the vector the point is written to.
+	 * @return the waypoint vector.
+	 */
+	public Vector2 getWaypoint(float x, float y, float targetX, float targetY, Vector2 waypoint) {
+		if (!hasObstacles || targetCell < 0)
+			return waypoint.set(targetX, targetY);
+
+		int nextCell = next[cellOf(x, y)];
+		if (nextCell < 0 || nextCell == targetCell)
+			return waypoint.set(targetX, targetY);
+
+		return waypoint.set(((nextCell % columns) + 0.5f) * cellSize, ((nextCell / columns) + 0.5f) * cellSize);
+	}
+
+	/**
+	 * Checks if the target can be reached from a point through the field.
+	 *
+	 * @param x the x-coordinate of the point in meters.
+	 * @param y the y-coordinate of the point in meters.
+	 * @return true if there is a path, or the field has no obstacles.
+	 */
+	public boolean isReachable(float x, float y) {
+		if (!hasObstacles)
+			return true;
+		int cell = cellOf(x, y);
+		return cell == targetCell || next[cell] >= 0;
+	}
+
+	/**
+	 * Checks if the cell holding a point is blocked.
+	 *
+	 * @param x the x-coordinate of the point in meters.
+	 * @param y the y-coordinate of the point in meters.
+	 * @return true if the cell is blocked.
+	 */
+	public boolean isBlocked(float x, float y) {
+		return blocked[cellOf(x, y)];
+	}
+
+	/**
+	 * Runs Dijkstra from the target cell over the walkable cells and points each cell to its best neighbour.
+	 */
+	private void build() {
+		for (int i = 0; i < distance.length; i++) {
+			distance[i] = UNREACHABLE;
+			next[i] = -1;
+		}
+
+		heapSize = 0;
+		distance[targetCell] = 0;
+		push(targetCell, 0);
+
+		while (heapSize > 0) {
+			int cellDistance = heapDistances[0];
+			int cell = pop();
+			if (cellDistance > distance[cell])
+				continue;
+
+			int column = cell % columns, row = cell / columns;
+			for (int n = 0; n < NEIGHBOUR_COLUMN.length; n++) {
+				int neighbour = neighbourOf(column, row, n);
+				if (neighbour < 0 || blocked[neighbour])
+					continue;
+
+				int neighbourDistance = cellDistance + (n < 4 ? STRAIGHT_COST : DIAGONAL_COST);
+				if (neighbourDistance < distance[neighbour]) {
+					distance[neighbour] = neighbourDistance;
+					next[neighbour] = cell;
+					push(neighbour, neighbourDistance);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns a neighbour of a cell, or -1 if it is outside the grid or reaching it diagonally
+	 * would cut the corner of a blocked cell.
+	 */
+	private int neighbourOf(int column, int row, int n) {
+		int neighbourColumn = column + NEIGHBOUR_COLUMN[n], neighbourRow = row + NEIGHBOUR_ROW[n];
+		if (neighbourColumn < 0 || neighbourColumn >= columns || neighbourRow < 0 || neighbourRow >= rows)
+			return -1;
+		if (n >= 4 && (blocked[row * columns + neighbourColumn] || blocked[neighbourRow * columns + column]))
+			return -1;
+		return neighbourRow * columns + neighbourColumn;
+	}
+
+	private void push(int cell, int cellDistance) {
+		int i = heapSize++;
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (heapDistances[parent] <= cellDistance)
+				break;
+			heapCells[i] = heapCells[parent];
+			heapDistances[i] = heapDistances[parent];
+			i = parent;
+		}
+		heapCells[i] = cell;
+		heapDistances[i] = cellDistance;
+	}
+
+	private int pop() {
+		int top = heapCells[0];
+		int lastCell = heapCells[--heapSize], lastDistance = heapDistances[heapSize];
+
+		int i = 0;
+		while (2 * i + 1 < heapSize) {
+			int child = 2 * i + 1;
+			if (child + 1 < heapSize && heapDistances[child + 1] < heapDistances[child])
+				child++;
+			if (heapDistances[child] >= lastDistance)
+				break;
+			heapCells[i] = heapCells[child];
+			heapDistances[i] = heapDistances[child];
+			i = child;
+		}
+		heapCells[i] = lastCell;
+		heapDistances[i] = lastDistance;
+		return top;
+	}
+
+	private int clampColumn(float x) {
+		return Math.max(0, Math.min(columns - 1, (int) Math.floor(x / cellSize)));
+	}
+
+	private int clampRow(float y) {
+		return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+	}
+
+	/**
+	 * Returns the cell holding a point. Points outside the map are clamped to its border.
+	 */
+	private int cellOf(float x, float y) {
+		return clampRow(y) * columns + clampColumn(x);
+	}
+}
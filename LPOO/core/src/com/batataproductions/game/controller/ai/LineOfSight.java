@@ -0,0 +1,141 @@
+package com.batataproductions.game.controller.ai;
+
+import com.badlogic.gdx.physics.box2d.World;
+import com.batataproductions.game.controller.EntityRegistry;
+import com.batataproductions.game.controller.entities.EntityBody;
+import com.batataproductions.game.model.entities.ZombieModel;
+
+/**
+ * Checks which zombies can see the player, spreading the ray casts over the ticks.
+ *
+ * Every tick casts at most a fixed budget of rays, going round the zombies so each one is checked
+ * once every size / budget ticks. The result is cached on the zombie with the tick it was taken on,
+ * so the rest of the game can query it without casting rays.
+ */
+public class LineOfSight {
+
+	/**
+	 * The physics world the rays are cast in.
+	 */
+	private final World world;
+
+	/**
+	 * The zombies whose line of sight is checked.
+	 */
+	private final EntityRegistry<ZombieModel> zombies;
+
+	/**
+	 * Maximum number of rays cast per tick.
+	 */
+	private final int raysPerTick;
+
+	/**
+	 * Callback reused by every ray.
+	 */
+	private final ZombieModel.ZombieRayCast rayCast = new ZombieModel.ZombieRayCast();
+
+	/**
+	 * Index of the next zombie to check.
+	 */
+	private int cursor;
+
+	/**
+	 * Number of ticks ran.
+	 */
+	private long tick;
+
+	/**
+	 * Number of rays cast on the last tick.
+	 */
+	private int raysLastTick;
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param world the physics world the rays are cast in.
+	 * @param zombies the zombies whose line of sight is checked.
+	 * @param raysPerTick the maximum number of rays cast per tick.
+	 */
+	public LineOfSight(World world, EntityRegistry<ZombieModel> zombies, int raysPerTick) {
+		if (raysPerTick <= 0)
+			throw new IllegalArgumentException("Rays per tick must be positive: " + raysPerTick);
+		this.world = world;
+		this.zombies = zombies;
+		this.raysPerTick = raysPerTick;
+	}
+
+	/**
+	 * Checks the line of sight of the next zombies in turn, within the ray budget.
+	 *
+	 * @param targetX the x-coordinate of the player in meters.
+	 * @param targetY the y-coordinate of the player in meters.
+	 */
+	public void update(float targetX, float targetY) {
+		tick++;
+		int rays = Math.min(raysPerTick, zombies.size());
+		for (int i = 0; i < rays; i++) {
+			if (cursor >= zombies.size())
+				cursor = 0;
+			ZombieModel zombie = zombies.getModel(cursor++);
+
+			rayCast.reset();
+			world.rayCast(rayCast, zombie.getX(), zombie.getY(), targetX, targetY);
+			zombie.setLineOfSight(rayCast.getNearestCollisionBodyType() != EntityBody.MAP_WALL, tick);
+		}
+		raysLastTick = rays;
+	}
+
+	/**
+	 * Returns how many ticks ago the line of sight of a zombie was checked.
+	 *
+	 * @param zombie the zombie.
+	 * @return the age of its cached result in ticks, or -1 if it was never checked.
+	 */
+	public long getAge(ZombieModel zombie) {
+		return zombie.getLineOfSightTick() < 0 ? -1 : tick - zombie.getLineOfSightTick();
+	}
+
+	/**
+	 * @return the number of rays cast on the last tick.
+	 */
+	public int getRaysLastTick() {
+		return raysLastTick;
+	}
+
+	/**
+	 * @return the maximum number of rays cast per tick.
+	 */
+	public int getRaysPerTick() {
+		return raysPerTick;
+	}
+
+	/**
+	 * Returns the age of the stalest cached result. Zombies never checked count as old as the service.
+	 *
+	 * @return the age in ticks.
+	 */
+	public long getMaxAge() {
+		long max = 0;
+		for (int i = 0; i < zombies.size(); i++) {
+			long age = getAge(zombies.getModel(i));
+			max = Math.max(max, age < 0 ? tick : age);
+		}
+		return max;
+	}
+
+	/**
+	 * Returns the average age of the cached results. Zombies never checked count as old as the service.
+	 *
+	 * @return the average age in ticks, 0 if there are no zombies.
+	 */
+	public float getAverageAge() {
+		if (zombies.size() == 0)
+			return 0;
+		long total = 0;
+		for (int i = 0; i < zombies.size(); i++) {
+			long age = getAge(zombies.getModel(i));
+			total += age < 0 ? tick : age;
+		}
+		return (float) total / zombies.size();
+	}
+}
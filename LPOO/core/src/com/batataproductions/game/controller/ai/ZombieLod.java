@@ -0,0 +1,162 @@
+package com.batataproductions.game.controller.ai;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.batataproductions.game.model.entities.ZombieModel;
+
+/**
+ * Decides which zombies get their AI updated on a tick, based on how far they are from the player.
+ *
+ * Near zombies, which cover the whole screen, are updated every tick. Mid-range and far zombies are
+ * updated at a lower rate and keep the velocity of their last update in between, so the physics world
+ * extrapolates their motion. Zombies being knocked back are always updated so the knockback stays smooth.
+ */
+public class ZombieLod {
+
+	/**
+	 * Distance buckets.
+	 */
+	public enum Bucket { NEAR, MID, FAR }
+
+	/**
+	 * Distance to the player, in meters, under which a zombie is near or mid-range.
+	 * The viewport is 51.2x28.8 meters, so near zombies cover the whole screen with some margin.
+	 */
+	public static final float NEAR_DISTANCE = 32, MID_DISTANCE = 64;
+
+	/**
+	 * Minimum time between two updates of a mid-range and of a far zombie, in seconds.
+	 */
+	public static final float MID_INTERVAL = 3 / 60f, FAR_INTERVAL = 10 / 60f;
+
+	/**
+	 * Number of zombies in each bucket on the last tick.
+	 */
+	private final int[] counts = new int[Bucket.values().length];
+
+	/**
+	 * Registry indexes of the zombies to update on the current tick.
+	 */
+	private final IntArray due = new IntArray(256);
+
+	/**
+	 * Number of zombies not updated on the last tick.
+	 */
+	private int skipped;
+
+	/**
+	 * Time taken by the zombie updates of the last tick, in nanoseconds.
+	 */
+	private long updateNanos;
+
+	/**
+	 * Running average of the time taken by a single zombie update, in nanoseconds.
+	 */
+	private float averageUpdateNanos;
+
+	/**
+	 * Starts a new tick.
+	 */
+	public void begin() {
+		for (int i = 0; i < counts.length; i++)
+			counts[i] = 0;
+		due.clear();
+		skipped = 0;
+	}
+
+	/**
+	 * Adds the time of this tick to a zombie and schedules its update if it is due.
+	 *
+	 * @param index the index of the zombie in its registry.
+	 * @param zombie the zombie.
+	 * @param delta the duration of the tick in seconds.
+	 * @param playerX the x-coordinate of the player in meters.
+	 * @param playerY the y-coordinate of the player in meters.
+	 */
+	public void schedule(int index, ZombieModel zombie, float delta, float playerX, float playerY) {
+		float dx = zombie.getX() - playerX, dy = zombie.getY() - playerY;
+		float distanceSquared = dx * dx + dy * dy;
+
+		Bucket bucket;
+		float interval;
+		if (distanceSquared < NEAR_DISTANCE * NEAR_DISTANCE) {
+			bucket = Bucket.NEAR;
+			interval = 0;
+		}
+		else if (distanceSquared < MID_DISTANCE * MID_DISTANCE) {
+			bucket = Bucket.MID;
+			interval = MID_INTERVAL;
+		}
+		else {
+			bucket = Bucket.FAR;
+			interval = FAR_INTERVAL;
+		}
+		counts[bucket.ordinal()]++;
+
+		boolean firstUpdate = zombie.getAiElapsed() < 0;
+		zombie.addAiElapsed(delta);
+		if (firstUpdate || zombie.isKnockedBack() || zombie.getAiElapsed() >= interval)
+			due.add(index);
+		else
+			skipped++;
+	}
+
+	/**
+	 * Returns the registry indexes of the zombies to update on the current tick.
+	 *
+	 * @return the indexes, valid until the next call to begin().
+	 */
+	public IntArray getDue() {
+		return due;
+	}
+
+	/**
+	 * Ends the tick, recording how long the zombie updates took.
+	 *
+	 * @param nanos the time taken by the updates in nanoseconds.
+	 */
+	public void end(long nanos) {
+		updateNanos = nanos;
+		if (due.size > 0) {
+			float perUpdate = (float) nanos / due.size;
+			averageUpdateNanos = averageUpdateNanos == 0 ? perUpdate : averageUpdateNanos * 0.9f + perUpdate * 0.1f;
+		}
+	}
+
+	/**
+	 * @param bucket the distance bucket.
+	 * @return the number of zombies in the bucket on the last tick.
+	 */
+	public int getCount(Bucket bucket) {
+		return counts[bucket.ordinal()];
+	}
+
+	/**
+	 * @return the number of zombies updated on the last tick.
+	 */
+	public int getUpdatedLastTick() {
+		return due.size;
+	}
+
+	/**
+	 * @return the number of zombies not updated on the last tick.
+	 */
+	public int getSkippedLastTick() {
+		return skipped;
+	}
+
+	/**
+	 * @return the time taken by the zombie updates of the last tick, in nanoseconds.
+	 */
+	public long getUpdateNanosLastTick() {
+		return updateNanos;
+	}
+
+	/**
+	 * Estimates the time the skipped updates would have taken on the last tick.
+	 *
+	 * @return the time saved in nanoseconds.
+	 */
+	public long getEstimatedNanosSavedLastTick() {
+		return (long) (skipped * averageUpdateNanos);
+	}
+}
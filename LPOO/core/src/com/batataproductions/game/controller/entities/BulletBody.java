@@ -1,5 +1,6 @@
 package com.batataproductions.game.controller.entities;
 
+import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.World;
 import com.batataproductions.game.model.entities.EntityModel;
 
@@ -13,18 +14,36 @@ public class BulletBody extends EntityBody  {
      */
     public BulletBody(World world, EntityModel model) {
         super(world, model);
+        createFixtures(FixtureCache.BodyType.BULLET);
+    }
 
+    /**
+     * Constructs a deactivated bullet body to be kept in a pool.
+     *
+     * @param world the physical world this bullet belongs to.
+     */
+    public BulletBody(World world) {
+        super(world);
+        createFixtures(FixtureCache.BodyType.BULLET);
+    }
+
+    /**
+     * Defines the fixtures of a bullet body, see FixtureCache.
+     *
+     * @return the fixture definitions.
+     */
+    static FixtureDef[] createFixtureDefs() {
         float density = 0.5f, friction = 0.4f, restitution = 0.5f;
         int width = 155, height = 105;
 
         // Body
 		int variavel_misterio = 25;
 		int variavel_misterio2 = -25;
-        createFixture(body, new float[]{
+        return new FixtureDef[]{ fixtureDef(new float[]{
                 49 + variavel_misterio, 71 + variavel_misterio2,
                 54 + variavel_misterio, 71 + variavel_misterio2,
                 54 + variavel_misterio, 84 + variavel_misterio2,
                 49 + variavel_misterio, 84 + variavel_misterio2
-        }, width, height, density, friction, restitution, BULLET_BODY, (short) ~PLAYER_BODY, false);
+        }, width, height, density, friction, restitution, BULLET_BODY, (short) ~PLAYER_BODY, false) };
     }
 }
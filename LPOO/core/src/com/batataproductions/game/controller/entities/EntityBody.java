@@ -7,6 +7,8 @@ import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.badlogic.gdx.physics.box2d.World;
+import com.batataproductions.game.controller.ContactDispatcher;
+import com.batataproductions.game.model.EntityHandle;
 import com.batataproductions.game.model.entities.EntityModel;
 
 import static com.batataproductions.game.view.GameView.PIXEL_TO_METER;
@@ -14,6 +16,7 @@ import static com.batataproductions.game.view.GameView.PIXEL_TO_METER;
 /**
  * Wrapper class that represents an abstract physical
  * body supported by a Box2D body.
+ * The user data of the Box2D body is the handle of the model represented, see EntityHandle.
  */
 public abstract class EntityBody {
 	public final static short PLAYER_BODY = 0x0001;
@@ -24,12 +27,24 @@ public abstract class EntityBody {
 
 	public final static short MAP_WALL = 0x0008;
 
+	public final static short PLAYER_KNIFE = 0x0010;
+
 
 	/**
 	 * The Box2D body that supports this body.
 	 */
 	final Body body;
 
+	/**
+	 * Cell of the spatial grid the body is currently in, -1 if the body isn't tracked.
+	 */
+	private int gridCell = -1;
+
+	/**
+	 * The pool this body belongs to, null if it isn't pooled.
+	 */
+	EntityBodyPool<?> pool;
+
 	/**
 	 * Constructs a body representing a model in a certain world.
 	 *
@@ -43,14 +58,72 @@ public abstract class EntityBody {
 		bodyDef.angle = model.getRotation();
 
 		body = world.createBody(bodyDef);
-		body.setUserData(model);
+		body.setUserData(model.getBoxedHandle());
+	}
+
+	/**
+	 * Constructs a deactivated body, not representing any model yet, to be kept in a pool.
+	 *
+	 * @param world The world this body lives on.
+	 */
+	EntityBody(World world) {
+		BodyDef bodyDef = new BodyDef();
+		bodyDef.type = BodyDef.BodyType.DynamicBody;
+		bodyDef.active = false;
+
+		body = world.createBody(bodyDef);
+	}
+
+	/**
+	 * Binds a pooled body to a model, placing it where the model is, at rest, and reactivating it.
+	 *
+	 * @param model The model represented by the body.
+	 */
+	void activate(EntityModel model) {
+		body.setUserData(model.getBoxedHandle());
+		if (body.getType() != BodyDef.BodyType.DynamicBody)
+			body.setType(BodyDef.BodyType.DynamicBody);
+		body.setTransform(model.getX(), model.getY(), model.getRotation());
+		body.setLinearVelocity(0, 0);
+		body.setAngularVelocity(0);
+		body.setAwake(true);
+		body.setActive(true);
+	}
+
+	/**
+	 * Unbinds a body from its model and deactivates it so it can be kept in a pool.
+	 */
+	void deactivate() {
+		body.setActive(false);
+		body.setUserData(null);
+		gridCell = -1;
+	}
+
+	/**
+	 * Creates the fixtures of a type of body from their cached definitions.
+	 * @param type The type of this body.
+	 */
+	final void createFixtures(FixtureCache.BodyType type) {
+		for (FixtureDef definition : FixtureCache.get(type))
+			createFixture(definition);
+	}
+
+	/**
+	 * Creates a fixture from a cached definition and tags it for contact dispatching.
+	 * @param definition The definition of the fixture, see FixtureCache.
+	 * @return The fixture created.
+	 */
+	final Fixture createFixture(FixtureDef definition) {
+		Fixture newFixture = body.createFixture(definition);
+		ContactDispatcher.tag(newFixture);
+		return newFixture;
 	}
 
 	/**
-	 * Helper method to create a polygon fixture represented by a set of vertexes.
-	 * @param body The body the fixture is to be attached to.
+	 * Helper method to define a polygon fixture represented by a set of vertexes.
+	 * The definition owns its shape, disposed by FixtureCache, so it can be cached and used for any number of fixtures.
 	 * @param vertexes The vertexes defining the fixture in pixels so it is
-	 *                 easier to get them from a bitmap image.
+	 *                 easier to get them from a bitmap image. They are copied, not modified.
 	 * @param width The width of the bitmap the vertexes where extracted from.
 	 * @param height The height of the bitmap the vertexes where extracted from.
 	 * @param density The density of the fixture. How heavy it is in relation to its area.
@@ -59,21 +132,24 @@ public abstract class EntityBody {
 	 * @param category
 	 * @param mask
 	 * @param isSensor Is this fixture a sensor?
-	 * @return The fixture created.
+	 * @return The fixture definition.
 	 */
-	final Fixture createFixture(Body body, float[] vertexes, int width, int height, float density, float friction, float restitution, short category, short mask, boolean isSensor) {
+	static FixtureDef fixtureDef(float[] vertexes, int width, int height, float density, float friction, float restitution, short category, short mask, boolean isSensor) {
+		float[] meters = new float[vertexes.length];
+
 		// Transform pixels into meters, center and invert the y-coordinate
 		for (int i = 0; i < vertexes.length; i++) {
-			if (i % 2 == 0) vertexes[i] -= width / 2;   // center the vertex x-coordinate
-			if (i % 2 != 0) vertexes[i] -= height / 2;  // center the vertex y-coordinate
+			meters[i] = vertexes[i];
+			if (i % 2 == 0) meters[i] -= width / 2;   // center the vertex x-coordinate
+			if (i % 2 != 0) meters[i] -= height / 2;  // center the vertex y-coordinate
 
-			if (i % 2 != 0) vertexes[i] *= -1;          // invert the y-coordinate
+			if (i % 2 != 0) meters[i] *= -1;          // invert the y-coordinate
 
-			vertexes[i] *= PIXEL_TO_METER;              // scale from pixel to meter
+			meters[i] *= PIXEL_TO_METER;              // scale from pixel to meter
 		}
 
 		PolygonShape polygon = new PolygonShape();
-		polygon.set(vertexes);
+		polygon.set(meters);
 
 		FixtureDef fixtureDef = new FixtureDef();
 		fixtureDef.shape = polygon;
@@ -85,11 +161,7 @@ public abstract class EntityBody {
 		fixtureDef.filter.maskBits = mask;
 		fixtureDef.isSensor = isSensor;
 
-		Fixture newFixture = body.createFixture(fixtureDef);
-
-		polygon.dispose();
-
-		return newFixture;
+		return fixtureDef;
 	}
 
 	/**
@@ -191,11 +263,58 @@ public abstract class EntityBody {
 
 
 	/**
-	 * Wraps the getUserData method from the Box2D body class.
+	 * Returns the Box2D body that supports this body.
+	 *
+	 * @return the Box2D body
+	 */
+	public Body getBody() {
+		return body;
+	}
+
+	/**
+	 * Returns the cell of the spatial grid this body is in.
+	 *
+	 * @return the cell index, -1 if the body isn't tracked.
+	 */
+	public int getGridCell() {
+		return gridCell;
+	}
+
+	/**
+	 * Sets the cell of the spatial grid this body is in.
+	 *
+	 * @param gridCell the cell index, -1 if the body isn't tracked.
+	 */
+	public void setGridCell(int gridCell) {
+		this.gridCell = gridCell;
+	}
+
+	/**
+	 * Returns the pool this body belongs to, where it must be freed instead of being destroyed.
+	 *
+	 * @return the pool, null if the body isn't pooled.
+	 */
+	public EntityBodyPool<?> getPool() {
+		return pool;
+	}
+
+	/**
+	 * Returns the handle of the model this body represents, held as the user data of the Box2D body.
+	 *
+	 * @return the handle, EntityHandle.NONE if the body represents no model.
+	 */
+	public int getHandle() {
+		return handleOf(body);
+	}
+
+	/**
+	 * Returns the handle of the model a Box2D body represents.
 	 *
-	 * @return the user data
+	 * @param body the Box2D body.
+	 * @return the handle, EntityHandle.NONE if the body doesn't represent a model, like the walls.
 	 */
-	public Object getUserData() {
-		return body.getUserData();
+	public static int handleOf(Body body) {
+		Object handle = body.getUserData();
+		return handle == null ? EntityHandle.NONE : (Integer) handle;
 	}
 }
@@ -0,0 +1,159 @@
+package com.batataproductions.game.controller.entities;
+
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.batataproductions.game.model.entities.EntityModel;
+
+/**
+ * A pool of prebuilt bodies, so short-lived entities don't create and destroy a Box2D body each time.
+ *
+ * Free bodies stay in the world deactivated: they have no user data, take no part in the simulation
+ * and aren't hit by queries. Obtaining a body binds it to a model and reactivates it where the model is.
+ * Bodies freed once the pool is full are destroyed. Every body remembers its pool, see EntityBody.getPool().
+ *
+ * @param <B> the type of body pooled.
+ */
+public abstract class EntityBodyPool<B extends EntityBody> {
+
+	/**
+	 * The world the bodies live on.
+	 */
+	private final World world;
+
+	/**
+	 * Maximum number of free bodies kept.
+	 */
+	public final int max;
+
+	/**
+	 * The free bodies.
+	 */
+	private final Array<B> freeBodies;
+
+	/**
+	 * Number of bodies this pool created.
+	 */
+	private int created;
+
+	/**
+	 * Number of bodies obtained, and how many of those were reused.
+	 */
+	private int obtained, hits;
+
+	/**
+	 * Number of bodies obtained and not freed yet, and the most there ever were.
+	 */
+	private int inUse, highWaterMark;
+
+	/**
+	 * Creates an empty pool.
+	 *
+	 * @param world the world the bodies live on.
+	 * @param max the maximum number of free bodies kept.
+	 */
+	public EntityBodyPool(World world, int max) {
+		this.world = world;
+		this.max = max;
+		freeBodies = new Array<B>(false, max);
+	}
+
+	/**
+	 * Creates a new deactivated body.
+	 *
+	 * @param world the world the body lives on.
+	 * @return the body.
+	 */
+	protected abstract B newBody(World world);
+
+	/**
+	 * Creates free bodies until there are a certain number of them, so they aren't created during the game.
+	 *
+	 * @param count the number of free bodies wanted, capped by the pool size.
+	 */
+	public void prewarm(int count) {
+		count = Math.min(count, max);
+		while (freeBodies.size < count)
+			freeBodies.add(create());
+	}
+
+	private B create() {
+		B body = newBody(world);
+		body.pool = this;
+		created++;
+		return body;
+	}
+
+	/**
+	 * Takes a free body, or creates one if there are none, and binds it to a model.
+	 *
+	 * @param model the model the body supports, where the body is placed.
+	 * @return the active body.
+	 */
+	public B obtain(EntityModel model) {
+		B body;
+		obtained++;
+		if (freeBodies.size == 0)
+			body = create();
+		else {
+			body = freeBodies.pop();
+			hits++;
+		}
+		if (++inUse > highWaterMark)
+			highWaterMark = inUse;
+
+		body.activate(model);
+		return body;
+	}
+
+	/**
+	 * Deactivates a body obtained from this pool and keeps it for reuse, or destroys it if the pool is full.
+	 * Must not be called while the world is stepping.
+	 *
+	 * @param body the body, which must have been obtained from this pool.
+	 */
+	@SuppressWarnings("unchecked")
+	public void free(EntityBody body) {
+		inUse--;
+		if (freeBodies.size < max) {
+			body.deactivate();
+			freeBodies.add((B) body);
+		}
+		else
+			world.destroyBody(body.getBody());
+	}
+
+	/**
+	 * @return the number of free bodies.
+	 */
+	public int getFree() {
+		return freeBodies.size;
+	}
+
+	/**
+	 * @return the number of bodies this pool created.
+	 */
+	public int getCreated() {
+		return created;
+	}
+
+	/**
+	 * @return the fraction of the bodies obtained that were reused instead of created, 0 if none were obtained.
+	 */
+	public float getHitRate() {
+		return obtained == 0 ? 0 : (float) hits / obtained;
+	}
+
+	/**
+	 * @return the number of bodies obtained and not freed yet.
+	 */
+	public int getInUse() {
+		return inUse;
+	}
+
+	/**
+	 * @return the most bodies ever in use at once.
+	 */
+	public int getHighWaterMark() {
+		return highWaterMark;
+	}
+}
@@ -0,0 +1,78 @@
+package com.batataproductions.game.controller.entities;
+
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+
+/**
+ * The fixture definitions of every type of body, converted from pixels to meters once and shared by all
+ * the bodies of that type. Creating a body only copies the cached definitions into the world.
+ *
+ * The definitions are built by build() when the game starts, or the first time a type of body is created.
+ * Their shapes live until dispose() is called. The cache is shared by the matches running on every thread.
+ */
+public final class FixtureCache {
+
+	/**
+	 * The types of body, each with its own fixtures.
+	 */
+	public enum BodyType { PLAYER, SMALL_ZOMBIE, MEDIUM_ZOMBIE, BIG_ZOMBIE, BULLET }
+
+	/**
+	 * The fixture definitions of each type of body, null until built.
+	 */
+	private static final FixtureDef[][] definitions = new FixtureDef[BodyType.values().length][];
+
+	private FixtureCache() {
+	}
+
+	/**
+	 * Builds the fixture definitions of every type of body.
+	 * Box2D must already be loaded, which creating a world does.
+	 */
+	public static synchronized void build() {
+		for (BodyType type : BodyType.values())
+			get(type);
+	}
+
+	/**
+	 * Disposes the shapes of the fixture definitions. They are built again if a body is created afterwards.
+	 */
+	public static synchronized void dispose() {
+		for (int i = 0; i < definitions.length; i++) {
+			if (definitions[i] == null)
+				continue;
+			for (FixtureDef definition : definitions[i])
+				definition.shape.dispose();
+			definitions[i] = null;
+		}
+	}
+
+	/**
+	 * Returns the fixture definitions of a type of body, building them if needed.
+	 *
+	 * @param type the type of body.
+	 * @return the definitions, which must not be modified.
+	 */
+	static synchronized FixtureDef[] get(BodyType type) {
+		FixtureDef[] fixtures = definitions[type.ordinal()];
+		if (fixtures == null) {
+			fixtures = create(type);
+			definitions[type.ordinal()] = fixtures;
+		}
+		return fixtures;
+	}
+
+	private static FixtureDef[] create(BodyType type) {
+		switch (type) {
+			case PLAYER:
+				return PlayerBody.createFixtureDefs();
+			case SMALL_ZOMBIE:
+				return SmallZombieBody.createFixtureDefs();
+			case MEDIUM_ZOMBIE:
+				return MediumZombieBody.createFixtureDefs();
+			case BIG_ZOMBIE:
+				return BigZombieBody.createFixtureDefs();
+			default:
+				return BulletBody.createFixtureDefs();
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.batataproductions.game.controller.entities;
 
+import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.World;
 import com.batataproductions.game.model.entities.EntityModel;
 
@@ -13,18 +14,36 @@ public class MediumZombieBody extends EntityBody {
      */
     public MediumZombieBody(World world, EntityModel model) {
         super(world, model);
+        createFixtures(FixtureCache.BodyType.MEDIUM_ZOMBIE);
+    }
 
+    /**
+     * Constructs a deactivated Medium zombie body to be kept in a pool.
+     *
+     * @param world the physical world this zombie belongs to.
+     */
+    public MediumZombieBody(World world) {
+        super(world);
+        createFixtures(FixtureCache.BodyType.MEDIUM_ZOMBIE);
+    }
+
+    /**
+     * Defines the fixtures of a medium zombie body, see FixtureCache.
+     *
+     * @return the fixture definitions.
+     */
+    static FixtureDef[] createFixtureDefs() {
         float density = 0.5f, friction = 0.4f, restitution = 0.5f;
         int width = 155, height = 105;
 
         // Body
-        createFixture(body, new float[]{
+        return new FixtureDef[]{ fixtureDef(new float[]{
                 //		0, 0, 300, 0, 300, 205, 0 , 205
                 //15, 18,
                 25, 10,
                 25, 100,
                 120, 100,
                 120, 10
-        }, width, height, density, friction, restitution, ZOMBIE_BODY, (short) ~0, false);
+        }, width, height, density, friction, restitution, ZOMBIE_BODY, (short) ~0, false) };
     }
 }
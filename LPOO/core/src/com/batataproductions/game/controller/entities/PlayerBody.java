@@ -4,6 +4,7 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Filter;
 import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.badlogic.gdx.physics.box2d.World;
 import com.batataproductions.game.model.entities.PlayerModel;
@@ -21,6 +22,15 @@ public class PlayerBody extends EntityBody {
 	/* Fixture placed at the point where the knife hits zombies. */
 	private Fixture knifePoint;
 
+	/* Indexes of the fixtures in the cached definitions. */
+	private static final int BODY_FIXTURE = 0, RIFLE_BARREL_FIXTURE = 1, PISTOL_BARREL_FIXTURE = 2, KNIFE_POINT_FIXTURE = 3;
+
+	/* Position the bullets exit the weapon from, reused by getWeaponFiringPosition. */
+	private final Vector2 firingPosition = new Vector2();
+
+	/* The player this body represents. */
+	private final PlayerModel model;
+
 	/**
 	 * Constructs a player body according to
 	 * a player model.
@@ -30,12 +40,28 @@ public class PlayerBody extends EntityBody {
 	 */
 	public PlayerBody(World world, PlayerModel model) {
 		super(world, model);
+		this.model = model;
+
+		FixtureDef[] fixtures = FixtureCache.get(FixtureCache.BodyType.PLAYER);
+		createFixture(fixtures[BODY_FIXTURE]);
+		rifleBarrel = createFixture(fixtures[RIFLE_BARREL_FIXTURE]);
+		pistolBarrel = createFixture(fixtures[PISTOL_BARREL_FIXTURE]);
+		knifePoint = createFixture(fixtures[KNIFE_POINT_FIXTURE]);
+	}
 
+	/**
+	 * Defines the fixtures of a player body, see FixtureCache.
+	 *
+	 * @return the fixture definitions, indexed by the *_FIXTURE constants.
+	 */
+	static FixtureDef[] createFixtureDefs() {
 		float density = 0.5f, friction = 0.4f, restitution = 0.5f;
 		int width = 155, height = 105;
 
+		FixtureDef[] fixtures = new FixtureDef[4];
+
 		// Body
-		createFixture(body, new float[]{
+		fixtures[BODY_FIXTURE] = fixtureDef(new float[]{
 		//		0, 0, 300, 0, 300, 205, 0 , 205
 				//15, 18,
 				15, 35,
@@ -47,36 +73,39 @@ public class PlayerBody extends EntityBody {
 				90, 18
 		}, width, height, density, friction, restitution, PLAYER_BODY, (short) ~0, false);
 		// Pistol Fixture.
-		rifleBarrel = createFixture(body, new float[]{
+		fixtures[RIFLE_BARREL_FIXTURE] = fixtureDef(new float[]{
 				100 + 5 + 35, 70 + 5 - 3,
 				100 + 5 + 35, 70 + 10 - 3,
 				100 + 10 + 35, 70 + 10 - 3,
 				100 + 10 + 35, 70 + 5 - 3
 		}, width, height, density, friction, restitution, (short) 0, (short) 0, true);
 		// Rifle Fixture.
-		pistolBarrel = createFixture(body, new float[]{
+		fixtures[PISTOL_BARREL_FIXTURE] = fixtureDef(new float[]{
 				100 + 5 + 20, 70 + 5,
 				100 + 5 + 20, 70 + 10,
 				100 + 10 + 20, 70 + 10,
 				100 + 10 + 20, 70 + 5
 		}, width, height, density, friction, restitution, (short) 0, (short) 0, true);
 		// Knife Fixture.
-		knifePoint = createFixture(body, new float[]{
+		fixtures[KNIFE_POINT_FIXTURE] = fixtureDef(new float[]{
 				100 + 5 + 35 + 15, 70 + 5 - 3,
 				100 + 5 + 35 + 15, 70 + 10 - 3,
 				100 + 10 + 35 + 15, 70 + 10 - 3,
 				100 + 10 + 35 + 15, 70 + 5 - 3
-		}, width, height, density, friction, restitution, PLAYER_BODY, (short) 0, true);
+		}, width, height, density, friction, restitution, PLAYER_KNIFE, (short) 0, true);
+
+		return fixtures;
 	}
 
 	/**
 	 * Returns the position from which the bullets should exit the weapon.
+	 * The returned vector is owned by this body and is overwritten by the next call.
 	 * @return A vector2 object holding the information about the world point of the player's weapon barrel.
 	 */
 	public Vector2 getWeaponFiringPosition(){
-		Vector2 returnVector = new Vector2();
+		Vector2 returnVector = firingPosition.setZero();
 
-		PlayerModel.Weapons currentWeapon = ((PlayerModel)body.getUserData()).getCurrentWeapon();
+		PlayerModel.Weapons currentWeapon = model.getCurrentWeapon();
 		// Rifle
 		if( currentWeapon == PlayerModel.Weapons.RIFLE )
 		{
@@ -90,8 +119,7 @@ public class PlayerBody extends EntityBody {
 			shape.getVertex(0, returnVector);
 		}
 
-		returnVector = body.getWorldPoint(returnVector);
-		return returnVector;
+		return returnVector.set(body.getWorldPoint(returnVector));
 	}
 
 	public void enableKnifeHitFixture()
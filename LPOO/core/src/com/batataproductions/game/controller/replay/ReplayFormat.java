@@ -0,0 +1,78 @@
+package com.batataproductions.game.controller.replay;
+
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.model.GameModel;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.model.entities.ZombieModel;
+
+import java.util.List;
+
+/**
+ * Layout of a replay stream.
+ *
+ * A replay starts with a header: the MAGIC bytes, the format VERSION, the tick rate, the 8 byte seed,
+ * the difficulty (its ordinal plus one, 0 if none was chosen), the keyframe interval, the weapons firing hitscan shots
+ * (bit ordinal of each weapon, see GameController.setHitscan()) and the walls of the map.
+ * Then comes one record per tick, starting with a varint of FLAG_* bits telling what follows:
+ * the movement mask if it changed, the zigzag-encoded difference between the quantized aim angle and the previous one,
+ * the weapon switched to and the view state if it changed. A tick where nothing changed takes a single byte.
+ *
+ * Every keyframe interval ticks the record is a keyframe instead, holding the tick number, the absolute movement mask,
+ * aim and state, and a checksum of the game before the tick. Decoding can restart at any keyframe and the checksums
+ * tell when a replay stopped playing out as it was recorded.
+ *
+ * Integers are unsigned LEB128 varints and the angles are TickInput aim steps, -1 for no aim.
+ */
+public final class ReplayFormat {
+
+	static final byte[] MAGIC = {'D', 'M', 'R', 'P'};
+	static final int VERSION = 2;
+
+	/**
+	 * Default number of ticks between keyframes, 10 seconds at the default tick rate.
+	 */
+	public static final int DEFAULT_KEYFRAME_INTERVAL = 600;
+
+	static final int FLAG_MOVEMENT = 1;
+	static final int FLAG_AIM = 1 << 1;
+	static final int FLAG_SHOOT = 1 << 2;
+	static final int FLAG_RELOAD = 1 << 3;
+	static final int FLAG_SWITCH = 1 << 4;
+	static final int FLAG_NEXT_WEAPON = 1 << 5;
+	static final int FLAG_PREVIOUS_WEAPON = 1 << 6;
+	static final int FLAG_STATE = 1 << 7;
+	static final int FLAG_NEW_ROUND = 1 << 8;
+	static final int FLAG_KEYFRAME = 1 << 9;
+
+	/**
+	 * Aim step written when the player isn't aiming.
+	 */
+	static final int NO_AIM = -1;
+
+	private ReplayFormat() {
+	}
+
+	/**
+	 * Hashes the state of the game: the round, the kills, the player and the entities' positions.
+	 *
+	 * @param controller the controller of the game.
+	 * @return the checksum.
+	 */
+	public static int checksum(GameController controller) {
+		GameModel model = controller.getModel();
+		PlayerModel player = model.getSelfPlayer();
+		int hash = controller.getCurrentRound();
+		hash = 31 * hash + controller.getNrZombiedKilled();
+		hash = 31 * hash + Float.floatToIntBits(player.getX());
+		hash = 31 * hash + Float.floatToIntBits(player.getY());
+		hash = 31 * hash + Float.floatToIntBits(player.getRotation());
+		hash = 31 * hash + Float.floatToIntBits(player.getHealth());
+
+		List<ZombieModel> zombies = model.getZombies();
+		for (int i = 0; i < zombies.size(); i++) {
+			hash = 31 * hash + Float.floatToIntBits(zombies.get(i).getX());
+			hash = 31 * hash + Float.floatToIntBits(zombies.get(i).getY());
+		}
+		return 31 * hash + model.getBullets().size();
+	}
+}
@@ -0,0 +1,106 @@
+package com.batataproductions.game.controller.replay;
+
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.SimulationLoop;
+import com.batataproductions.game.model.entities.PlayerModel;
+
+/**
+ * Plays a replay back headless, running its ticks as fast as the machine allows.
+ *
+ * The game is started again from the replay's seed, difficulty, hitscan weapons and walls, so the controller is left
+ * at the state of the last tick played. The checksum of every keyframe is compared with the game's,
+ * and the slowest tick is kept to help find frame spikes.
+ */
+public class ReplayPlayer {
+
+	private final GameController controller;
+
+	/**
+	 * First keyframe whose checksum didn't match the game's, -1 if none.
+	 */
+	private long divergedTick = -1;
+
+	/**
+	 * The slowest tick played and how long it took.
+	 */
+	private long slowestTick = -1;
+	private long slowestTickNanos;
+
+	/**
+	 * Creates a player.
+	 *
+	 * @param controller the controller the replay is played on.
+	 */
+	public ReplayPlayer(GameController controller) {
+		this.controller = controller;
+	}
+
+	/**
+	 * Plays a whole replay.
+	 *
+	 * @param reader the replay, right after its header was read.
+	 * @return the number of ticks played.
+	 */
+	public long play(ReplayReader reader) {
+		return play(reader, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Plays a replay up to a tick, to look at the game as it was then.
+	 *
+	 * @param reader the replay, right after its header was read.
+	 * @param ticks the maximum number of ticks played.
+	 * @return the number of ticks played.
+	 */
+	public long play(ReplayReader reader, long ticks) {
+		divergedTick = -1;
+		slowestTick = -1;
+		slowestTickNanos = 0;
+
+		controller.setGameDifficulty(reader.getDifficulty());
+		for (PlayerModel.Weapons weapon : PlayerModel.Weapons.values())
+			controller.setHitscan(weapon, reader.isHitscan(weapon));
+		controller.loadWalls(reader.getWalls());
+		controller.startNewGame(reader.getSeed());
+
+		SimulationLoop loop = new SimulationLoop(controller, reader.getTickRate());
+		long played = 0;
+		while (played < ticks && reader.next(loop.getInput())) {
+			if (reader.isKeyframe() && divergedTick < 0 && reader.getChecksum() != ReplayFormat.checksum(controller))
+				divergedTick = reader.getTick();
+
+			loop.setState(reader.getState());
+			long start = System.nanoTime();
+			loop.tick();
+			long nanos = System.nanoTime() - start;
+			if (nanos > slowestTickNanos) {
+				slowestTickNanos = nanos;
+				slowestTick = reader.getTick();
+			}
+			played++;
+		}
+		return played;
+	}
+
+	/**
+	 * Returns the first keyframe where the game played back differed from the one recorded.
+	 * @return the tick of the keyframe, -1 if the replay played out as recorded.
+	 */
+	public long getDivergedTick() {
+		return divergedTick;
+	}
+
+	/**
+	 * @return the slowest tick of the last replay played.
+	 */
+	public long getSlowestTick() {
+		return slowestTick;
+	}
+
+	/**
+	 * @return how long the slowest tick took in nanoseconds.
+	 */
+	public long getSlowestTickNanos() {
+		return slowestTickNanos;
+	}
+}
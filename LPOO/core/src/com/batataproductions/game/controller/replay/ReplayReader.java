@@ -0,0 +1,238 @@
+package com.batataproductions.game.controller.replay;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.TickInput;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.view.GameView;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a replay written by ReplayWriter, one tick at a time, see ReplayFormat.
+ * A replay cut short, as when the game crashed while recording, ends at its last whole tick.
+ */
+public class ReplayReader {
+
+	private static final PlayerModel.Weapons[] WEAPONS = PlayerModel.Weapons.values();
+	private static final GameView.States[] STATES = GameView.States.values();
+	private static final GameController.Difficulty[] DIFFICULTIES = GameController.Difficulty.values();
+
+	private final InputStream in;
+
+	/**
+	 * Values read from the header.
+	 */
+	private final int tickRate;
+	private final long seed;
+	private final GameController.Difficulty difficulty;
+	private final int keyframeInterval;
+	private final int hitscanWeapons;
+	private final FloatArray walls;
+
+	/**
+	 * Number of ticks read.
+	 */
+	private long tick;
+
+	/**
+	 * The values of the last tick read.
+	 */
+	private int movement, aimStep = ReplayFormat.NO_AIM;
+	private GameView.States state;
+	private boolean keyframe;
+	private int checksum;
+
+	/**
+	 * Creates a reader and reads the header.
+	 *
+	 * @param in the stream the replay is read from.
+	 */
+	public ReplayReader(InputStream in) {
+		this.in = new BufferedInputStream(in);
+		try {
+			for (byte b : ReplayFormat.MAGIC)
+				if (readByte() != (b & 0xFF))
+					throw new GdxRuntimeException("Not a replay");
+			int version = (int) readVarint();
+			if (version != ReplayFormat.VERSION)
+				throw new GdxRuntimeException("Unsupported replay version: " + version);
+			tickRate = (int) readVarint();
+			long seed = 0;
+			for (int i = 0; i < 8; i++)
+				seed = (seed << 8) | readByte();
+			this.seed = seed;
+			int difficulty = (int) readVarint();
+			this.difficulty = difficulty == 0 ? null : DIFFICULTIES[difficulty - 1];
+			keyframeInterval = (int) readVarint();
+			hitscanWeapons = (int) readVarint();
+
+			int wallCount = (int) readVarint();
+			walls = new FloatArray(wallCount);
+			for (int i = 0; i < wallCount; i++)
+				walls.add(Float.intBitsToFloat(readInt()));
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Couldn't read the replay header", e);
+		}
+	}
+
+	/**
+	 * Reads the next tick, setting the input the tick applied.
+	 *
+	 * @param input the input to set. Its events must have been consumed by the previous tick.
+	 * @return false if the replay ended, in which case the input is left unchanged.
+	 */
+	public boolean next(TickInput input) {
+		int flags;
+		try {
+			in.mark(1);
+			if (in.read() < 0)
+				return false;
+			in.reset();
+			flags = (int) readVarint();
+
+			keyframe = (flags & ReplayFormat.FLAG_KEYFRAME) != 0;
+			if (keyframe) {
+				tick = readVarint();
+				movement = readByte();
+				aimStep = unzigzag((int) readVarint());
+				state = STATES[(int) readVarint()];
+				checksum = readInt();
+			}
+			if ((flags & ReplayFormat.FLAG_MOVEMENT) != 0)
+				movement = readByte();
+			if ((flags & ReplayFormat.FLAG_AIM) != 0)
+				aimStep += unzigzag((int) readVarint());
+			PlayerModel.Weapons weapon = (flags & ReplayFormat.FLAG_SWITCH) != 0 ? WEAPONS[(int) readVarint()] : null;
+			if ((flags & ReplayFormat.FLAG_STATE) != 0)
+				state = STATES[(int) readVarint()];
+
+			input.setMovement((short) movement);
+			input.setAimAngle(aimStep == ReplayFormat.NO_AIM ? Float.NaN : TickInput.toAngle(aimStep));
+			if ((flags & ReplayFormat.FLAG_SHOOT) != 0)
+				input.shoot();
+			if ((flags & ReplayFormat.FLAG_RELOAD) != 0)
+				input.reload();
+			if (weapon != null)
+				input.switchToWeapon(weapon);
+			if ((flags & ReplayFormat.FLAG_NEXT_WEAPON) != 0)
+				input.switchToWeapon(true);
+			if ((flags & ReplayFormat.FLAG_PREVIOUS_WEAPON) != 0)
+				input.switchToWeapon(false);
+			if ((flags & ReplayFormat.FLAG_NEW_ROUND) != 0)
+				input.startNewRound();
+		} catch (EOFException e) {
+			return false;
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Couldn't read the replay", e);
+		}
+		tick++;
+		return true;
+	}
+
+	/**
+	 * Returns the number of the last tick read.
+	 * @return the tick number, starting at 0.
+	 */
+	public long getTick() {
+		return tick - 1;
+	}
+
+	/**
+	 * Returns the view state of the last tick read.
+	 * @return the view state.
+	 */
+	public GameView.States getState() {
+		return state;
+	}
+
+	/**
+	 * Is the last tick read a keyframe?
+	 * @return true if it is, in which case getChecksum() holds the checksum of the game before the tick.
+	 */
+	public boolean isKeyframe() {
+		return keyframe;
+	}
+
+	/**
+	 * Returns the checksum of the game before the last keyframe read, see ReplayFormat.checksum().
+	 * @return the checksum.
+	 */
+	public int getChecksum() {
+		return checksum;
+	}
+
+	public int getTickRate() {
+		return tickRate;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return the difficulty, null if none was chosen.
+	 */
+	public GameController.Difficulty getDifficulty() {
+		return difficulty;
+	}
+
+	public int getKeyframeInterval() {
+		return keyframeInterval;
+	}
+
+	/**
+	 * @param weapon a weapon.
+	 * @return whether the weapon fired hitscan shots in the game recorded, see GameController.setHitscan().
+	 */
+	public boolean isHitscan(PlayerModel.Weapons weapon) {
+		return (hitscanWeapons & 1 << weapon.ordinal()) != 0;
+	}
+
+	/**
+	 * @return the rectangles of the walls in meters, as x, y, width and height, see GameController.loadWalls().
+	 */
+	public FloatArray getWalls() {
+		return walls;
+	}
+
+	/**
+	 * Closes the stream.
+	 */
+	public void close() {
+		try {
+			in.close();
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Couldn't close the replay", e);
+		}
+	}
+
+	private static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private int readByte() throws IOException {
+		int b = in.read();
+		if (b < 0)
+			throw new EOFException();
+		return b;
+	}
+
+	private long readVarint() throws IOException {
+		long value = 0;
+		for (int shift = 0; ; shift += 7) {
+			int b = readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+	}
+
+	private int readInt() throws IOException {
+		return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+	}
+}
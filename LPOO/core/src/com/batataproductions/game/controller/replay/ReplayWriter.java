@@ -0,0 +1,188 @@
+package com.batataproductions.game.controller.replay;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.TickInput;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.view.GameView;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Records a game as it is played, one record per tick, see ReplayFormat.
+ * Must be created right after the game starts, its header holds the seed, difficulty and hitscan weapons of the game.
+ */
+public class ReplayWriter {
+
+	private final OutputStream out;
+
+	private final GameController controller;
+
+	private final int keyframeInterval;
+
+	/**
+	 * Number of ticks recorded.
+	 */
+	private long tick;
+
+	/**
+	 * The values of the previous tick, the records only hold what changed.
+	 */
+	private int movement, aimStep = ReplayFormat.NO_AIM;
+	private GameView.States state;
+
+	/**
+	 * Creates a writer with the default keyframe interval and writes the header.
+	 *
+	 * @param out the stream the replay is written to.
+	 * @param controller the controller of the game recorded.
+	 * @param tickRate the number of ticks per second.
+	 */
+	public ReplayWriter(OutputStream out, GameController controller, int tickRate) {
+		this(out, controller, tickRate, ReplayFormat.DEFAULT_KEYFRAME_INTERVAL);
+	}
+
+	/**
+	 * Creates a writer and writes the header.
+	 *
+	 * @param out the stream the replay is written to.
+	 * @param controller the controller of the game recorded.
+	 * @param tickRate the number of ticks per second.
+	 * @param keyframeInterval the number of ticks between keyframes.
+	 */
+	public ReplayWriter(OutputStream out, GameController controller, int tickRate, int keyframeInterval) {
+		if (keyframeInterval <= 0)
+			throw new IllegalArgumentException("Keyframe interval must be positive: " + keyframeInterval);
+		this.out = new BufferedOutputStream(out);
+		this.controller = controller;
+		this.keyframeInterval = keyframeInterval;
+
+		try {
+			this.out.write(ReplayFormat.MAGIC);
+			writeVarint(ReplayFormat.VERSION);
+			writeVarint(tickRate);
+			long seed = controller.getSeed();
+			for (int shift = 56; shift >= 0; shift -= 8)
+				this.out.write((int) (seed >>> shift));
+			writeVarint(controller.getGameDifficulty() == null ? 0 : controller.getGameDifficulty().ordinal() + 1);
+			writeVarint(keyframeInterval);
+
+			int hitscanWeapons = 0;
+			for (PlayerModel.Weapons weapon : PlayerModel.Weapons.values())
+				if (controller.isHitscan(weapon))
+					hitscanWeapons |= 1 << weapon.ordinal();
+			writeVarint(hitscanWeapons);
+
+			FloatArray walls = controller.getWalls();
+			writeVarint(walls.size);
+			for (int i = 0; i < walls.size; i++)
+				writeInt(Float.floatToIntBits(walls.get(i)));
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Couldn't write the replay header", e);
+		}
+	}
+
+	/**
+	 * Records the input of a tick. Must be called before the tick is ran.
+	 *
+	 * @param state the view state of the tick.
+	 * @param input the input applied by the tick.
+	 */
+	public void record(GameView.States state, TickInput input) {
+		int movement = input.getMovement();
+		int aimStep = Float.isNaN(input.getAimAngle()) ? ReplayFormat.NO_AIM : TickInput.toAimStep(input.getAimAngle());
+
+		int flags = 0;
+		if (input.isShooting())
+			flags |= ReplayFormat.FLAG_SHOOT;
+		if (input.isReloading())
+			flags |= ReplayFormat.FLAG_RELOAD;
+		if (input.getWeaponToSwitch() != null)
+			flags |= ReplayFormat.FLAG_SWITCH;
+		if (input.getWeaponCycle() > 0)
+			flags |= ReplayFormat.FLAG_NEXT_WEAPON;
+		else if (input.getWeaponCycle() < 0)
+			flags |= ReplayFormat.FLAG_PREVIOUS_WEAPON;
+		if (input.isStartingNewRound())
+			flags |= ReplayFormat.FLAG_NEW_ROUND;
+
+		boolean keyframe = tick % keyframeInterval == 0;
+		if (keyframe)
+			flags |= ReplayFormat.FLAG_KEYFRAME;
+		else {
+			if (movement != this.movement)
+				flags |= ReplayFormat.FLAG_MOVEMENT;
+			if (aimStep != this.aimStep)
+				flags |= ReplayFormat.FLAG_AIM;
+			if (state != this.state)
+				flags |= ReplayFormat.FLAG_STATE;
+		}
+
+		try {
+			writeVarint(flags);
+			if (keyframe) {
+				writeVarint(tick);
+				out.write(movement);
+				writeVarint(zigzag(aimStep));
+				writeVarint(state.ordinal());
+				writeInt(ReplayFormat.checksum(controller));
+			}
+			if ((flags & ReplayFormat.FLAG_MOVEMENT) != 0)
+				out.write(movement);
+			if ((flags & ReplayFormat.FLAG_AIM) != 0)
+				writeVarint(zigzag(aimStep - this.aimStep));
+			if ((flags & ReplayFormat.FLAG_SWITCH) != 0)
+				writeVarint(input.getWeaponToSwitch().ordinal());
+			if ((flags & ReplayFormat.FLAG_STATE) != 0)
+				writeVarint(state.ordinal());
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Couldn't write the replay", e);
+		}
+
+		this.movement = movement;
+		this.aimStep = aimStep;
+		this.state = state;
+		tick++;
+	}
+
+	/**
+	 * Returns the number of ticks recorded.
+	 * @return the tick count.
+	 */
+	public long getTickCount() {
+		return tick;
+	}
+
+	/**
+	 * Writes the buffered records and closes the stream.
+	 */
+	public void close() {
+		try {
+			out.close();
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Couldn't close the replay", e);
+		}
+	}
+
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private void writeVarint(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private void writeInt(int value) throws IOException {
+		out.write(value >>> 24);
+		out.write(value >>> 16);
+		out.write(value >>> 8);
+		out.write(value);
+	}
+}
@@ -0,0 +1,96 @@
+package com.batataproductions.game.model;
+
+/**
+ * Encodes the handles identifying the entities of a game: a single int holding the kind of the entity,
+ * its slot in the HandleTable of that kind and the generation of the slot.
+ *
+ * A slot's generation changes every time its entity is removed, so a handle kept after its entity was
+ * removed, or reused from a pool for another entity, no longer resolves. Handles are plain ints and are
+ * the same on every run of a game, so they can be written as they are to replays and network messages.
+ *
+ * Bits 0 to 15 hold the slot, 16 to 27 the generation and 28 to 30 the kind, plus one, so that
+ * no handle is NONE.
+ */
+public final class EntityHandle {
+
+	/**
+	 * The kinds of entity, each with its own table of handles.
+	 */
+	public enum Kind { PLAYER, ZOMBIE, BULLET, BLOOD_SPILL }
+
+	/**
+	 * The handle of no entity, which never resolves.
+	 */
+	public static final int NONE = 0;
+
+	/**
+	 * Number of slots a table may have.
+	 */
+	public static final int MAX_SLOTS = 1 << 16;
+
+	/**
+	 * Number of generations a slot goes through before they repeat. Generation 0 is never used.
+	 */
+	public static final int GENERATIONS = 1 << 12;
+
+	private static final int GENERATION_SHIFT = 16, KIND_SHIFT = 28;
+
+	private static final Kind[] KINDS = Kind.values();
+
+	private EntityHandle() {
+	}
+
+	/**
+	 * Makes a handle.
+	 *
+	 * @param kind the kind of the entity.
+	 * @param slot the slot of the entity in the table of its kind.
+	 * @param generation the generation of the slot, from 1 to GENERATIONS - 1.
+	 * @return the handle.
+	 */
+	public static int of(Kind kind, int slot, int generation) {
+		return (kind.ordinal() + 1) << KIND_SHIFT | generation << GENERATION_SHIFT | slot;
+	}
+
+	/**
+	 * @param handle a handle.
+	 * @return the kind of entity it identifies, null if it is NONE.
+	 */
+	public static Kind kindOf(int handle) {
+		int kind = handle >>> KIND_SHIFT;
+		return kind == 0 ? null : KINDS[kind - 1];
+	}
+
+	/**
+	 * @param handle a handle.
+	 * @param kind a kind of entity.
+	 * @return whether the handle identifies an entity of that kind.
+	 */
+	public static boolean is(int handle, Kind kind) {
+		return handle >>> KIND_SHIFT == kind.ordinal() + 1;
+	}
+
+	/**
+	 * @param handle a handle.
+	 * @return the slot of the entity in the table of its kind.
+	 */
+	public static int slotOf(int handle) {
+		return handle & (MAX_SLOTS - 1);
+	}
+
+	/**
+	 * @param handle a handle.
+	 * @return the generation of the slot when the handle was made.
+	 */
+	public static int generationOf(int handle) {
+		return handle >>> GENERATION_SHIFT & (GENERATIONS - 1);
+	}
+
+	/**
+	 * @param generation the generation of a slot.
+	 * @return the generation the slot takes once its entity is removed.
+	 */
+	static int nextGeneration(int generation) {
+		return generation == GENERATIONS - 1 ? 1 : generation + 1;
+	}
+}
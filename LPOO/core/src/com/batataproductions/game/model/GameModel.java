@@ -2,6 +2,7 @@ package com.batataproductions.game.model;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.Pool;
 import com.batataproductions.game.model.entities.BloodSpillModel;
 import com.batataproductions.game.model.entities.BulletModel;
@@ -44,10 +45,24 @@ public class GameModel {
 	private List<BulletModel> bullets;
 
 	/**
-	 * The Blood Spills currently on the server.
+	 * The Blood Spills spilled on the current frame, which the view stamps into its decals.
 	 */
 	private List<BloodSpillModel> bloodSpills;
 
+	/**
+	 * The handles of the players, zombies, bullets and blood spills.
+	 */
+	private final HandleTable<PlayerModel> playerHandles = new HandleTable<PlayerModel>(EntityHandle.Kind.PLAYER, 4);
+	private final HandleTable<ZombieModel> zombieHandles = new HandleTable<ZombieModel>(EntityHandle.Kind.ZOMBIE, 256);
+	private final HandleTable<BulletModel> bulletHandles = new HandleTable<BulletModel>(EntityHandle.Kind.BULLET, 64);
+	private final HandleTable<BloodSpillModel> bloodSpillHandles = new HandleTable<BloodSpillModel>(EntityHandle.Kind.BLOOD_SPILL, 64);
+
+	/**
+	 * Handles of the entities flagged for removal since the controller last removed them, in the order they were flagged.
+	 * Stale handles, of entities removed otherwise meanwhile, may be listed too.
+	 */
+	private final IntArray flaggedHandles = new IntArray(256);
+
 	/**
 	 * A pool of blood spills.
 	 */
@@ -68,13 +83,39 @@ public class GameModel {
 		}
 	};
 
+	/**
+	 * A pool of zombies of a single size, belonging to this game.
+	 */
+	private class ZombiePool extends TrackedPool<ZombieModel> {
+		private final ZombieModel.Sizes size;
+
+		ZombiePool(ZombieModel.Sizes size) {
+			this.size = size;
+		}
+
+		@Override
+		protected ZombieModel newObject() {
+			return new ZombieModel(GameModel.this, 0, 0, 0, size);
+		}
+	}
+
+	/**
+	 * The pools of zombies, by size. Unlike bullets, zombies are kept across games.
+	 */
+	private final ZombiePool[] zombiePools = new ZombiePool[ZombieModel.Sizes.values().length];
+
+	/**
+	 * The random numbers of the current game.
+	 */
+	private final GameRandom random = new GameRandom(0);
+
 	/**
 	 * Our player model.
 	 */
 	private PlayerModel selfPlayer;
 
 	/**
-	 * Returns a singleton instance of the game model
+	 * Returns a singleton instance of the game model, the model of the default match.
 	 *
 	 * @return the singleton instance
 	 */
@@ -85,9 +126,11 @@ public class GameModel {
 	}
 
 	/**
-	 * Constructs a new game model.
+	 * Constructs a new game model. Every model has its own entities, pools and random numbers.
 	 */
-	private GameModel() {
+	public GameModel() {
+		for (ZombieModel.Sizes size : ZombieModel.Sizes.values())
+			zombiePools[size.ordinal()] = new ZombiePool(size);
 
 		startNewGame();
 	}
@@ -121,7 +164,7 @@ public class GameModel {
 	}
 
 	/**
-	 * Returns the blood spills on the server.
+	 * Returns the blood spills spilled on the current frame, see removeBloodSpills().
 	 *
 	 * @return the spills list
 	 */
@@ -129,13 +172,22 @@ public class GameModel {
 		return bloodSpills;
 	}
 
+	/**
+	 * Returns the handles of the entities flagged for removal, to be cleared once they are removed.
+	 *
+	 * @return the handles, some of which may be stale.
+	 */
+	public IntArray getFlaggedHandles() {
+		return flaggedHandles;
+	}
+
 	/**
 	 * Adds a new player to the model
 	 *
 	 * @param playerModel the player model to be added
 	 */
 	public void addPlayer(PlayerModel playerModel) {
-		players.add(playerModel);
+		add(players, playerHandles, playerModel);
 	}
 
 	/**
@@ -144,7 +196,7 @@ public class GameModel {
 	 * @param zombieModel the zombie model to be added
 	 */
 	public void addZombie(ZombieModel zombieModel) {
-		zombies.add(zombieModel);
+		add(zombies, zombieHandles, zombieModel);
 	}
 
 	/**
@@ -153,7 +205,7 @@ public class GameModel {
 	 * @param bulletModel the bullet model to be added
 	 */
 	public void addBullet(BulletModel bulletModel) {
-		bullets.add(bulletModel);
+		add(bullets, bulletHandles, bulletModel);
 	}
 
 	/**
@@ -162,7 +214,7 @@ public class GameModel {
 	 * @param bloodSpillModel the bullet model to be added
 	 */
 	public void addBloodSpill(BloodSpillModel bloodSpillModel) {
-		bloodSpills.add(bloodSpillModel);
+		add(bloodSpills, bloodSpillHandles, bloodSpillModel);
 	}
 
 	/**
@@ -176,6 +228,26 @@ public class GameModel {
 		return bullet;
 	}
 
+	/**
+	 * Returns a ZombieModel object from the pool of its size, reset as a new zombie. Adds the returned ZombieModel to the zombie array.
+	 * @param size the size of the zombie.
+	 * @return A unique ZombieModel object.
+	 */
+	public ZombieModel getZombie(ZombieModel.Sizes size) {
+		ZombieModel zombie = zombiePools[size.ordinal()].obtain();
+		addZombie(zombie);
+		return zombie;
+	}
+
+	/**
+	 * Returns the pool of zombies of a size, along with its hit rate and high-water mark.
+	 * @param size the size of the zombies.
+	 * @return the zombie pool.
+	 */
+	public TrackedPool<ZombieModel> getZombiePool(ZombieModel.Sizes size) {
+		return zombiePools[size.ordinal()];
+	}
+
 	/**
 	 * Returns a BloodSpill object from the bullet pool. Adds the returned BloodSpillModel to the blood spill array.
 	 * @return A unique BloodSpillModel object.
@@ -193,38 +265,170 @@ public class GameModel {
 	public PlayerModel getSelfPlayer() { return selfPlayer; }
 
 	/**
-	 * Removes a model from this game.
+	 * Returns the random numbers of the current game.
+	 *
+	 * @return the random streams, seeded when the game started.
+	 */
+	public GameRandom getRandom() {
+		return random;
+	}
+
+	/**
+	 * Returns the player a handle identifies.
+	 * @param handle the handle of the player.
+	 * @return the player, null if the handle isn't a player's or the player was removed.
+	 */
+	public PlayerModel resolvePlayer(int handle) {
+		return playerHandles.get(handle);
+	}
+
+	/**
+	 * Returns the zombie a handle identifies.
+	 * @param handle the handle of the zombie.
+	 * @return the zombie, null if the handle isn't a zombie's or the zombie was removed.
+	 */
+	public ZombieModel resolveZombie(int handle) {
+		return zombieHandles.get(handle);
+	}
+
+	/**
+	 * Returns the bullet a handle identifies.
+	 * @param handle the handle of the bullet.
+	 * @return the bullet, null if the handle isn't a bullet's or the bullet was removed.
+	 */
+	public BulletModel resolveBullet(int handle) {
+		return bulletHandles.get(handle);
+	}
+
+	/**
+	 * Returns the blood spill a handle identifies.
+	 * @param handle the handle of the blood spill.
+	 * @return the blood spill, null if the handle isn't a blood spill's or the spill was removed.
+	 */
+	public BloodSpillModel resolveBloodSpill(int handle) {
+		return bloodSpillHandles.get(handle);
+	}
+
+	/**
+	 * Removes a model from this game. Models not in this game are ignored.
+	 * The lists don't keep their order: the last model of the list takes the place of the removed one.
 	 *
 	 * @param model the model to be removed
 	 */
 	public void remove(EntityModel model) {
-		if (model instanceof PlayerModel) {
-			players.remove(model);
-		}
-		if (model instanceof ZombieModel) {
-			zombies.remove(model);
-		}
-		if (model instanceof BulletModel) {
-			bullets.remove(model);
-			bulletPool.free((BulletModel) model);
+		remove(model.getHandle());
+	}
+
+	/**
+	 * Removes the model a handle identifies from this game. Stale handles are ignored.
+	 *
+	 * @param handle the handle of the model to be removed
+	 */
+	public void remove(int handle) {
+		EntityHandle.Kind kind = EntityHandle.kindOf(handle);
+		if (kind == null)
+			return;
+		switch (kind) {
+			case PLAYER:
+				PlayerModel player = playerHandles.remove(handle);
+				if (player != null)
+					remove(players, player);
+				break;
+			case ZOMBIE:
+				ZombieModel zombie = zombieHandles.remove(handle);
+				if (zombie != null && remove(zombies, zombie))
+					zombiePools[zombie.getSize().ordinal()].free(zombie);
+				break;
+			case BULLET:
+				BulletModel bullet = bulletHandles.remove(handle);
+				if (bullet != null && remove(bullets, bullet))
+					bulletPool.free(bullet);
+				break;
+			case BLOOD_SPILL:
+				BloodSpillModel spill = bloodSpillHandles.remove(handle);
+				if (spill != null && remove(bloodSpills, spill))
+					bloodSpillPool.free(spill);
+				break;
 		}
-		if (model instanceof BloodSpillModel) {
-			bloodSpills.remove(model);
-			bloodSpillPool.free((BloodSpillModel) model);
+	}
+
+	/**
+	 * Removes every blood spill, once the view stamped them. Spills are only kept for the frame they were spilled on,
+	 * the decals showing them afterwards.
+	 */
+	public void removeBloodSpills() {
+		for (int i = bloodSpills.size() - 1; i >= 0; i--)
+			remove(bloodSpills.get(i));
+	}
+
+	/**
+	 * Adds a model to the end of a list, records its index and gives it a handle.
+	 *
+	 * @param list the list the model is added to.
+	 * @param handles the table of handles of the model's kind.
+	 * @param model the model to be added.
+	 */
+	private <M extends EntityModel> void add(List<M> list, HandleTable<M> handles, M model) {
+		model.setModelIndex(list.size());
+		model.setFlaggedHandles(flaggedHandles);
+		list.add(model);
+		handles.add(model);
+	}
+
+	/**
+	 * Removes a model from a list in constant time by moving the last model of the list to its index.
+	 *
+	 * @param list the list holding the model.
+	 * @param model the model to be removed.
+	 * @return true if the model was in the list.
+	 */
+	private <M extends EntityModel> boolean remove(List<M> list, M model) {
+		int index = model.getModelIndex();
+		if (index < 0 || index >= list.size() || list.get(index) != model)
+			return false;
+
+		M last = list.remove(list.size() - 1);
+		if (last != model) {
+			list.set(index, last);
+			last.setModelIndex(index);
 		}
+		model.setModelIndex(-1);
+		return true;
 	}
 
 	/**
-	 * Starts a new game.
+	 * Starts a new game with a random seed.
 	 */
 	public void startNewGame()
 	{
+		startNewGame(GameRandom.newSeed());
+	}
+
+	/**
+	 * Starts a new game.
+	 *
+	 * @param seed the seed of the game's random numbers.
+	 */
+	public void startNewGame(long seed)
+	{
+		random.setSeed(seed);
+
 		if(players == null) players = new ArrayList<PlayerModel>();
 		if(zombies == null) zombies = new ArrayList<ZombieModel>();
 		if(bullets == null) bullets = new ArrayList<BulletModel>();
 		if(bloodSpills == null) bloodSpills = new ArrayList<BloodSpillModel>();
 
+		playerHandles.clear();
+		zombieHandles.clear();
+		bulletHandles.clear();
+		bloodSpillHandles.clear();
+		flaggedHandles.clear();
+
 		players.clear();
+		for (ZombieModel zombie : zombies) {
+			zombie.setModelIndex(-1);
+			zombiePools[zombie.getSize().ordinal()].free(zombie);
+		}
 		zombies.clear();
 		bullets.clear();
 		bloodSpills.clear();
@@ -0,0 +1,73 @@
+package com.batataproductions.game.model;
+
+/**
+ * The random numbers of a game, split into independent streams seeded from the game's seed.
+ *
+ * Each system draws from its own stream, so drawing more numbers in one system, like playing more
+ * zombie sounds, doesn't change what happens in the others. The same seed replays the same game.
+ */
+public class GameRandom {
+
+	/**
+	 * The systems drawing random numbers.
+	 */
+	public enum Streams {SPAWN, AI, AUDIO}
+
+	/**
+	 * Distinguishes the seeds picked by newSeed() when it is called several times in the same nanosecond.
+	 */
+	private static long seedUniquifier;
+
+	private long seed;
+
+	private final RandomStream[] streams = new RandomStream[Streams.values().length];
+
+	/**
+	 * Creates the streams of a game.
+	 *
+	 * @param seed the seed of the game.
+	 */
+	public GameRandom(long seed) {
+		for (int i = 0; i < streams.length; i++)
+			streams[i] = new RandomStream(0);
+		setSeed(seed);
+	}
+
+	/**
+	 * Restarts every stream from a game's seed.
+	 *
+	 * @param seed the seed of the game.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		for (int i = 0; i < streams.length; i++)
+			streams[i].setSeed(RandomStream.mix(seed + (i + 1) * 0x632BE59BD9B4E019L));
+	}
+
+	/**
+	 * @return the seed of the game.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns the stream a system draws its random numbers from.
+	 *
+	 * @param stream the system.
+	 * @return the stream.
+	 */
+	public RandomStream get(Streams stream) {
+		return streams[stream.ordinal()];
+	}
+
+	/**
+	 * Picks a seed for a new game.
+	 *
+	 * @return a seed unlikely to have been used before.
+	 */
+	public static synchronized long newSeed() {
+		seedUniquifier += 0x9E3779B97F4A7C15L;
+		return RandomStream.mix(System.nanoTime() ^ seedUniquifier);
+	}
+}
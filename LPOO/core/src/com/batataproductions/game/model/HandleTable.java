@@ -0,0 +1,158 @@
+package com.batataproductions.game.model;
+
+import com.batataproductions.game.model.entities.EntityModel;
+
+/**
+ * The entities of a single kind, by handle. Adding an entity gives it a handle, see EntityHandle, through
+ * which it is found in constant time until it is removed. Handles of removed entities resolve to null.
+ *
+ * The slots are kept dense: a removed entity's slot is the next one given out.
+ *
+ * @param <M> the type of entity held.
+ */
+public class HandleTable<M extends EntityModel> {
+
+	private final EntityHandle.Kind kind;
+
+	/**
+	 * The entity in every slot, null if the slot is free.
+	 */
+	private EntityModel[] entities;
+
+	/**
+	 * The current generation of every slot.
+	 */
+	private int[] generations;
+
+	/**
+	 * The free slots, the last one being given out next, and the number of slots ever used.
+	 */
+	private int[] free;
+	private int freeCount, used;
+
+	/**
+	 * Number of entities in the table.
+	 */
+	private int size;
+
+	/**
+	 * Creates a table.
+	 *
+	 * @param kind the kind of the entities held.
+	 * @param capacity the number of slots preallocated.
+	 */
+	public HandleTable(EntityHandle.Kind kind, int capacity) {
+		this.kind = kind;
+		entities = new EntityModel[capacity];
+		generations = new int[capacity];
+		free = new int[capacity];
+		for (int i = 0; i < capacity; i++)
+			generations[i] = 1;
+	}
+
+	/**
+	 * Adds an entity, setting its handle.
+	 *
+	 * @param entity the entity, which must not be in a table.
+	 * @return the handle of the entity.
+	 */
+	public int add(M entity) {
+		int slot;
+		if (freeCount > 0)
+			slot = free[--freeCount];
+		else {
+			if (used == entities.length)
+				grow();
+			slot = used++;
+		}
+		entities[slot] = entity;
+		size++;
+		int handle = EntityHandle.of(kind, slot, generations[slot]);
+		// Boxed here once, as the body of the entity keeps it as its user data.
+		entity.setHandle(Integer.valueOf(handle));
+		return handle;
+	}
+
+	/**
+	 * Doubles the number of slots.
+	 */
+	private void grow() {
+		int capacity = entities.length * 2;
+		if (capacity > EntityHandle.MAX_SLOTS)
+			throw new IllegalStateException("Too many entities of kind " + kind);
+
+		EntityModel[] oldEntities = entities;
+		int[] oldGenerations = generations;
+		entities = new EntityModel[capacity];
+		generations = new int[capacity];
+		free = new int[capacity];
+		System.arraycopy(oldEntities, 0, entities, 0, oldEntities.length);
+		System.arraycopy(oldGenerations, 0, generations, 0, oldGenerations.length);
+		for (int i = oldGenerations.length; i < capacity; i++)
+			generations[i] = 1;
+	}
+
+	/**
+	 * Returns the entity a handle identifies.
+	 *
+	 * @param handle the handle.
+	 * @return the entity, null if the handle isn't of this table or its entity was removed.
+	 */
+	@SuppressWarnings("unchecked")
+	public M get(int handle) {
+		if (!contains(handle))
+			return null;
+		return (M) entities[EntityHandle.slotOf(handle)];
+	}
+
+	/**
+	 * @param handle the handle.
+	 * @return whether the handle identifies an entity of this table.
+	 */
+	public boolean contains(int handle) {
+		int slot = EntityHandle.slotOf(handle);
+		return EntityHandle.is(handle, kind) && slot < used && generations[slot] == EntityHandle.generationOf(handle)
+				&& entities[slot] != null;
+	}
+
+	/**
+	 * Removes the entity a handle identifies, making the handle stale and resetting the entity's handle.
+	 *
+	 * @param handle the handle.
+	 * @return the entity removed, null if the handle doesn't identify an entity of this table.
+	 */
+	public M remove(int handle) {
+		M entity = get(handle);
+		if (entity == null)
+			return null;
+		free(EntityHandle.slotOf(handle));
+		return entity;
+	}
+
+	private void free(int slot) {
+		entities[slot].setHandle(null);
+		entities[slot] = null;
+		generations[slot] = EntityHandle.nextGeneration(generations[slot]);
+		free[freeCount++] = slot;
+		size--;
+	}
+
+	/**
+	 * @return the number of entities in the table.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes every entity. The slots are given out again from the first, with new generations.
+	 */
+	public void clear() {
+		for (int slot = 0; slot < used; slot++)
+			if (entities[slot] != null)
+				free(slot);
+		freeCount = 0;
+		for (int slot = used - 1; slot >= 0; slot--)
+			free[freeCount++] = slot;
+	}
+}
@@ -0,0 +1,86 @@
+package com.batataproductions.game.model;
+
+/**
+ * A seeded stream of random numbers (SplitMix64).
+ *
+ * Unlike Math.random() it takes no lock and unlike java.util.Random it has no atomic state,
+ * so many simulations can draw from their own streams at once. Its whole state is a single long,
+ * so drawing never allocates and the same seed always gives the same numbers.
+ */
+public class RandomStream {
+
+	/**
+	 * Increment of the state for every number drawn.
+	 */
+	private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+	private long state;
+
+	/**
+	 * Creates a stream.
+	 *
+	 * @param seed the seed of the stream.
+	 */
+	public RandomStream(long seed) {
+		state = seed;
+	}
+
+	/**
+	 * Restarts the stream.
+	 *
+	 * @param seed the seed of the stream.
+	 */
+	public void setSeed(long seed) {
+		state = seed;
+	}
+
+	/**
+	 * @return a random long.
+	 */
+	public long nextLong() {
+		return mix(state += GAMMA);
+	}
+
+	/**
+	 * @param bound the number of values, must be positive.
+	 * @return a random int between 0 (inclusive) and bound (exclusive).
+	 */
+	public int nextInt(int bound) {
+		return (int) (((nextLong() >>> 32) * bound) >>> 32);
+	}
+
+	/**
+	 * @return a random float between 0 (inclusive) and 1 (exclusive).
+	 */
+	public float nextFloat() {
+		return (nextLong() >>> 40) * 0x1.0p-24f;
+	}
+
+	/**
+	 * @param min the smallest value.
+	 * @param max the largest value, exclusive.
+	 * @return a random float between min (inclusive) and max (exclusive).
+	 */
+	public float nextFloat(float min, float max) {
+		return min + nextFloat() * (max - min);
+	}
+
+	/**
+	 * @return a random boolean.
+	 */
+	public boolean nextBoolean() {
+		return nextLong() < 0;
+	}
+
+	/**
+	 * Scrambles the bits of a long, so close inputs give unrelated outputs.
+	 *
+	 * @param z the long.
+	 * @return the scrambled long.
+	 */
+	static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,66 @@
+package com.batataproductions.game.model;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * A pool that counts how well it is reused: how many of the objects obtained came from the pool
+ * instead of being created, and the most objects ever in use at once.
+ *
+ * @param <T> the type of object pooled.
+ */
+public abstract class TrackedPool<T> extends Pool<T> {
+
+	/**
+	 * Number of objects obtained, and how many of those were reused.
+	 */
+	private int obtained, hits;
+
+	/**
+	 * Number of objects obtained and not freed yet, and the most there ever were.
+	 */
+	private int inUse, highWaterMark;
+
+	@Override
+	public T obtain() {
+		obtained++;
+		if (getFree() > 0)
+			hits++;
+		if (++inUse > highWaterMark)
+			highWaterMark = inUse;
+		return super.obtain();
+	}
+
+	@Override
+	public void free(T object) {
+		inUse--;
+		super.free(object);
+	}
+
+	/**
+	 * @return the number of objects obtained.
+	 */
+	public int getObtained() {
+		return obtained;
+	}
+
+	/**
+	 * @return the fraction of the objects obtained that were reused instead of created, 0 if none were obtained.
+	 */
+	public float getHitRate() {
+		return obtained == 0 ? 0 : (float) hits / obtained;
+	}
+
+	/**
+	 * @return the number of objects obtained and not freed yet.
+	 */
+	public int getInUse() {
+		return inUse;
+	}
+
+	/**
+	 * @return the most objects ever in use at once.
+	 */
+	public int getHighWaterMark() {
+		return highWaterMark;
+	}
+}
@@ -4,12 +4,7 @@ import com.badlogic.gdx.utils.Pool;
 
 public class BloodSpillModel extends EntityModel implements Pool.Poolable {
 
-	/**
-	 * Time since the spill has started.
-	 */
-	private float timeSinceSpill;
-
-	/** Time a blood a spill will stay in the floor (in seconds).*/
+	/** Time a blood a spill will stay in the floor, fading out (in seconds).*/
 	public final static float SPILL_TIME = 10.0f;
 
 	/** Zombie type that is leaking blood */
@@ -23,14 +18,12 @@ public class BloodSpillModel extends EntityModel implements Pool.Poolable {
 	 */
 	public BloodSpillModel(float x, float y, ZombieModel.Sizes type) {
 		super(x, y, 0);
-		timeSinceSpill = 0;
 		zombieType = type;
 	}
 
 	@Override
 	public void reset() {
 		setFlaggedForRemoval(false);
-		timeSinceSpill = 0;
 	}
 
 	@Override
@@ -38,24 +31,6 @@ public class BloodSpillModel extends EntityModel implements Pool.Poolable {
 		return ModelType.BLOOD_SPILL;
 	}
 
-	/**
-	 * Returns the time since the blood has been spilled in seconds.
-	 * @return time since the spill has started.
-	 */
-	public float getTimeSinceSpill() {
-		return timeSinceSpill;
-	}
-
-	/**
-	 * Updates the spill time given the time variation.
-	 * @param dt delta time since last frame update
-	 */
-	public void updateSpillTime(float dt) {
-		timeSinceSpill += dt;
-		if(timeSinceSpill > SPILL_TIME)
-			this.setFlaggedForRemoval(true);
-	}
-
 	/**
 	 * Changes the size of the spill based on the zombie size.
 	 * @param size the size of the zombie that is leaking blood.
@@ -81,9 +81,18 @@ public class BulletModel extends EntityModel implements Pool.Poolable {
      * @return damage this bullet can give
      */
     public float getDamageToGive(){
-        if (this.gun == PlayerModel.Weapons.PISTOL)
+        return getDamage(gun);
+    }
+
+    /**
+     * Returns the damage a shot of a gun gives.
+     * @param gun the gun shooting
+     * @return damage a shot of the gun gives
+     */
+    public static float getDamage(PlayerModel.Weapons gun){
+        if (gun == PlayerModel.Weapons.PISTOL)
             return DEFAULT_DAMAGE_PISTOL_BULLET;
-        if (this.gun == PlayerModel.Weapons.RIFLE)
+        if (gun == PlayerModel.Weapons.RIFLE)
             return DEFAULT_DAMAGE_RIFLE_BULLET;
         return 0f;
     }
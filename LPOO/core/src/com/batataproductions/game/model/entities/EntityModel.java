@@ -2,7 +2,8 @@ package com.batataproductions.game.model.entities;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.math.Vector2;
-import com.batataproductions.game.model.GameModel;
+import com.badlogic.gdx.utils.IntArray;
+import com.batataproductions.game.model.EntityHandle;
 
 /**
  * An abstract model representing an entity belonging to a game model.
@@ -35,14 +36,34 @@ public abstract class EntityModel {
 	 */
 	private boolean flaggedForRemoval = false;
 
+	/**
+	 * Handles of the entities flagged for removal in the game model holding this model, null if it isn't in one.
+	 */
+	private IntArray flaggedHandles;
+
+	/**
+	 * Index of this model in the game model list holding it, -1 if it isn't in one.
+	 */
+	private int modelIndex = -1;
+
+	/**
+	 * The handle of this model in its game model, EntityHandle.NONE if it isn't in one.
+	 */
+	private int handle = EntityHandle.NONE;
+
+	/**
+	 * The same handle, boxed once when it was given, null if this model isn't in a game model.
+	 */
+	private Integer boxedHandle;
+
 	/** Time in ms a boddy will be knocked-back from his position. */
 	final static float KNOCKBACK_MAX_TIME = 0.090f;
 
 	/** Current knockback of the boddy. */
 	private int current_knockBack;
 
-	/** Current knockback direction. */
-	private Vector2 knockback_direction;
+	/** Current knockback direction. Owned by this model and also used as the returned knockback vector. */
+	private final Vector2 knockback_direction = new Vector2();
 
 	/** Knockback timer -> starts at 0 and ends at KNOCKBACK_TIME */
 	private float current_knockBack_timer;
@@ -61,7 +82,6 @@ public abstract class EntityModel {
 
 		current_knockBack = 0;
 		current_knockBack_timer = 0f;
-		knockback_direction = null;
 	}
 	/**
 	 * Returns the x-coordinate of this entity.
@@ -104,12 +124,12 @@ public abstract class EntityModel {
 	/**
 	 * Sets the new knockback for this body.
 	 * @param knockBack A int which represents the new knockback.
-	 * @param direction Knockback direction.
+	 * @param direction Knockback direction. Its value is copied so the caller may reuse the vector.
 	 */
 	public void setKnockBack(int knockBack, Vector2 direction)
 	{
 		current_knockBack = knockBack;
-		knockback_direction = direction;
+		knockback_direction.set(direction);
 		current_knockBack_timer = 0;
 	}
 
@@ -120,11 +140,8 @@ public abstract class EntityModel {
 	 */
 	public Vector2 get_knockBack_vector(float dt)
 	{
-		if(GameModel.getInstance().getSelfPlayer().isDead())
-			return null;
-
 		// Check if the body is being knocked-back.
-		if(current_knockBack == 0 || knockback_direction == null)
+		if(current_knockBack == 0)
 			return null;
 
 		current_knockBack_timer += dt;
@@ -140,9 +157,7 @@ public abstract class EntityModel {
 
 		//Gdx.app.log("knockBack_value", "" + knockBack_value);
 
-		Vector2 knock_back_vector = knockback_direction.scl(knockBack_value);
-
-		return knock_back_vector;
+		return knockback_direction.scl(knockBack_value);
 	}
 
 
@@ -155,6 +170,23 @@ public abstract class EntityModel {
 		this.rotation = rotation;
 	}
 
+	/**
+	 * Ends the knockback in progress, if any.
+	 */
+	void stopKnockBack() {
+		current_knockBack = 0;
+		current_knockBack_timer = 0;
+	}
+
+	/**
+	 * Is this entity currently being knocked back?
+	 *
+	 * @return true if a knockback is in progress.
+	 */
+	public boolean isKnockedBack() {
+		return current_knockBack != 0;
+	}
+
 	/**
 	 * Returns if this entity has been flagged for removal
 	 *
@@ -165,12 +197,72 @@ public abstract class EntityModel {
 	}
 
 	/**
-	 * Makes this model flagged for removal on next step
+	 * Makes this model flagged for removal on next step. A model in a game model is listed there by its handle
+	 * when flagged, so the controller only looks at the flagged entities.
 	 */
 	public void setFlaggedForRemoval(boolean flaggedForRemoval) {
+		if (flaggedForRemoval && !this.flaggedForRemoval && flaggedHandles != null && handle != EntityHandle.NONE)
+			flaggedHandles.add(handle);
 		this.flaggedForRemoval = flaggedForRemoval;
 	}
 
+	/**
+	 * Sets the list of the game model holding this model to which its handle is added when flagged for removal.
+	 * Only the game model should call this.
+	 *
+	 * @param flaggedHandles the list.
+	 */
+	public void setFlaggedHandles(IntArray flaggedHandles) {
+		this.flaggedHandles = flaggedHandles;
+	}
+
+	/**
+	 * Returns the index of this model in the game model list holding it.
+	 *
+	 * @return the index, or -1 if the model isn't in the game model.
+	 */
+	public int getModelIndex() {
+		return modelIndex;
+	}
+
+	/**
+	 * Sets the index of this model in the game model list holding it. Only the game model should call this.
+	 *
+	 * @param modelIndex the index, or -1 if the model was removed.
+	 */
+	public void setModelIndex(int modelIndex) {
+		this.modelIndex = modelIndex;
+	}
+
+	/**
+	 * Returns the handle identifying this model in its game model, which is also the user data of its body.
+	 *
+	 * @return the handle, or EntityHandle.NONE if the model isn't in the game model.
+	 */
+	public int getHandle() {
+		return handle;
+	}
+
+	/**
+	 * Returns the handle identifying this model boxed, to be set as the user data of its body without
+	 * boxing it again every time.
+	 *
+	 * @return the handle, or null if the model isn't in the game model.
+	 */
+	public Integer getBoxedHandle() {
+		return boxedHandle;
+	}
+
+	/**
+	 * Sets the handle identifying this model in its game model. Only the handle tables should call this.
+	 *
+	 * @param handle the handle, boxed once, or null if the model was removed.
+	 */
+	public void setHandle(Integer handle) {
+		this.handle = handle == null ? EntityHandle.NONE : handle;
+		this.boxedHandle = handle;
+	}
+
 	/**
 	 * @return Entity type this model represents.
 	 */
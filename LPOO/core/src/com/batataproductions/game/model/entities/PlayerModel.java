@@ -1,6 +1,5 @@
 package com.batataproductions.game.model.entities;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
@@ -367,42 +366,52 @@ public class PlayerModel extends EntityModel{
 	}
 
 	public void doShotSound(){
-		if(Gdx.app == null)
-			return;
 		if(getCurrentWeapon() == Weapons.RIFLE)
-			rifleShotSound.play(DEFAULT_VOLUME);
+			play(rifleShotSound);
 		else if(getCurrentWeapon() == Weapons.PISTOL)
-			pistolShotSound.play(DEFAULT_VOLUME);
+			play(pistolShotSound);
 		else if(getCurrentWeapon() == Weapons.KNIFE)
-			knifeShotSound.play(DEFAULT_VOLUME);
+			play(knifeShotSound);
 
 	}
 
 	public void doReloadSound(){
 		if(getCurrentWeapon() == Weapons.RIFLE)
-			rifleReloadSound.play(DEFAULT_VOLUME);
+			play(rifleReloadSound);
 		else if(getCurrentWeapon() == Weapons.PISTOL)
-			pistolReloadSound.play(DEFAULT_VOLUME);
+			play(pistolReloadSound);
 
 	}
 
 	public void doDrawSound(){
 		if(getCurrentWeapon() == Weapons.RIFLE)
-			rifleDrawSound.play(DEFAULT_VOLUME);
+			play(rifleDrawSound);
 		else if(getCurrentWeapon() == Weapons.PISTOL)
-			pistolDrawSound.play(DEFAULT_VOLUME);
+			play(pistolDrawSound);
 		else if(getCurrentWeapon() == Weapons.KNIFE)
-			knifeDrawSound.play(DEFAULT_VOLUME);
+			play(knifeDrawSound);
+	}
+
+	/**
+	 * Plays a sound, if the sounds were loaded. They aren't when running headless.
+	 * @param sound the sound.
+	 */
+	private static void play(Sound sound){
+		if(sound != null)
+			sound.play(DEFAULT_VOLUME);
 	}
 
 	public void doFootstepSound() {
+		if(footstepSound == null) // Sounds aren't loaded when running headless.
+			return;
 		if(!walking && !isDead())
 			footstepSound.setPitch(footstepSound.loop(DEFAULT_VOLUME),1.75f);
 		walking = true;
 	}
 
 	public void stopFootstepSound() {
-		footstepSound.stop();
+		if(footstepSound != null)
+			footstepSound.stop();
 		walking = false;
 	}
 
@@ -6,15 +6,16 @@ import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.RayCastCallback;
+import com.badlogic.gdx.utils.Pool;
 import com.batataproductions.game.controller.GameController;
 import com.batataproductions.game.controller.entities.EntityBody;
 import com.batataproductions.game.model.GameModel;
+import com.batataproductions.game.model.GameRandom;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
-public class ZombieModel extends EntityModel {
+public class ZombieModel extends EntityModel implements Pool.Poolable {
 
     /**
      * States the Zombie may be in.
@@ -31,6 +32,11 @@ public class ZombieModel extends EntityModel {
      */
     private Sizes size;
 
+    /**
+     * The game this zombie belongs to, null if it belongs to none.
+     */
+    private final GameModel game;
+
     /**
      * State the zombie is currently in.
      */
@@ -113,21 +119,51 @@ public class ZombieModel extends EntityModel {
     private static final float DEFAULT_DAMAGE_MEDIUM_ZOMBIE = 20f;
 
 	/**
-	 * Ray cast.
+	 * Could this zombie see the player the last time its line of sight was checked?
+	 */
+	private boolean canSeePlayer;
+
+	/**
+	 * Tick the line of sight of this zombie was last checked on, -1 if it never was.
+	 */
+	private long lineOfSightTick = -1;
+
+	/**
+	 * Time since the AI of this zombie was last updated in seconds, -1 if it never was.
 	 */
-	ZombieRayCast zombieRayCast;
+	private float aiElapsed = -1;
 
     /**
-     * Constructs a zombie model belonging to a game model.
+     * Constructs a zombie model belonging to no game model, which makes no sounds.
      *
      * @param x The x-coordinate of this player.
      * @param y The y-coordinate of this player.
      * @param rotation The rotation of this player.
      */
     public ZombieModel(float x, float y, float rotation, Sizes size) {
+        this(null, x, y, rotation, size);
+    }
+
+    /**
+     * Constructs a zombie model belonging to a game model.
+     *
+     * @param game The game model, whose player the zombie makes sounds to.
+     * @param x The x-coordinate of this player.
+     * @param y The y-coordinate of this player.
+     * @param rotation The rotation of this player.
+     */
+    public ZombieModel(GameModel game, float x, float y, float rotation, Sizes size) {
         super(x, y, rotation);
-        currentState = ZombieModel.States.MOVE;
+        this.game = game;
         this.size = size;
+        initialize();
+    }
+
+    /**
+     * Sets the state, health and timers of a zombie that just spawned.
+     */
+    private void initialize() {
+        currentState = ZombieModel.States.MOVE;
 
         if (size == Sizes.BIG)
             this.health = DEFAULT_HEALTH_BIG_ZOMBIE;
@@ -138,7 +174,22 @@ public class ZombieModel extends EntityModel {
 
         this.timeToNextAttack = DEFAULT_TIME_TO_ATTACK;
         setNewTimerSound();
-		zombieRayCast = new ZombieRayCast();
+    }
+
+    /**
+     * Resets a zombie freed to its pool so it spawns again as a new zombie of the same size.
+     */
+    @Override
+    public void reset() {
+        this.setPosition(0,0);
+        this.setRotation(0);
+        this.setFlaggedForRemoval(false);
+        stopKnockBack();
+        stateTime = 0;
+        canSeePlayer = false;
+        lineOfSightTick = -1;
+        aiElapsed = -1;
+        initialize();
     }
 
     /**
@@ -172,7 +223,7 @@ public class ZombieModel extends EntityModel {
      */
     public void increaseStateTime(float deltatime)
     {
-        if(!GameModel.getInstance().getSelfPlayer().isDead()) {
+        if(game == null || !game.getSelfPlayer().isDead()) {
             this.stateTime += deltatime;
             if(timeLeftToNextSound <= 0)
             {
@@ -272,6 +323,55 @@ public class ZombieModel extends EntityModel {
         this.timeToNextAttack = DEFAULT_TIME_TO_ATTACK;
     }
 
+    /**
+     * Records the result of a line of sight check.
+     * @param canSeePlayer can this zombie see the player?
+     * @param tick the tick the check was made on.
+     */
+    public void setLineOfSight(boolean canSeePlayer, long tick) {
+        this.canSeePlayer = canSeePlayer;
+        this.lineOfSightTick = tick;
+    }
+
+    /**
+     * Returns the cached result of the last line of sight check. Zombies never checked can't see the player.
+     * @return true if the zombie could see the player.
+     */
+    public boolean canSeePlayer() {
+        return canSeePlayer;
+    }
+
+    /**
+     * Returns the tick the line of sight of this zombie was last checked on.
+     * @return the tick, or -1 if it was never checked.
+     */
+    public long getLineOfSightTick() {
+        return lineOfSightTick;
+    }
+
+    /**
+     * Returns the time since the AI of this zombie was last updated.
+     * @return the time in seconds, or -1 if it was never updated.
+     */
+    public float getAiElapsed() {
+        return aiElapsed;
+    }
+
+    /**
+     * Adds the duration of a tick to the time since the AI of this zombie was last updated.
+     * @param delta the duration of the tick in seconds.
+     */
+    public void addAiElapsed(float delta) {
+        aiElapsed = Math.max(aiElapsed, 0) + delta;
+    }
+
+    /**
+     * Marks the AI of this zombie as just updated.
+     */
+    public void resetAiElapsed() {
+        aiElapsed = 0;
+    }
+
     /**
      * this zombie dies!
      */
@@ -285,35 +385,17 @@ public class ZombieModel extends EntityModel {
      */
     private void setNewTimerSound()
     {
-        timeLeftToNextSound = (float) (Math.random() * (MAX_TIME_TO_NEXT_SOUND - MIN_TIME_TO_NEXT_SOUND) + MIN_TIME_TO_NEXT_SOUND);
+        if(game == null)
+            timeLeftToNextSound = MAX_TIME_TO_NEXT_SOUND;
+        else
+            timeLeftToNextSound = game.getRandom().get(GameRandom.Streams.AUDIO).nextFloat(MIN_TIME_TO_NEXT_SOUND, MAX_TIME_TO_NEXT_SOUND);
     }
 
 	/**
-	 * Calculates a new angle the zombie should follow.
+	 * Calculates a new angle the zombie should follow to reach a point.
 	 */
 	public void calculateNewAngle(float xPlayer, float yPlayer)
 	{
-		//debug player pos
-		//Gdx.app.log("player x", "" + GameModel.getInstance().getSelfPlayer().getX() / GameView.PIXEL_TO_METER / 128);
-		//Gdx.app.log("player y", "" + GameModel.getInstance().getSelfPlayer().getY() / GameView.PIXEL_TO_METER / 128);
-		/*
-		GameController.getInstance().getWorld().rayCast(zombieRayCast, this.getX(), this.getY(), xPlayer, yPlayer);
-		if(zombieRayCast.getNearestCollisionBodyType() == EntityBody.MAP_WALL)
-		{
-			double horizontalDistPZ = 15 - this.getX();
-			double verticalDistPZ = 15 - this.getY();
-			double zombieNewAngle = Math.atan2(verticalDistPZ , horizontalDistPZ);
-			this.setRotation( (float) zombieNewAngle);
-		}
-		else if (zombieRayCast.getNearestCollisionBodyType() == EntityBody.PLAYER_BODY)
-		{
-			Gdx.app.log("found player", "");
-			double horizontalDistPZ = xPlayer - this.getX();
-			double verticalDistPZ = yPlayer - this.getY();
-			double zombieNewAngle = Math.atan2(verticalDistPZ , horizontalDistPZ);
-			this.setRotation( (float) zombieNewAngle);
-		}
-		*/
 		double horizontalDistPZ = xPlayer - this.getX();
 		double verticalDistPZ = yPlayer - this.getY();
 		double zombieNewAngle = Math.atan2(verticalDistPZ , horizontalDistPZ);
@@ -322,10 +404,12 @@ public class ZombieModel extends EntityModel {
 
     private void playRandomSound()
 	{
-		int rnd = new Random().nextInt(ZOMBIE_SOUNDS.size());
+		if(ZOMBIE_SOUNDS == null || game == null) // Sounds aren't loaded when running headless.
+			return;
+		int rnd = game.getRandom().get(GameRandom.Streams.AUDIO).nextInt(ZOMBIE_SOUNDS.size());
 		Sound randomSound = ZOMBIE_SOUNDS.get(rnd);
 		// Calculate pan.
-		float player_x = GameModel.getInstance().getSelfPlayer().getX();
+		float player_x = game.getSelfPlayer().getX();
 		float zombie_x = this.getX();
 		float pan;
 
@@ -377,14 +461,18 @@ public class ZombieModel extends EntityModel {
     }
 
 
-    public class ZombieRayCast implements RayCastCallback {
+    /**
+     * Finds the nearest fixture blocking a ray, ignoring sensors, zombies and bullets.
+     */
+    public static class ZombieRayCast implements RayCastCallback {
 
 		private short body_type = EntityBody.PLAYER_BODY;
 		Vector2 collPoint = new Vector2(0 ,0);
 
 		@Override
 		public float reportRayFixture(Fixture fixture, Vector2 point, Vector2 normal, float fraction) {
-    		if(fixture.getBody().getUserData() instanceof ZombieModel || fixture.getBody().getUserData() instanceof BulletModel)
+    		short category = fixture.getFilterData().categoryBits;
+    		if(fixture.isSensor() || category == EntityBody.ZOMBIE_BODY || category == EntityBody.BULLET_BODY)
 			{
 				return -1;
 			}
@@ -396,6 +484,14 @@ public class ZombieModel extends EntityModel {
 			}
 		}
 
+		/**
+		 * Prepares the callback for a new ray. Rays that hit nothing report a player body.
+		 */
+		public void reset()
+		{
+			body_type = EntityBody.PLAYER_BODY;
+		}
+
 		public short getNearestCollisionBodyType()
 		{
 			return body_type;
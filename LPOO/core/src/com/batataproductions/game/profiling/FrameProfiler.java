@@ -0,0 +1,257 @@
+package com.batataproductions.game.profiling;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Times the phases of every frame the game renders, so a slow frame can be told apart by what made it slow.
+ *
+ * The phases are timed between begin() and end() and must not overlap. A phase may run several times in a
+ * frame, as the simulation phases do when the loop runs more than a tick, and its times add up. The time of
+ * the frame not spent in any phase is counted as OTHER. Every phase keeps its last frames and a histogram
+ * of all of them, see RingHistogram.
+ *
+ * Drawing phases only time the batching of the sprites; the batch may draw them on a later phase.
+ */
+public class FrameProfiler {
+
+	/**
+	 * The phases of a frame, in the order they run. AI_UPDATE updates the timers and the entities,
+	 * the zombies' AI included, CONTACTS resolves the contacts of the world step and HANDLE_ROUNDS spawns.
+	 * BLOOD_DECALS stamps the new blood spills into the decals and BLOOD_SPILLS draws the decals.
+	 */
+	public enum Phase {
+		INPUT, REMOVE_FLAGGED, WORLD_STEP, CONTACTS, AI_UPDATE, HANDLE_ROUNDS, HUD_UPDATE, MAP,
+		BLOOD_DECALS, BLOOD_SPILLS, PLAYERS, ZOMBIES, BULLETS, TRACERS, OVERLAYS, HUD_DRAW, OTHER
+	}
+
+	/**
+	 * Told when every phase begins and ends, whether the profiler is enabled or not, to report the phases elsewhere.
+	 * Called on the thread running the phases, so it must be quick.
+	 */
+	public interface PhaseListener {
+
+		/**
+		 * @param phase the phase beginning.
+		 */
+		void phaseBegan(Phase phase);
+
+		/**
+		 * @param phase the phase that ended.
+		 */
+		void phaseEnded(Phase phase);
+	}
+
+	/**
+	 * Number of last frames kept.
+	 */
+	public static final int DEFAULT_FRAMES = 300;
+
+	private static final Phase[] PHASES = Phase.values();
+
+	/**
+	 * The singleton instance of the profiler.
+	 */
+	private static FrameProfiler instance;
+
+	/**
+	 * Whether the phases are timed.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Told of every phase, null if there is none.
+	 */
+	private PhaseListener listener;
+
+	/**
+	 * Time each phase took in the current frame, and when the phases running started, in nanoseconds.
+	 */
+	private final long[] phaseNanos = new long[PHASES.length];
+	private final long[] phaseStart = new long[PHASES.length];
+
+	/**
+	 * When the current frame started, 0 if no frame is being timed.
+	 */
+	private long frameStart;
+
+	/**
+	 * The times of every phase and of the whole frames.
+	 */
+	private final RingHistogram[] phases = new RingHistogram[PHASES.length];
+	private final RingHistogram frames;
+
+	/**
+	 * Creates a profiler keeping a number of frames.
+	 *
+	 * @param capacity the number of last frames kept.
+	 */
+	public FrameProfiler(int capacity) {
+		for (int p = 0; p < phases.length; p++)
+			phases[p] = new RingHistogram(capacity);
+		frames = new RingHistogram(capacity);
+	}
+
+	/**
+	 * Returns a singleton instance of the profiler.
+	 *
+	 * @return the singleton instance
+	 */
+	public static FrameProfiler getInstance() {
+		if (instance == null)
+			instance = new FrameProfiler(DEFAULT_FRAMES);
+		return instance;
+	}
+
+	/**
+	 * Sets whether the phases are timed. A frame being timed is dropped.
+	 *
+	 * @param enabled true to time the phases.
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		frameStart = 0;
+	}
+
+	/**
+	 * @return whether the phases are timed.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets the listener told of every phase.
+	 *
+	 * @param listener the listener, or null for none.
+	 */
+	public void setListener(PhaseListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Starts timing a frame.
+	 */
+	public void beginFrame() {
+		if (!enabled)
+			return;
+		for (int p = 0; p < phaseNanos.length; p++)
+			phaseNanos[p] = 0;
+		frameStart = System.nanoTime();
+	}
+
+	/**
+	 * Finishes timing a frame and records the time of its phases.
+	 */
+	public void endFrame() {
+		if (!enabled || frameStart == 0)
+			return;
+		long total = System.nanoTime() - frameStart;
+		long timed = 0;
+		for (int p = 0; p < phaseNanos.length; p++)
+			timed += phaseNanos[p];
+		phaseNanos[Phase.OTHER.ordinal()] += Math.max(0, total - timed);
+
+		for (int p = 0; p < phases.length; p++)
+			phases[p].add(phaseNanos[p]);
+		frames.add(total);
+		frameStart = 0;
+	}
+
+	/**
+	 * Starts timing a phase. Phases timed outside of a frame are discarded when the next frame begins.
+	 *
+	 * @param phase the phase.
+	 */
+	public void begin(Phase phase) {
+		if (listener != null)
+			listener.phaseBegan(phase);
+		if (enabled)
+			phaseStart[phase.ordinal()] = System.nanoTime();
+	}
+
+	/**
+	 * Finishes timing a phase.
+	 *
+	 * @param phase the phase, which must have begun.
+	 */
+	public void end(Phase phase) {
+		if (enabled)
+			phaseNanos[phase.ordinal()] += System.nanoTime() - phaseStart[phase.ordinal()];
+		if (listener != null)
+			listener.phaseEnded(phase);
+	}
+
+	/**
+	 * @param phase the phase.
+	 * @return the times of the phase on the last frames.
+	 */
+	public RingHistogram getPhase(Phase phase) {
+		return phases[phase.ordinal()];
+	}
+
+	/**
+	 * @return the times of the last frames.
+	 */
+	public RingHistogram getFrames() {
+		return frames;
+	}
+
+	/**
+	 * Forgets every frame.
+	 */
+	public void reset() {
+		for (int p = 0; p < phases.length; p++)
+			phases[p].clear();
+		frames.clear();
+		frameStart = 0;
+	}
+
+	/**
+	 * Writes the last frames as CSV, oldest first: a line per frame with the time of every phase
+	 * and of the whole frame in microseconds.
+	 *
+	 * @param writer where the CSV is written to.
+	 * @throws IOException if the writer fails.
+	 */
+	public void writeCsv(Writer writer) throws IOException {
+		writer.write("frame");
+		for (Phase phase : PHASES)
+			writer.write("," + phase.name().toLowerCase(Locale.ROOT));
+		writer.write(",total\n");
+
+		int size = frames.size();
+		long first = frames.getCount() - size;
+		for (int age = size - 1; age >= 0; age--) {
+			writer.write(Long.toString(first + size - 1 - age));
+			for (int p = 0; p < phases.length; p++)
+				writer.write("," + phases[p].get(age) / 1000);
+			writer.write("," + frames.get(age) / 1000 + "\n");
+		}
+	}
+
+	/**
+	 * Writes the percentiles of every phase and of the whole frames since the profiler was reset as JSON,
+	 * in milliseconds.
+	 *
+	 * @param writer where the JSON is written to.
+	 * @throws IOException if the writer fails.
+	 */
+	public void writeJson(Writer writer) throws IOException {
+		writer.write("{\"frames\":" + frames.getCount() + ",\"phases\":{");
+		for (int p = 0; p < phases.length; p++) {
+			if (p > 0)
+				writer.write(',');
+			writeJson(writer, PHASES[p].name().toLowerCase(Locale.ROOT), phases[p]);
+		}
+		writer.write("},");
+		writeJson(writer, "total", frames);
+		writer.write("}\n");
+	}
+
+	private static void writeJson(Writer writer, String name, RingHistogram histogram) throws IOException {
+		writer.write(String.format(Locale.ROOT, "\"%s\":{\"p50\":%.3f,\"p90\":%.3f,\"p99\":%.3f,\"max\":%.3f}", name,
+				histogram.percentile(0.5) / 1e6, histogram.percentile(0.9) / 1e6, histogram.percentile(0.99) / 1e6, histogram.getMax() / 1e6));
+	}
+}
@@ -0,0 +1,157 @@
+package com.batataproductions.game.profiling;
+
+/**
+ * Keeps the last values of a timing in a ring buffer and all of them in a histogram of fixed size,
+ * so recording never allocates however long the game runs.
+ *
+ * The histogram buckets are log-linear in microseconds: every power of two is split in SUB_BUCKETS
+ * buckets, so a percentile is off by at most a quarter of its value.
+ */
+public class RingHistogram {
+
+	/**
+	 * Buckets each power of two is split in.
+	 */
+	public static final int SUB_BUCKETS = 4;
+
+	/**
+	 * Number of buckets. The last one holds every value from about 33 seconds up.
+	 */
+	public static final int BUCKETS = 24 * SUB_BUCKETS;
+
+	/**
+	 * The last values, in nanoseconds.
+	 */
+	private final long[] ring;
+
+	/**
+	 * Index the next value is stored at, and how many values the ring holds.
+	 */
+	private int next, size;
+
+	/**
+	 * Number of values in every bucket.
+	 */
+	private final long[] buckets = new long[BUCKETS];
+
+	/**
+	 * Number of values recorded and the largest of them.
+	 */
+	private long count, max;
+
+	/**
+	 * Creates an empty histogram.
+	 *
+	 * @param capacity the number of last values kept.
+	 */
+	public RingHistogram(int capacity) {
+		ring = new long[capacity];
+	}
+
+	/**
+	 * Records a value.
+	 *
+	 * @param nanos the value in nanoseconds.
+	 */
+	public void add(long nanos) {
+		ring[next] = nanos;
+		next = (next + 1) % ring.length;
+		if (size < ring.length)
+			size++;
+
+		buckets[bucketOf(nanos / 1000)]++;
+		count++;
+		if (nanos > max)
+			max = nanos;
+	}
+
+	/**
+	 * @return the number of last values kept.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of last values that may be kept.
+	 */
+	public int capacity() {
+		return ring.length;
+	}
+
+	/**
+	 * Returns one of the last values.
+	 *
+	 * @param age 0 for the last value, 1 for the one before it, up to size() - 1.
+	 * @return the value in nanoseconds.
+	 */
+	public long get(int age) {
+		if (age < 0 || age >= size)
+			throw new IndexOutOfBoundsException("age " + age + " of " + size);
+		return ring[(next - 1 - age + ring.length) % ring.length];
+	}
+
+	/**
+	 * @return the number of values recorded since the histogram was cleared.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the largest value recorded in nanoseconds, 0 if none was.
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * Returns a percentile of every value recorded, rounded up to the end of its bucket.
+	 *
+	 * @param fraction the percentile, between 0 and 1.
+	 * @return the value in nanoseconds, 0 if none was recorded.
+	 */
+	public long percentile(double fraction) {
+		if (count == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(fraction * count));
+		long seen = 0;
+		for (int b = 0; b < BUCKETS; b++) {
+			seen += buckets[b];
+			if (seen >= rank)
+				return Math.min(bucketEnd(b) * 1000, max);
+		}
+		return max;
+	}
+
+	/**
+	 * Forgets every value.
+	 */
+	public void clear() {
+		next = size = 0;
+		count = max = 0;
+		for (int b = 0; b < BUCKETS; b++)
+			buckets[b] = 0;
+	}
+
+	/**
+	 * Returns the bucket of a value.
+	 */
+	static int bucketOf(long micros) {
+		if (micros < SUB_BUCKETS)
+			return (int) Math.max(micros, 0);
+		int highestBit = 63 - Long.numberOfLeadingZeros(micros);
+		int sub = (int) (micros >>> (highestBit - 2)) & (SUB_BUCKETS - 1);
+		return Math.min((highestBit - 1) * SUB_BUCKETS + sub, BUCKETS - 1);
+	}
+
+	/**
+	 * Returns the first value in microseconds past a bucket.
+	 */
+	static long bucketEnd(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket + 1;
+		int shift = bucket / SUB_BUCKETS - 1;
+		return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << shift;
+	}
+}
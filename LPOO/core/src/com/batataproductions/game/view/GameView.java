@@ -6,38 +6,41 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.maps.MapObject;
-import com.badlogic.gdx.maps.objects.RectangleMapObject;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
 import com.badlogic.gdx.maps.tiled.renderers.OrthoCachedTiledMapRenderer;
 import com.badlogic.gdx.math.Matrix4;
-import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
-import com.badlogic.gdx.physics.box2d.FixtureDef;
-import com.badlogic.gdx.physics.box2d.PolygonShape;
 import com.batataproductions.game.DeathmatchMania;
 import com.batataproductions.game.controller.GameController;
-import com.batataproductions.game.controller.entities.EntityBody;
+import com.batataproductions.game.controller.Match;
+import com.batataproductions.game.controller.SimulationLoop;
+import com.batataproductions.game.controller.TickInput;
+import com.batataproductions.game.controller.replay.ReplayWriter;
 import com.batataproductions.game.controller.topscores.TopScores;
 import com.batataproductions.game.model.GameModel;
 import com.batataproductions.game.model.entities.BloodSpillModel;
 import com.batataproductions.game.model.entities.BulletModel;
 import com.batataproductions.game.model.entities.PlayerModel;
 import com.batataproductions.game.model.entities.ZombieModel;
+import com.batataproductions.game.profiling.FrameProfiler;
 import com.batataproductions.game.view.Overlays.ChooseDifficulty;
 import com.batataproductions.game.view.Overlays.ClickAnywhere;
 import com.batataproductions.game.view.Overlays.GameOver;
 import com.batataproductions.game.view.Overlays.Overlay;
 import com.batataproductions.game.view.Overlays.RoundTransition;
+import com.batataproductions.game.view.entities.BloodDecals;
 import com.batataproductions.game.view.entities.EntityView;
+import com.batataproductions.game.view.entities.TracerView;
 import com.batataproductions.game.view.entities.ViewFactory;
 import com.batataproductions.game.view.hud.Hud;
+import com.batataproductions.game.view.hud.ProfilerOverlay;
 
 import java.awt.Color;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 import javax.swing.plaf.nimbus.State;
@@ -61,10 +64,22 @@ public class GameView extends ScreenAdapter {
 	 */
 	private final DeathmatchMania game;
 
+	/**
+	 * The match shown: its model and the controller simulating it.
+	 */
+	private final Match match = Match.getDefault();
+	private final GameModel model = match.getModel();
+	private final GameController controller = match.getController();
+
+	/**
+	 * The top scores the player's scores are sent to.
+	 */
+	private final TopScores topScores;
+
 	/**
 	 * The game's Hud which has information for the user.
 	 */
-	private static Hud hud;
+	private final Hud hud;
 
 	/**
 	 * The camera used to show the viewport.
@@ -128,13 +143,47 @@ public class GameView extends ScreenAdapter {
 	public static final float OVERLAY_FADEOUT_TIME = 1.5f;
 	public static final float TIME_BETWEEN_OVERLAYS = 0.6f;
 
+	/**
+	 * Runs the game logic at a fixed tick rate, decoupled from the rendering.
+	 */
+	private final SimulationLoop simulation;
+
+	/**
+	 * Crosshair position, reused every frame to unproject the cursor.
+	 */
+	private final Vector3 aimTarget = new Vector3();
+
+	/**
+	 * Draws the tracers of hitscan shots, and the number of hitscan shots already shown.
+	 */
+	private final TracerView tracers;
+	private int hitscanShotsShown;
+
+	/**
+	 * Draws the blood spills, baked into textures laid over the map.
+	 */
+	private final BloodDecals bloodDecals;
+
+	/**
+	 * Records the game being played, null if the game doesn't record replays.
+	 */
+	private ReplayWriter recorder;
+
+	/**
+	 * Times the phases of every frame, and shows them when toggled with F3 or a three finger tap.
+	 */
+	private final FrameProfiler profiler = match.getProfiler();
+	private final ProfilerOverlay profilerOverlay = new ProfilerOverlay(profiler);
+
 	/**
 	 * Creates this screen.
 	 *
 	 * @param game The game this screen belongs to
+	 * @param topScores The top scores the player's scores are sent to
 	 */
-	public GameView(DeathmatchMania game) {
+	public GameView(DeathmatchMania game, TopScores topScores) {
 		this.game = game;
+		this.topScores = topScores;
 		currentState = States.CLICK_TO_PLAY;
 		currentHue = 0;
 
@@ -142,7 +191,7 @@ public class GameView extends ScreenAdapter {
 
 		camera = createCamera();
 
-		hud = new Hud(game.getBatch(), game.WIDTH, game.HEIGHT, game);
+		hud = new Hud(game.getBatch(), game.WIDTH, game.HEIGHT, game, match);
 		hud.setTime(1.03f);
 
 		mapLoader = new TmxMapLoader();
@@ -150,50 +199,20 @@ public class GameView extends ScreenAdapter {
 		renderer = new OrthoCachedTiledMapRenderer(tiledMap);
 		camera.position.set(new Vector2(0,0),0);
 
-						/* POR ISTO NUMA CLASS MAP ou algo do genero*/
-
-		// Create GameController and GameModel singleton instances. We'll do it this way since the order they are initialized might be important.
-		GameModel.getInstance();
-		GameController.getInstance();
-		GameModel.getInstance().setAssetManager(game.getAssetManager());
+		model.setAssetManager(game.getAssetManager());
+		simulation = match.getLoop();
 
-		//create body and fixture variables
-		BodyDef bdef = new BodyDef();
-		PolygonShape shape = new PolygonShape();
-		FixtureDef fdef = new FixtureDef();
-		Body body;
-
-		// limitas do mapa
-		for(MapObject object : tiledMap.getLayers().get(1).getObjects().getByType(RectangleMapObject.class)){
-			Rectangle rect = ((RectangleMapObject) object).getRectangle();
-
-			bdef.type = BodyDef.BodyType.StaticBody;
-			bdef.position.set((rect.getX() + rect.getWidth() / 2) * PIXEL_TO_METER, (rect.getY() + rect.getHeight() / 2 ) * PIXEL_TO_METER);
-
-			body = GameController.getInstance().getWorld().createBody(bdef);
-
-			shape.setAsBox((rect.getWidth() / 2) * PIXEL_TO_METER, (rect.getHeight() / 2) * PIXEL_TO_METER);
-			fdef.shape = shape;
-			fdef.filter.categoryBits = EntityBody.MAP_WALL;
-			fdef.filter.maskBits = ~0;
-			body.createFixture(fdef);
-		}
-
-		/////////// Debug
-		//bdef.type = BodyDef.BodyType.StaticBody;
-		//bdef.position.set(85, 120);
-		//body = GameController.getInstance().getWorld().createBody(bdef);
-		//shape.setAsBox(10, 10);
-		//body.createFixture(fdef);
-		///////////
-
-		//GameMap.getInstance().load(tiledMap);
+		// Create the map walls and let the zombies find their way around them.
+		controller.loadMap(tiledMap);
 
 		// Initialize overlays.
 		clickAnywhereOverlay = new ClickAnywhere(game);
 		chooseDifficultyOverlay = new ChooseDifficulty(game);
-		gameOverOverlay = new GameOver(game);
+		gameOverOverlay = new GameOver(game, topScores);
 		roundTransitionOverlay = new RoundTransition(game);
+
+		tracers = new TracerView(game);
+		bloodDecals = new BloodDecals(game, BloodSpillModel.SPILL_TIME);
 	}
 
 	/**
@@ -224,59 +243,86 @@ public class GameView extends ScreenAdapter {
 	 */
 	@Override
 	public void render(float delta) {
-		GameController.getInstance().removeFlagged();
-
+		profiler.beginFrame();
+		profiler.begin(FrameProfiler.Phase.INPUT);
 		handleInputs(delta);
+		profiler.end(FrameProfiler.Phase.INPUT);
 
+		simulation.update(delta, currentState);
 
-
-		GameController.getInstance().update(delta);
-		GameController.getInstance().handleRounds(currentState);
+		profiler.begin(FrameProfiler.Phase.HUD_UPDATE);
 		hud.update(delta, game.WIDTH, game.HEIGHT);
 
 		// Center camera on player.
-		camera.position.set(GameModel.getInstance().getSelfPlayer().getX() / PIXEL_TO_METER, GameModel.getInstance().getSelfPlayer().getY() / PIXEL_TO_METER, 0);
+		camera.position.set(model.getSelfPlayer().getX() / PIXEL_TO_METER, model.getSelfPlayer().getY() / PIXEL_TO_METER, 0);
 
 		camera.update();
 		game.getBatch().setProjectionMatrix(camera.combined);
 
-		hud.update(GameModel.getInstance().getSelfPlayer().getCurrentWeapon().toString());
+		hud.update(model.getSelfPlayer().getCurrentWeapon().toString());
+		profiler.end(FrameProfiler.Phase.HUD_UPDATE);
 
+		profiler.begin(FrameProfiler.Phase.MAP);
 		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
 		renderer.setView(camera);
 
 		renderer.render();
+		profiler.end(FrameProfiler.Phase.MAP);
+
+		profiler.begin(FrameProfiler.Phase.BLOOD_DECALS);
+		bloodDecals.update(delta, model.getBloodSpills());
+		game.getBatch().setProjectionMatrix(camera.combined);
+		profiler.end(FrameProfiler.Phase.BLOOD_DECALS);
 
 		game.getBatch().begin();
 
+		profiler.begin(FrameProfiler.Phase.BLOOD_SPILLS);
 		drawBloodSpills();
+		profiler.end(FrameProfiler.Phase.BLOOD_SPILLS);
+		profiler.begin(FrameProfiler.Phase.PLAYERS);
 		drawPlayers();
+		profiler.end(FrameProfiler.Phase.PLAYERS);
+		profiler.begin(FrameProfiler.Phase.ZOMBIES);
 		drawZombies();
+		profiler.end(FrameProfiler.Phase.ZOMBIES);
+		profiler.begin(FrameProfiler.Phase.BULLETS);
 		drawBullets();
+		profiler.end(FrameProfiler.Phase.BULLETS);
+		profiler.begin(FrameProfiler.Phase.TRACERS);
+		drawTracers(delta);
+		profiler.end(FrameProfiler.Phase.TRACERS);
 
 		game.getBatch().setProjectionMatrix(hud.stage.getCamera().combined);
 
+		profiler.begin(FrameProfiler.Phase.HUD_DRAW);
 		if(currentState == States.GAME_RUNNING || currentState == States.GAME_OVER)
 			hud.drawSprite(game.getBatch());
+		profiler.end(FrameProfiler.Phase.HUD_DRAW);
 
-		if(GameModel.getInstance().getSelfPlayer().isDead()) {
+		if(model.getSelfPlayer().isDead()) {
 			setGameOver();
-			GameModel.getInstance().getSelfPlayer().stopFootstepSound();
+			model.getSelfPlayer().stopFootstepSound();
 		}
 
+		profiler.begin(FrameProfiler.Phase.OVERLAYS);
 		drawOverlays(delta);
+		profiler.end(FrameProfiler.Phase.OVERLAYS);
 
 		game.getBatch().end();
 
+		profiler.begin(FrameProfiler.Phase.HUD_DRAW);
 		if(currentState == States.GAME_RUNNING)
 			hud.draw();
+		profiler.end(FrameProfiler.Phase.HUD_DRAW);
 
 		if (DEBUG_PHYSICS) {
 			debugCamera = camera.combined.cpy();
 			debugCamera.scl(1 / PIXEL_TO_METER);
-			debugRenderer.render(GameController.getInstance().getWorld(), debugCamera);
+			debugRenderer.render(controller.getWorld(), debugCamera);
 		}
 
+		profiler.endFrame();
+		profilerOverlay.draw(game.getBatch(), hud.stage.getCamera().combined, 10, 10);
 	}
 
 	/**
@@ -310,6 +356,7 @@ public class GameView extends ScreenAdapter {
 			{
 				currentState = States.GAME_RUNNING;
 				timeLeftToNextOverlay = Float.MAX_VALUE;
+				startNewGame();
 			}
 			else
 				chooseDifficultyOverlay.display(game.getBatch(), timeLeftToNextOverlay);
@@ -320,8 +367,8 @@ public class GameView extends ScreenAdapter {
 			{
 				currentState = States.GAME_RUNNING;
 				timeLeftToNextOverlay = Float.MAX_VALUE;
-				GameController.getInstance().startNewGame();
-				TopScores.getInstance().resetNewHighScore();
+				startNewGame();
+				topScores.resetNewHighScore();
 				firstTrigger = true;
 			}
 			else
@@ -329,12 +376,12 @@ public class GameView extends ScreenAdapter {
 		}
 		else if(currentState == States.GAME_RUNNING)
 		{
-			if(GameModel.getInstance().getZombies().isEmpty()) // Player killed all the zombies!
+			if(model.getZombies().isEmpty()) // Player killed all the zombies!
 			{
 				if(timeLeftToNextOverlay <= 0)
 				{
 					timeLeftToNextOverlay = Float.MAX_VALUE;
-					GameController.getInstance().startNewRound();
+					simulation.getInput().startNewRound();
 				}
 				else if(timeLeftToNextOverlay == Float.MAX_VALUE)
 					timeLeftToNextOverlay = 3.0f;
@@ -344,6 +391,76 @@ public class GameView extends ScreenAdapter {
 		}
 	}
 
+	/**
+	 * Starts a new game, recording it to the replay directory if there is one.
+	 */
+	private void startNewGame() {
+		controller.startNewGame();
+		bloodDecals.clear();
+
+		stopRecording();
+		if (game.getReplayDirectory() != null) {
+			recorder = new ReplayWriter(Gdx.files.local(game.getReplayDirectory()).child("replay-" + System.currentTimeMillis() + ".dmr").write(false),
+					controller, simulation.getTickRate());
+			simulation.setRecorder(recorder);
+		}
+	}
+
+	/**
+	 * Finishes the replay being recorded, if any.
+	 */
+	private void stopRecording() {
+		if (recorder == null)
+			return;
+		simulation.setRecorder(null);
+		recorder.close();
+		recorder = null;
+	}
+
+	@Override
+	public void hide() {
+		stopRecording();
+	}
+
+	@Override
+	public void resume() {
+		bloodDecals.clear();
+	}
+
+	@Override
+	public void dispose() {
+		profilerOverlay.dispose();
+		bloodDecals.dispose();
+	}
+
+	/**
+	 * Shows or hides the frame profiler. Hiding it saves the frames it showed to the local storage,
+	 * as a CSV of the last frames and a JSON of the percentiles of every phase.
+	 */
+	private void toggleProfiler() {
+		profilerOverlay.toggle();
+		if (profilerOverlay.isVisible())
+			return;
+		String name = "profile-" + System.currentTimeMillis();
+		try {
+			Writer csv = Gdx.files.local(name + ".csv").writer(false);
+			try {
+				profiler.writeCsv(csv);
+			} finally {
+				csv.close();
+			}
+			Writer json = Gdx.files.local(name + ".json").writer(false);
+			try {
+				profiler.writeJson(json);
+			} finally {
+				json.close();
+			}
+			Gdx.app.log("FrameProfiler", "Saved " + Gdx.files.local(name + ".csv").file().getAbsolutePath() + " and .json");
+		} catch (IOException e) {
+			Gdx.app.error("FrameProfiler", "Couldn't save the frames", e);
+		}
+	}
+
 	/**
 	 * Changes the background colour to a new one.
 	 * @param delta time since last renders in seconds.
@@ -365,6 +482,9 @@ public class GameView extends ScreenAdapter {
 	 */
 	private void handleInputs(float delta) {
 
+		if(Gdx.input.isKeyJustPressed(Input.Keys.F3) || (Gdx.input.justTouched() && Gdx.input.isTouched(2)))
+			toggleProfiler();
+
 		if(currentState == States.CLICK_TO_PLAY)
 		{
 			process_input_click_to_play(delta);
@@ -380,7 +500,6 @@ public class GameView extends ScreenAdapter {
 		else if(currentState == States.GAME_OVER)
 		{
 			process_input_game_over(delta);
-			GameController.getInstance().makeBodiesStill();
 		}
 
 	}
@@ -420,17 +539,17 @@ public class GameView extends ScreenAdapter {
 			if(non_scaled_x > 435 && non_scaled_x < 850)
 			{
 				if(non_scaled_y > 218 && non_scaled_y < 336) {
-					GameController.getInstance().setGameDifficulty(GameController.Difficulty.EASY);
+					controller.setGameDifficulty(GameController.Difficulty.EASY);
 					timeLeftToNextOverlay = OVERLAY_FADEOUT_TIME;
 					//Gdx.app.log("diff", "easy");
 				}
 				else if(non_scaled_y > 345 && non_scaled_y < 461) {
-					GameController.getInstance().setGameDifficulty(GameController.Difficulty.NORMAL);
+					controller.setGameDifficulty(GameController.Difficulty.NORMAL);
 					timeLeftToNextOverlay = OVERLAY_FADEOUT_TIME;
 					//Gdx.app.log("diff", "normal");
 				}
 				else if(non_scaled_y > 471 && non_scaled_y < 581) {
-					GameController.getInstance().setGameDifficulty(GameController.Difficulty.HARD);
+					controller.setGameDifficulty(GameController.Difficulty.HARD);
 					timeLeftToNextOverlay = OVERLAY_FADEOUT_TIME;
 					//Gdx.app.log("diff", "hard");
 				}
@@ -444,13 +563,16 @@ public class GameView extends ScreenAdapter {
 	 */
 	private void process_input_game_running(float delta)
 	{
+		TickInput input = simulation.getInput();
+
 		// Process movement.
 		short playerMovement = 0;
+		float aimAngle = Float.NaN;
 
 		if (Gdx.app.getType() == Android || DEBUG_PHYSICS){
 			playerMovement = hud.handleController1();
 
-			hud.handleController2();
+			aimAngle = hud.handleController2();
 		}
 
 		if (Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D))
@@ -462,21 +584,29 @@ public class GameView extends ScreenAdapter {
 		if (Gdx.input.isKeyPressed(Input.Keys.DOWN) || Gdx.input.isKeyPressed(Input.Keys.S))
 			playerMovement |= GameController.PLAYER_MOVE_DOWN;
 
-		GameController.getInstance().processMovement(playerMovement, delta, camera);
+		input.setMovement(playerMovement);
+
+		// Make the player be pointed towards the crosshair.
+		if (Gdx.app.getType() != Android) {
+			aimTarget.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+			camera.unproject(aimTarget);
+			aimAngle = controller.calculateAimAngle(aimTarget.x * PIXEL_TO_METER, aimTarget.y * PIXEL_TO_METER);
+		}
+		input.setAimAngle(aimAngle);
 
 		// Process weapon switching/firing.
 		if (Gdx.input.isKeyPressed(Input.Keys.NUM_1)){
-			GameController.getInstance().switchToWeapon(PlayerModel.Weapons.RIFLE);
+			input.switchToWeapon(PlayerModel.Weapons.RIFLE);
 			hud.update("RIFLE");
 		}
 
 		if (Gdx.input.isKeyPressed(Input.Keys.NUM_2)){
-			GameController.getInstance().switchToWeapon(PlayerModel.Weapons.PISTOL);
+			input.switchToWeapon(PlayerModel.Weapons.PISTOL);
 			hud.update("PISTOL");
 		}
 
 		if (Gdx.input.isKeyPressed(Input.Keys.NUM_3)){
-			GameController.getInstance().switchToWeapon(PlayerModel.Weapons.KNIFE);
+			input.switchToWeapon(PlayerModel.Weapons.KNIFE);
 			hud.update("KNIFE");
 		}
 
@@ -487,16 +617,16 @@ public class GameView extends ScreenAdapter {
 				Gdx.graphics.setFullscreenMode(Gdx.graphics.getDisplayMode());
 		}
 
-		if (Gdx.input.isKeyJustPressed(Input.Keys.R) && GameModel.getInstance().getSelfPlayer().getCurrentState() != PlayerModel.States.RELOAD)
-			GameController.getInstance().reload();
+		if (Gdx.input.isKeyJustPressed(Input.Keys.R) && model.getSelfPlayer().getCurrentState() != PlayerModel.States.RELOAD)
+			input.reload();
 		if (Gdx.app.getType() != Android){
-			if(GameModel.getInstance().getSelfPlayer().getCurrentWeapon() == PlayerModel.Weapons.RIFLE) {
+			if(model.getSelfPlayer().getCurrentWeapon() == PlayerModel.Weapons.RIFLE) {
 				if (Gdx.input.isTouched())
-					GameController.getInstance().shoot();
+					input.shoot();
 			}
 			else {
 				if (Gdx.input.justTouched())
-					GameController.getInstance().shoot();
+					input.shoot();
 			}
 		}
 
@@ -516,7 +646,7 @@ public class GameView extends ScreenAdapter {
 	 * Draws the Players to the screen.
 	 */
 	private void drawPlayers() {
-		List<PlayerModel> players = GameModel.getInstance().getPlayers();
+		List<PlayerModel> players = model.getPlayers();
 		for(PlayerModel player : players) {
 			EntityView view = ViewFactory.makeView(game, player);
 			view.update(player);
@@ -528,7 +658,7 @@ public class GameView extends ScreenAdapter {
 	 * Draws the zombies to the screen.
 	 */
 	private void drawZombies() {
-		List<ZombieModel> zombies = GameModel.getInstance().getZombies();
+		List<ZombieModel> zombies = model.getZombies();
 		for(ZombieModel zombie : zombies) {
 			EntityView view = ViewFactory.makeView(game, zombie);
 			view.update(zombie);
@@ -540,7 +670,7 @@ public class GameView extends ScreenAdapter {
 	 * Draws the zombies to the screen.
 	 */
 	private void drawBullets() {
-		List<BulletModel> bullets = GameModel.getInstance().getBullets();
+		List<BulletModel> bullets = model.getBullets();
 		for(BulletModel bullet : bullets) {
 			EntityView view = ViewFactory.makeView(game, bullet);
 			view.update(bullet);
@@ -548,18 +678,26 @@ public class GameView extends ScreenAdapter {
 		}
 	}
 
+	/**
+	 * Draws the tracers of the hitscan shots, adding the one of the last shot if it is new.
+	 *
+	 * @param delta time since last renders in seconds.
+	 */
+	private void drawTracers(float delta) {
+		if (controller.getHitscanShots() != hitscanShotsShown) {
+			hitscanShotsShown = controller.getHitscanShots();
+			tracers.add(controller.getHitscanStart(), controller.getHitscanEnd());
+		}
+		tracers.update(delta);
+		tracers.draw(game.getBatch());
+	}
+
 	/**
 	 * Draws the blood spills on the screen.
 	 */
 	private void drawBloodSpills()
 	{
-		List<BloodSpillModel> spills = GameModel.getInstance().getBloodSpills();
-		for(BloodSpillModel spill : spills)
-		{
-			EntityView view = ViewFactory.makeView(game, spill);
-			view.update(spill);
-			view.draw(game.getBatch());
-		}
+		bloodDecals.draw(game.getBatch(), camera);
 	}
 
 	/**
@@ -577,7 +715,7 @@ public class GameView extends ScreenAdapter {
 		currentState = States.GAME_OVER;
 		if(firstTrigger)
 		{
-			TopScores.getInstance().newScore(GameController.getInstance().getNrZombiedKilled());
+			topScores.newScore(controller.getNrZombiedKilled());
 			firstTrigger = false;
 		}
 	}
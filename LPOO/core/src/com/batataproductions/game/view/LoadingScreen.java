@@ -38,6 +38,9 @@ public class LoadingScreen extends ScreenAdapter
 	/** This screen's progress bar. */
 	ProgressBar progressBar;
 
+	/** The top scores, fetched while the assets load. */
+	TopScores topScores;
+
 
 	public LoadingScreen(DeathmatchMania game)
 	{
@@ -89,7 +92,7 @@ public class LoadingScreen extends ScreenAdapter
 
 		game.getAssetManager().finishLoading();
 		loadAssets();
-		TopScores.getInstance(); /* INITIALIZE TopScores */
+		topScores = TopScores.getInstance(); /* INITIALIZE TopScores */
 	}
 
 	public void render(float delta) {
@@ -106,7 +109,7 @@ public class LoadingScreen extends ScreenAdapter
 		stage.act();
 
 		if (game.getAssetManager().update()) {
-			game.setNewScreen(new GameView(game)); // All resources have been loaded!
+			game.setNewScreen(new GameView(game, topScores)); // All resources have been loaded!
 			this.dispose();
 		}
 	}
@@ -14,8 +14,12 @@ public class GameOver extends Overlay {
 
 	BitmapFont font;
 
-	public GameOver(DeathmatchMania game)
+	/** The top scores shown. */
+	TopScores topScores;
+
+	public GameOver(DeathmatchMania game, TopScores topScores)
 	{
+		this.topScores = topScores;
 		Texture texture = game.getAssetManager().get("game_over.png");
 		sprite = new Sprite (texture);
 		sprite.setSize(DeathmatchMania.WIDTH, DeathmatchMania.HEIGHT);
@@ -44,12 +48,12 @@ public class GameOver extends Overlay {
 
 		//font.draw(batch, "461", 400, 400);
 
-		if(TopScores.getInstance().getTopScores().isEmpty())
+		if(topScores.getTopScores().isEmpty())
 			return;
 
 		int y = 420;
 		int pos = 1;
-		for(TopScores.Score score : TopScores.getInstance().getTopScores())
+		for(TopScores.Score score : topScores.getTopScores())
 		{
 			font.draw(batch, "" + pos + ".", 440, y);
 			font.draw(batch, "" + score.getScore(), 500, y);
@@ -57,7 +61,7 @@ public class GameOver extends Overlay {
 			pos++;
 			y -= 46;
 		}
-		if(TopScores.getInstance().isNewHighScore())
+		if(topScores.isNewHighScore())
 			font.draw(batch, "**NEW TOP SCORE**", 450, y);
 	}
 }
@@ -0,0 +1,272 @@
+package com.batataproductions.game.view.entities;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.batataproductions.game.DeathmatchMania;
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.model.entities.BloodSpillModel;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.batataproductions.game.view.GameView.PIXEL_TO_METER;
+
+/**
+ * Draws the blood spills baked into textures laid over the map, so drawing them costs the same however many
+ * spills there are. The controller keeps a spill only for the frame it was spilled on, which is when it's stamped,
+ * once, into the chunks of the map it covers.
+ * The chunks then fade out as a whole, a few levels of alpha at a time, and a chunk no spill was stamped into
+ * for the fade time is empty and no longer drawn.
+ *
+ * The chunks hold premultiplied colours at half the resolution of the map, and are only created where blood
+ * was spilled.
+ */
+public class BloodDecals {
+
+	/**
+	 * Side of a chunk, in map pixels.
+	 */
+	private static final int CHUNK_PIXELS = 1024;
+
+	/**
+	 * Texels of a chunk per map pixel.
+	 */
+	private static final float RESOLUTION = 0.5f;
+
+	/**
+	 * Levels of alpha, out of 255, taken off the chunks at once. Even, as SpriteBatch drops the lowest bit of alpha.
+	 */
+	private static final int FADE_STEP = 2;
+
+	private final DeathmatchMania game;
+
+	/**
+	 * Time a chunk takes to fade out from opaque, in seconds.
+	 */
+	private final float fadeTime;
+
+	private final int columns, rows;
+
+	/**
+	 * The chunks, row by row, null until blood is first spilled on them.
+	 */
+	private final FrameBuffer[] chunks;
+
+	/**
+	 * Time since a spill was last stamped into each chunk, infinite if the chunk is empty.
+	 */
+	private final float[] idleTime;
+
+	/**
+	 * Whether each chunk is stamped on this update.
+	 */
+	private final boolean[] touched;
+
+	/**
+	 * Levels of alpha due to be taken off the chunks.
+	 */
+	private float pendingFade;
+
+	/**
+	 * A white texel, stretched over a chunk to clear it or fade it.
+	 */
+	private final Texture white;
+
+	private final Matrix4 projection = new Matrix4();
+
+	/**
+	 * Creates the decals, with no chunk yet.
+	 *
+	 * @param game the game this view belongs to. Needed to access the
+	 *             asset manager to get textures.
+	 * @param fadeTime time a chunk takes to fade out from opaque, in seconds.
+	 *                 Float.POSITIVE_INFINITY keeps the spills for the whole match.
+	 */
+	public BloodDecals(DeathmatchMania game, float fadeTime) {
+		this.game = game;
+		this.fadeTime = fadeTime;
+		columns = (int) Math.ceil(GameController.MAP_WIDTH / PIXEL_TO_METER / CHUNK_PIXELS);
+		rows = (int) Math.ceil(GameController.MAP_HEIGHT / PIXEL_TO_METER / CHUNK_PIXELS);
+		chunks = new FrameBuffer[columns * rows];
+		idleTime = new float[columns * rows];
+		touched = new boolean[columns * rows];
+		Arrays.fill(idleTime, Float.POSITIVE_INFINITY);
+
+		Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+		pixmap.setColor(Color.WHITE);
+		pixmap.fill();
+		white = new Texture(pixmap);
+		pixmap.dispose();
+	}
+
+	/**
+	 * Stamps the spills of this frame and fades the chunks. Must be called outside of the batch's begin and end,
+	 * and leaves the batch's projection matrix to be set again.
+	 *
+	 * @param delta time since the last update in seconds.
+	 * @param spills the blood spills spilled on this frame.
+	 */
+	public void update(float delta, List<BloodSpillModel> spills) {
+		findTouched(spills);
+
+		int fade = 0;
+		if (fadeTime != Float.POSITIVE_INFINITY) {
+			pendingFade += delta * 255 / fadeTime;
+			fade = Math.min(255 - 1, (int) (pendingFade / FADE_STEP) * FADE_STEP);
+			pendingFade -= fade;
+		}
+
+		SpriteBatch batch = game.getBatch();
+		for (int chunk = 0; chunk < chunks.length; chunk++) {
+			boolean active = isActive(chunk);
+			if (active)
+				idleTime[chunk] += delta;
+			if (!touched[chunk] && !(active && fade > 0))
+				continue;
+
+			begin(batch, chunk);
+			if (!active)
+				clear(batch, chunk);
+			else if (fade > 0)
+				fade(batch, chunk, fade);
+			if (touched[chunk]) {
+				stamp(batch, spills);
+				idleTime[chunk] = 0;
+			}
+			batch.end();
+			chunks[chunk].end();
+		}
+
+		batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		batch.setColor(Color.WHITE);
+	}
+
+	/**
+	 * Finds the chunks the spills cover.
+	 *
+	 * @param spills the blood spills spilled on this frame.
+	 */
+	private void findTouched(List<BloodSpillModel> spills) {
+		Arrays.fill(touched, false);
+		for (int i = 0; i < spills.size(); i++) {
+			BloodSpillModel spill = spills.get(i);
+			EntityView view = ViewFactory.makeView(game, spill);
+			view.update(spill);
+			Rectangle bounds = view.sprite.getBoundingRectangle();
+			int firstColumn = Math.max(0, (int) (bounds.x / CHUNK_PIXELS)), lastColumn = Math.min(columns - 1, (int) ((bounds.x + bounds.width) / CHUNK_PIXELS));
+			int firstRow = Math.max(0, (int) (bounds.y / CHUNK_PIXELS)), lastRow = Math.min(rows - 1, (int) ((bounds.y + bounds.height) / CHUNK_PIXELS));
+			for (int row = firstRow; row <= lastRow; row++)
+				for (int column = firstColumn; column <= lastColumn; column++)
+					touched[row * columns + column] = true;
+		}
+	}
+
+	/**
+	 * Starts drawing into a chunk, creating it if needed, in map pixels.
+	 */
+	private void begin(SpriteBatch batch, int chunk) {
+		if (chunks[chunk] == null)
+			chunks[chunk] = new FrameBuffer(Pixmap.Format.RGBA8888, (int) (CHUNK_PIXELS * RESOLUTION), (int) (CHUNK_PIXELS * RESOLUTION), false);
+		chunks[chunk].begin();
+		projection.setToOrtho2D(chunk % columns * CHUNK_PIXELS, chunk / columns * CHUNK_PIXELS, CHUNK_PIXELS, CHUNK_PIXELS);
+		batch.setProjectionMatrix(projection);
+		batch.begin();
+	}
+
+	/**
+	 * Makes a chunk fully transparent.
+	 */
+	private void clear(SpriteBatch batch, int chunk) {
+		batch.disableBlending();
+		batch.setColor(0, 0, 0, 0);
+		batch.draw(white, chunk % columns * CHUNK_PIXELS, chunk / columns * CHUNK_PIXELS, CHUNK_PIXELS, CHUNK_PIXELS);
+		batch.flush();
+		batch.enableBlending();
+	}
+
+	/**
+	 * Subtracts levels of colour and alpha from a chunk, which being premultiplied fades it towards transparent.
+	 */
+	private void fade(SpriteBatch batch, int chunk, int levels) {
+		float amount = (levels + 0.5f) / 255;
+		batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE);
+		Gdx.gl.glBlendEquation(GL20.GL_FUNC_REVERSE_SUBTRACT);
+		batch.setColor(amount, amount, amount, amount);
+		batch.draw(white, chunk % columns * CHUNK_PIXELS, chunk / columns * CHUNK_PIXELS, CHUNK_PIXELS, CHUNK_PIXELS);
+		batch.flush();
+		Gdx.gl.glBlendEquation(GL20.GL_FUNC_ADD);
+	}
+
+	/**
+	 * Draws the spills of this frame into the chunk being drawn, premultiplying their colour.
+	 */
+	private void stamp(SpriteBatch batch, List<BloodSpillModel> spills) {
+		batch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		batch.setColor(Color.WHITE);
+		for (int i = 0; i < spills.size(); i++) {
+			EntityView view = ViewFactory.makeView(game, spills.get(i));
+			view.update(spills.get(i));
+			view.draw(batch);
+		}
+	}
+
+	/**
+	 * @param chunk a chunk.
+	 * @return whether the chunk may still show blood.
+	 */
+	private boolean isActive(int chunk) {
+		return idleTime[chunk] < fadeTime;
+	}
+
+	/**
+	 * Draws the chunks the camera sees.
+	 *
+	 * @param batch the batch to draw with, which must have begun with the camera's projection.
+	 * @param camera the camera showing the map.
+	 */
+	public void draw(SpriteBatch batch, OrthographicCamera camera) {
+		float halfWidth = camera.viewportWidth * camera.zoom / 2, halfHeight = camera.viewportHeight * camera.zoom / 2;
+		int firstColumn = Math.max(0, (int) Math.floor((camera.position.x - halfWidth) / CHUNK_PIXELS));
+		int lastColumn = Math.min(columns - 1, (int) Math.floor((camera.position.x + halfWidth) / CHUNK_PIXELS));
+		int firstRow = Math.max(0, (int) Math.floor((camera.position.y - halfHeight) / CHUNK_PIXELS));
+		int lastRow = Math.min(rows - 1, (int) Math.floor((camera.position.y + halfHeight) / CHUNK_PIXELS));
+
+		batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		for (int row = firstRow; row <= lastRow; row++)
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				int chunk = row * columns + column;
+				if (!isActive(chunk))
+					continue;
+				Texture texture = chunks[chunk].getColorBufferTexture();
+				batch.draw(texture, column * CHUNK_PIXELS, row * CHUNK_PIXELS, CHUNK_PIXELS, CHUNK_PIXELS,
+						0, 0, texture.getWidth(), texture.getHeight(), false, true);
+			}
+		batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+	}
+
+	/**
+	 * Empties every chunk, when a new game starts or the chunks' contents were lost with the GL context.
+	 */
+	public void clear() {
+		Arrays.fill(idleTime, Float.POSITIVE_INFINITY);
+		pendingFade = 0;
+	}
+
+	/**
+	 * Frees the chunks.
+	 */
+	public void dispose() {
+		for (FrameBuffer chunk : chunks)
+			if (chunk != null)
+				chunk.dispose();
+		white.dispose();
+	}
+}
@@ -12,14 +12,13 @@ import com.batataproductions.game.model.entities.ZombieModel;
 public class BloodSpillView extends EntityView {
 
 	/** Transparency of the sprite. */
-	private float currentAlpha;
+	private static final float ALPHA = 0.8f;
 
 	/** Size of the zombie that originated this blood spill. */
 	public ZombieModel.Sizes zombieSize;
 
 	BloodSpillView(DeathmatchMania game) {
 		super(game);
-		currentAlpha = 1;
 	}
 
 	@Override
@@ -30,9 +29,7 @@ public class BloodSpillView extends EntityView {
 
 	@Override
 	public void update(EntityModel model) {
-		BloodSpillModel spill = (BloodSpillModel) model;
 		zombieSize = ((BloodSpillModel) model).getZombieSize();
-		currentAlpha = (BloodSpillModel.SPILL_TIME - spill.getTimeSinceSpill()) / BloodSpillModel.SPILL_TIME;
 
 		if(zombieSize == ZombieModel.Sizes.SMALL)
 			sprite.setSize(75,65);
@@ -46,11 +43,7 @@ public class BloodSpillView extends EntityView {
 
 	@Override
 	public void draw(SpriteBatch batch) {
-		if(currentAlpha - 0.2f <= 0)
-			sprite.setAlpha(0);
-		else
-			sprite.setAlpha(currentAlpha - 0.2f);
-
+		sprite.setAlpha(ALPHA);
 		sprite.draw(batch);
 	}
 }
@@ -0,0 +1,104 @@
+package com.batataproductions.game.view.entities;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.batataproductions.game.DeathmatchMania;
+
+import static com.batataproductions.game.view.GameView.PIXEL_TO_METER;
+
+/**
+ * Draws the tracers of hitscan shots: a bullet streak stretched from the weapon to what the shot hit,
+ * fading out quickly. Tracers only exist in the view, the shot is resolved when it is fired.
+ */
+public class TracerView {
+
+	/**
+	 * Maximum number of tracers shown at once. The oldest one is replaced when a new one doesn't fit.
+	 */
+	private static final int MAX_TRACERS = 16;
+
+	/**
+	 * Time a tracer takes to fade out, in seconds.
+	 */
+	private static final float FADE_TIME = 0.08f;
+
+	/**
+	 * Thickness of a tracer, in pixels.
+	 */
+	private static final float THICKNESS = 6;
+
+	private final Sprite sprite;
+
+	/**
+	 * Start and end of each tracer in pixels, and how long it has been shown.
+	 */
+	private final float[] startX = new float[MAX_TRACERS], startY = new float[MAX_TRACERS];
+	private final float[] endX = new float[MAX_TRACERS], endY = new float[MAX_TRACERS];
+	private final float[] age = new float[MAX_TRACERS];
+
+	/**
+	 * Slot the next tracer is written to.
+	 */
+	private int next;
+
+	/**
+	 * Creates the tracer view.
+	 *
+	 * @param game the game this view belongs to. Needed to access the
+	 *             asset manager to get textures.
+	 */
+	public TracerView(DeathmatchMania game) {
+		TextureAtlas textureAtlas = game.getAssetManager().get("bulletAtlas.atlas");
+		sprite = new Sprite(textureAtlas.findRegion("bullet"));
+		for (int i = 0; i < MAX_TRACERS; i++)
+			age[i] = FADE_TIME;
+	}
+
+	/**
+	 * Shows the tracer of a shot.
+	 *
+	 * @param start where the shot started, in meters.
+	 * @param end where the shot ended, in meters.
+	 */
+	public void add(Vector2 start, Vector2 end) {
+		startX[next] = start.x / PIXEL_TO_METER;
+		startY[next] = start.y / PIXEL_TO_METER;
+		endX[next] = end.x / PIXEL_TO_METER;
+		endY[next] = end.y / PIXEL_TO_METER;
+		age[next] = 0;
+		next = (next + 1) % MAX_TRACERS;
+	}
+
+	/**
+	 * Fades the tracers out.
+	 *
+	 * @param delta time since the last update in seconds.
+	 */
+	public void update(float delta) {
+		for (int i = 0; i < MAX_TRACERS; i++)
+			if (age[i] < FADE_TIME)
+				age[i] += delta;
+	}
+
+	/**
+	 * Draws the visible tracers.
+	 *
+	 * @param batch The sprite batch to be used for drawing.
+	 */
+	public void draw(SpriteBatch batch) {
+		for (int i = 0; i < MAX_TRACERS; i++) {
+			if (age[i] >= FADE_TIME)
+				continue;
+
+			float dx = endX[i] - startX[i], dy = endY[i] - startY[i];
+			sprite.setBounds(startX[i], startY[i] - THICKNESS / 2, (float) Math.sqrt(dx * dx + dy * dy), THICKNESS);
+			sprite.setOrigin(0, THICKNESS / 2);
+			sprite.setRotation(MathUtils.atan2(dy, dx) * MathUtils.radiansToDegrees);
+			sprite.setAlpha(1 - age[i] / FADE_TIME);
+			sprite.draw(batch);
+		}
+	}
+}
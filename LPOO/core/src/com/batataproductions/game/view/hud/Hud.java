@@ -18,7 +18,7 @@ import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.batataproductions.game.DeathmatchMania;
 import com.batataproductions.game.controller.GameController;
-import com.batataproductions.game.model.GameModel;
+import com.batataproductions.game.controller.Match;
 import com.batataproductions.game.model.entities.PlayerModel;
 import com.batataproductions.game.view.controller.Controller;
 
@@ -26,7 +26,11 @@ import static com.badlogic.gdx.Application.ApplicationType.Android;
 
 public class Hud {
 
-    private static Hud instance;
+    /**
+     * The match whose information is shown.
+     */
+    private final Match match;
+
     public Stage stage;
     private Viewport viewport;
 
@@ -101,7 +105,8 @@ public class Hud {
     private float time = 1.02f;
     private boolean doTime = false;
 
-    public Hud (SpriteBatch sb, int width, int height, DeathmatchMania game){
+    public Hud (SpriteBatch sb, int width, int height, DeathmatchMania game, Match match){
+        this.match = match;
         viewport = new FitViewport(width, height, new OrthographicCamera());
         stage = new Stage(viewport, sb);
         initHudAssets(width, height);
@@ -365,13 +370,6 @@ public class Hud {
         }
     }
 
-    public static Hud getInstance() {
-        if (instance == null)
-            return null;
-        return instance;
-    }
-
-
     private void updateDesktop(String weapon){
         if (weapon.equals("RIFLE")){
             red.setY(rifle.getY());
@@ -442,7 +440,7 @@ public class Hud {
     public void update(float delta, int WIDTH, int HEIGHT)
     {
 
-        PlayerModel player = GameModel.getInstance().getSelfPlayer();
+        PlayerModel player = match.getModel().getSelfPlayer();
 
         //stateTime += delta * multp;
 
@@ -487,9 +485,9 @@ public class Hud {
 
         setHealthLabel("+ " + f.intValue());
 
-        setRoundsNR("" + GameController.getInstance().getCurrentRound());
-        setZombiesRoundLabel("" + GameModel.getInstance().getZombies().size());
-        setEnemiesLeftNR("" + GameController.getInstance().getNrZombiedKilled());
+        setRoundsNR("" + match.getController().getCurrentRound());
+        setZombiesRoundLabel("" + match.getModel().getZombies().size());
+        setEnemiesLeftNR("" + match.getController().getNrZombiedKilled());
 
     }
 
@@ -531,16 +529,21 @@ public class Hud {
         return  playerMovement;
     }
 
-    public void handleController2(){
+    /**
+     * Reads the aiming touchpad.
+     * @return the angle the player should be pointed at in radians, NaN if the touchpad isn't being used.
+     */
+    public float handleController2(){
         if (Gdx.app.getType() == Android) {
             if (controller2.isTouched()) {
                 double angle = Math.atan2(controller2.getKnobPercentX(), controller2.getKnobPercentY());
                 angle *= -1;
                 if (angle < 0)
                     angle += 2 * Math.PI;
-                GameController.getInstance().getSelfPlayerBody().setAngle((float) (angle + Math.PI / 2));
+                return (float) (angle + Math.PI / 2);
             }
         }
+        return Float.NaN;
     }
 
     /**
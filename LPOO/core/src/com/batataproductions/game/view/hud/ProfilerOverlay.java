@@ -0,0 +1,168 @@
+package com.batataproductions.game.view.hud;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.batataproductions.game.profiling.FrameProfiler;
+import com.batataproductions.game.profiling.RingHistogram;
+
+/**
+ * Shows the last frames timed by the FrameProfiler as a stacked bar chart, a bar per frame and a
+ * colour per phase, with a line at the frame budget and a legend with the percentiles of every phase.
+ */
+public class ProfilerOverlay {
+
+	/**
+	 * Time a frame may take at 60 frames per second, in milliseconds.
+	 */
+	private static final float BUDGET_MS = 1000 / 60f;
+
+	/**
+	 * Height of a millisecond and width of a frame on the chart, in pixels.
+	 */
+	private static final float PIXELS_PER_MS = 8, BAR_WIDTH = 2;
+
+	/**
+	 * Height of the chart, so frames far over the budget don't cover the screen.
+	 */
+	private static final float CHART_HEIGHT = 3 * BUDGET_MS * PIXELS_PER_MS;
+
+	/**
+	 * Spacing of the legend lines, in pixels.
+	 */
+	private static final float LINE_HEIGHT = 16;
+
+	/**
+	 * The colour of every phase, indexed by ordinal.
+	 */
+	private static final Color[] COLORS = {
+			Color.WHITE, Color.GRAY, Color.ROYAL, Color.SKY, Color.CYAN, Color.TEAL, Color.LIME, Color.FOREST,
+			Color.SCARLET, Color.GOLD, Color.ORANGE, Color.YELLOW, Color.SALMON, Color.VIOLET, Color.MAGENTA, Color.DARK_GRAY
+	};
+
+	private final FrameProfiler profiler;
+
+	/**
+	 * Created the first time the overlay is drawn.
+	 */
+	private ShapeRenderer shapes;
+	private BitmapFont font;
+
+	/**
+	 * Legend line being written, reused every frame.
+	 */
+	private final StringBuilder line = new StringBuilder();
+
+	private boolean visible;
+
+	/**
+	 * Creates the overlay, hidden.
+	 *
+	 * @param profiler the profiler whose frames are shown.
+	 */
+	public ProfilerOverlay(FrameProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Shows the overlay if it's hidden and hides it otherwise.
+	 */
+	public void toggle() {
+		visible = !visible;
+	}
+
+	/**
+	 * @return whether the overlay is shown.
+	 */
+	public boolean isVisible() {
+		return visible;
+	}
+
+	/**
+	 * Draws the overlay, if it's shown.
+	 *
+	 * @param batch the batch the legend is drawn with, not drawing.
+	 * @param projection the projection of the screen, in pixels.
+	 * @param x the x-coordinate of the bottom left corner of the chart.
+	 * @param y the y-coordinate of the bottom left corner of the chart.
+	 */
+	public void draw(SpriteBatch batch, Matrix4 projection, float x, float y) {
+		if (!visible)
+			return;
+		if (shapes == null) {
+			shapes = new ShapeRenderer();
+			font = new BitmapFont();
+		}
+		RingHistogram frames = profiler.getFrames();
+		FrameProfiler.Phase[] phases = FrameProfiler.Phase.values();
+		float width = frames.capacity() * BAR_WIDTH;
+
+		Gdx.gl.glEnable(GL20.GL_BLEND);
+		Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		shapes.setProjectionMatrix(projection);
+		shapes.begin(ShapeRenderer.ShapeType.Filled);
+		shapes.setColor(0, 0, 0, 0.6f);
+		shapes.rect(x, y, width, CHART_HEIGHT);
+		// The newest frame is on the right.
+		for (int age = 0; age < frames.size(); age++) {
+			float barX = x + width - (age + 1) * BAR_WIDTH, barY = y;
+			for (int p = 0; p < phases.length && barY < y + CHART_HEIGHT; p++) {
+				float height = Math.min(profiler.getPhase(phases[p]).get(age) / 1e6f * PIXELS_PER_MS, y + CHART_HEIGHT - barY);
+				shapes.setColor(COLORS[p % COLORS.length]);
+				shapes.rect(barX, barY, BAR_WIDTH, height);
+				barY += height;
+			}
+		}
+		shapes.setColor(Color.RED);
+		shapes.rect(x, y + BUDGET_MS * PIXELS_PER_MS, width, 1);
+		shapes.end();
+		Gdx.gl.glDisable(GL20.GL_BLEND);
+
+		batch.setProjectionMatrix(projection);
+		batch.begin();
+		float lineY = y + CHART_HEIGHT;
+		for (int p = 0; p < phases.length; p++) {
+			RingHistogram phase = profiler.getPhase(phases[p]);
+			line.setLength(0);
+			line.append(phases[p].name()).append("  p50 ");
+			appendMillis(phase.percentile(0.5)).append("  p99 ");
+			appendMillis(phase.percentile(0.99));
+			font.setColor(COLORS[p % COLORS.length]);
+			font.draw(batch, line, x + width + 10, lineY);
+			lineY -= LINE_HEIGHT;
+		}
+		line.setLength(0);
+		line.append("FRAME  p50 ");
+		appendMillis(frames.percentile(0.5)).append("  p99 ");
+		appendMillis(frames.percentile(0.99)).append("  max ");
+		appendMillis(frames.getMax());
+		font.setColor(Color.RED);
+		font.draw(batch, line, x + width + 10, lineY);
+		batch.end();
+	}
+
+	/**
+	 * Appends a time in milliseconds with two decimals, without formatting a string.
+	 */
+	private StringBuilder appendMillis(long nanos) {
+		long hundredths = (nanos + 5000) / 10000;
+		line.append(hundredths / 100).append('.');
+		if (hundredths % 100 < 10)
+			line.append('0');
+		return line.append(hundredths % 100);
+	}
+
+	/**
+	 * Frees the renderers of the overlay.
+	 */
+	public void dispose() {
+		if (shapes == null)
+			return;
+		shapes.dispose();
+		font.dispose();
+	}
+}
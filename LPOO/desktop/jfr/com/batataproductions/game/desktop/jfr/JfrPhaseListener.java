@@ -0,0 +1,116 @@
+package com.batataproductions.game.desktop.jfr;
+
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.Match;
+import com.batataproductions.game.profiling.FrameProfiler;
+
+import jdk.jfr.EventType;
+
+/**
+ * Reports the phases timed by the FrameProfiler to Java Flight Recorder, so a recording shows them
+ * next to the garbage collections and the allocations.
+ *
+ * When no recording has a phase's event enabled, the phase costs a lookup of whether it is:
+ * no event is created.
+ */
+public class JfrPhaseListener implements FrameProfiler.PhaseListener {
+
+	private static final FrameProfiler.Phase[] PHASES = FrameProfiler.Phase.values();
+
+	/**
+	 * The match whose state the events carry.
+	 */
+	private final Match match;
+
+	/**
+	 * The event type of every phase, indexed by ordinal, null for the phases not reported.
+	 */
+	private final EventType[] types = new EventType[PHASES.length];
+
+	/**
+	 * The event of every phase running, indexed by ordinal.
+	 */
+	private final PhaseEvents.PhaseEvent[] running = new PhaseEvents.PhaseEvent[PHASES.length];
+
+	/**
+	 * Reports the phases of the match shown on the screen to Java Flight Recorder from now on.
+	 * Called reflectively by DesktopLauncher, so the game still runs on JVMs without it.
+	 */
+	public static void install() {
+		install(Match.getDefault());
+	}
+
+	/**
+	 * Reports the phases of a match to Java Flight Recorder from now on.
+	 *
+	 * @param match the match.
+	 */
+	public static void install(Match match) {
+		match.getProfiler().setListener(new JfrPhaseListener(match));
+	}
+
+	/**
+	 * @param match the match whose state the events carry.
+	 */
+	public JfrPhaseListener(Match match) {
+		this.match = match;
+		for (FrameProfiler.Phase phase : PHASES) {
+			PhaseEvents.PhaseEvent event = create(phase);
+			if (event != null)
+				types[phase.ordinal()] = EventType.getEventType(event.getClass());
+		}
+	}
+
+	@Override
+	public void phaseBegan(FrameProfiler.Phase phase) {
+		EventType type = types[phase.ordinal()];
+		if (type == null || !type.isEnabled())
+			return;
+		PhaseEvents.PhaseEvent event = create(phase);
+		event.begin();
+		running[phase.ordinal()] = event;
+	}
+
+	@Override
+	public void phaseEnded(FrameProfiler.Phase phase) {
+		PhaseEvents.PhaseEvent event = running[phase.ordinal()];
+		if (event == null)
+			return;
+		running[phase.ordinal()] = null;
+		event.end();
+		if (!event.shouldCommit())
+			return;
+		GameController controller = match.getController();
+		event.zombies = match.getModel().getZombies().size();
+		event.bodies = controller.getWorld().getBodyCount();
+		event.contacts = controller.getContactsResolved();
+		event.commit();
+	}
+
+	/**
+	 * Creates the event of a phase.
+	 *
+	 * @return the event, or null if the phase isn't reported.
+	 */
+	private static PhaseEvents.PhaseEvent create(FrameProfiler.Phase phase) {
+		switch (phase) {
+			case INPUT: return new PhaseEvents.InputEvent();
+			case REMOVE_FLAGGED: return new PhaseEvents.RemovalEvent();
+			case WORLD_STEP: return new PhaseEvents.PhysicsStepEvent();
+			case CONTACTS: return new PhaseEvents.ContactResolutionEvent();
+			case AI_UPDATE: return new PhaseEvents.AiUpdateEvent();
+			case HANDLE_ROUNDS: return new PhaseEvents.SpawnEvent();
+			case HUD_UPDATE: return new PhaseEvents.HudUpdateEvent();
+			case MAP: return new PhaseEvents.MapDrawEvent();
+			case BLOOD_DECALS: return new PhaseEvents.BloodDecalsUpdateEvent();
+			case BLOOD_SPILLS: return new PhaseEvents.BloodSpillsDrawEvent();
+			case PLAYERS: return new PhaseEvents.PlayersDrawEvent();
+			case ZOMBIES: return new PhaseEvents.ZombiesDrawEvent();
+			case BULLETS: return new PhaseEvents.BulletsDrawEvent();
+			case TRACERS: return new PhaseEvents.TracersDrawEvent();
+			case OVERLAYS: return new PhaseEvents.OverlaysDrawEvent();
+			case HUD_DRAW: return new PhaseEvents.HudDrawEvent();
+			default: return null;
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package com.batataproductions.game.desktop.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The Java Flight Recorder events of the phases of the ticks and of the frames, see FrameProfiler.Phase.
+ * Every event carries the state of the game when its phase ended.
+ */
+public final class PhaseEvents {
+
+	private PhaseEvents() {
+	}
+
+	/**
+	 * A phase of a tick or of a frame.
+	 */
+	@StackTrace(false)
+	public abstract static class PhaseEvent extends Event {
+
+		@Label("Zombies")
+		@Description("Zombies alive")
+		public int zombies;
+
+		@Label("Bodies")
+		@Description("Bodies in the physics world, the free pooled ones included")
+		public int bodies;
+
+		@Label("Contacts Resolved")
+		@Description("Contacts resolved after the last world step")
+		public int contacts;
+	}
+
+	@Name("deathmatchmania.Input")
+	@Label("Input")
+	@Category({"Deathmatch Mania", "Simulation"})
+	public static final class InputEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.Removal")
+	@Label("Removal")
+	@Description("Entities flagged for removal are removed")
+	@Category({"Deathmatch Mania", "Simulation"})
+	public static final class RemovalEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.PhysicsStep")
+	@Label("Physics Step")
+	@Category({"Deathmatch Mania", "Simulation"})
+	public static final class PhysicsStepEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.ContactResolution")
+	@Label("Contact Resolution")
+	@Category({"Deathmatch Mania", "Simulation"})
+	public static final class ContactResolutionEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.AiUpdate")
+	@Label("AI Update")
+	@Description("Timers and entities are updated, the zombies' AI included")
+	@Category({"Deathmatch Mania", "Simulation"})
+	public static final class AiUpdateEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.Spawn")
+	@Label("Spawn")
+	@Category({"Deathmatch Mania", "Simulation"})
+	public static final class SpawnEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.HudUpdate")
+	@Label("HUD Update")
+	@Category({"Deathmatch Mania", "Render"})
+	public static final class HudUpdateEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.MapDraw")
+	@Label("Map Draw")
+	@Category({"Deathmatch Mania", "Render"})
+	public static final class MapDrawEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.BloodDecalsUpdate")
+	@Label("Blood Decals Update")
+	@Description("New blood spills are stamped into the decals, which fade")
+	@Category({"Deathmatch Mania", "Render"})
+	public static final class BloodDecalsUpdateEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.BloodSpillsDraw")
+	@Label("Blood Spills Draw")
+	@Category({"Deathmatch Mania", "Render"})
+	public static final class BloodSpillsDrawEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.PlayersDraw")
+	@Label("Players Draw")
+	@Category({"Deathmatch Mania", "Render"})
+	public static final class PlayersDrawEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.ZombiesDraw")
+	@Label("Zombies Draw")
+	@Category({"Deathmatch Mania", "Render"})
+	public static final class ZombiesDrawEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.BulletsDraw")
+	@Label("Bullets Draw")
+	@Category({"Deathmatch Mania", "Render"})
+	public static final class BulletsDrawEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.TracersDraw")
+	@Label("Tracers Draw")
+	@Category({"Deathmatch Mania", "Render"})
+	public static final class TracersDrawEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.OverlaysDraw")
+	@Label("Overlays Draw")
+	@Category({"Deathmatch Mania", "Render"})
+	public static final class OverlaysDrawEvent extends PhaseEvent {
+	}
+
+	@Name("deathmatchmania.HudDraw")
+	@Label("HUD Draw")
+	@Category({"Deathmatch Mania", "Render"})
+	public static final class HudDrawEvent extends PhaseEvent {
+	}
+}
@@ -9,11 +9,35 @@ public class DesktopLauncher {
 	public static void main (String[] arg) {
 		LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
 		DeathmatchMania game = new DeathmatchMania();
+		// --record <directory> records every game played as a replay, see ReplayLauncher.
+		for (int i = 0; i + 1 < arg.length; i++)
+			if (arg[i].equals("--record"))
+				game.setReplayDirectory(arg[i + 1]);
 		config.width = game.WIDTH;
 		config.height = game.HEIGHT;
 		config.addIcon("icon-16.png", Files.FileType.Internal);
 		config.addIcon("icon-32.png", Files.FileType.Internal);
 		config.addIcon("icon-128.png", Files.FileType.Internal);
-		new LwjglApplication(game, config);
+		LwjglApplication application = new LwjglApplication(game, config);
+		application.postRunnable(new Runnable() {
+			@Override
+			public void run() {
+				installFlightRecorderEvents();
+			}
+		});
+	}
+
+	/**
+	 * Reports the phases of every tick and frame to Java Flight Recorder, if the JVM has it (Java 11 and later).
+	 * Runs on the render thread once the game was created, as the listener is installed on the default match.
+	 */
+	private static void installFlightRecorderEvents() {
+		try {
+			Class.forName("com.batataproductions.game.desktop.jfr.JfrPhaseListener").getMethod("install").invoke(null);
+		} catch (Exception e) {
+			// The listener wasn't built, or can't run on this JVM.
+		} catch (LinkageError e) {
+			// The JVM has no jdk.jfr module.
+		}
 	}
 }
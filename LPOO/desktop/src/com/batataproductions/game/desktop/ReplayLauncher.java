@@ -0,0 +1,38 @@
+package com.batataproductions.game.desktop;
+
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.Match;
+import com.batataproductions.game.controller.replay.ReplayPlayer;
+import com.batataproductions.game.controller.replay.ReplayReader;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Plays replays recorded with DesktopLauncher --record with no window, as fast as possible,
+ * and reports how long they took, their slowest tick and whether they played out as recorded.
+ */
+public class ReplayLauncher {
+	public static void main (String[] arg) throws IOException {
+		if (arg.length == 0) {
+			System.err.println("Usage: ReplayLauncher <replay>...");
+			System.exit(1);
+		}
+
+		GameController controller = Match.getDefault().getController();
+		ReplayPlayer player = new ReplayPlayer(controller);
+		for (String file : arg) {
+			ReplayReader reader = new ReplayReader(new FileInputStream(file));
+			long start = System.nanoTime();
+			long ticks = player.play(reader);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			reader.close();
+
+			System.out.printf("%s: %d ticks (%.1f s of play) in %.2f s, %.0f ticks/s, round %d%n", file, ticks,
+					(double) ticks / reader.getTickRate(), seconds, ticks / seconds, controller.getCurrentRound());
+			System.out.printf("  slowest tick %d: %.2f ms%n", player.getSlowestTick(), player.getSlowestTickNanos() / 1e6);
+			if (player.getDivergedTick() >= 0)
+				System.out.printf("  diverged from the recording at tick %d%n", player.getDivergedTick());
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package com.batataproductions.game.tests;
+
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.TickInput;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.model.entities.ZombieModel;
+import com.batataproductions.game.view.GameView;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Plays scripted scenarios on the headless backend and checks the bytes they allocate stay within budget,
+ * so garbage creeping into the game loop is caught before it makes low-end phones stutter.
+ */
+public class AllocationTests {
+
+	private static final long SEED = 42;
+
+	/**
+	 * Ticks measured by the scenarios that play on, after the game settled.
+	 */
+	private static final int MEASURED_TICKS = 600;
+
+	/**
+	 * Times the ticks of a scenario are measured, keeping the run that allocated the least, see HeadlessGame.measure.
+	 */
+	private static final int MEASURED_RUNS = 3;
+
+	/**
+	 * Ticks of a game over and the new game that follows it.
+	 */
+	private static final int RESTART_TICKS = 420;
+
+	/**
+	 * Bytes a tick of fighting may allocate, for the blood spills and the lists growing to fit the bullets.
+	 */
+	private static final long FIGHT_BUDGET_PER_TICK = 16;
+
+	/**
+	 * Bytes a round may allocate: its zombies come from the pools.
+	 */
+	private static final long ROUND_BUDGET = 4 * 1024;
+
+	/**
+	 * Bytes a new game may allocate: it creates a new world, a new player and new pools.
+	 */
+	private static final long RESTART_BUDGET = 512 * 1024;
+
+	/**
+	 * Shoots the rifle at a target circling the player, reloading when the magazine is empty.
+	 */
+	private static final HeadlessGame.Script RIFLE_FIRE = new HeadlessGame.Script() {
+		@Override
+		public void play(HeadlessGame game, TickInput input, int tick) {
+			input.setAimAngle(tick * 0.05f);
+			if (game.getPlayer().getRifleCurrentAmmo() == 0)
+				input.reload();
+			else
+				input.shoot();
+		}
+	};
+
+	/**
+	 * Stabs the nearest zombie with the knife.
+	 */
+	private static final HeadlessGame.Script KNIFE_MELEE = new HeadlessGame.Script() {
+		@Override
+		public void play(HeadlessGame game, TickInput input, int tick) {
+			if (game.getPlayer().getCurrentWeapon() != PlayerModel.Weapons.KNIFE)
+				input.switchToWeapon(PlayerModel.Weapons.KNIFE);
+			ZombieModel nearest = nearestZombie(game);
+			if (nearest != null)
+				input.setAimAngle(game.getController().calculateAimAngle(nearest.getX(), nearest.getY()));
+			input.shoot();
+		}
+	};
+
+	/**
+	 * Kills every zombie as soon as the round spawned them all and starts the next round, as GameView does.
+	 */
+	private static final HeadlessGame.Script ROUND_TRANSITIONS = new HeadlessGame.Script() {
+		@Override
+		public void play(HeadlessGame game, TickInput input, int tick) {
+			List<ZombieModel> zombies = game.getModel().getZombies();
+			if (game.getController().getZombiesLeftToSpawn() > 0)
+				return;
+			if (zombies.isEmpty())
+				input.startNewRound();
+			else
+				for (int i = 0; i < zombies.size(); i++)
+					zombies.get(i).setFlaggedForRemoval(true);
+		}
+	};
+
+	/**
+	 * Dies, waits on the game over screen and starts a new game, which it plays for a while.
+	 */
+	private static final HeadlessGame.Script GAME_OVER_AND_RESTART = new HeadlessGame.Script() {
+		@Override
+		public void play(HeadlessGame game, TickInput input, int tick) {
+			if (tick == 0) {
+				game.getPlayer().setHealth(0);
+				game.setState(GameView.States.GAME_OVER);
+			} else if (tick == 120) {
+				game.getController().startNewGame(SEED);
+				game.setState(GameView.States.GAME_RUNNING);
+			}
+		}
+	};
+
+	/**
+	 * Starts a game on hard and plays until the 200 zombies of round 10 spawned and chase the player.
+	 */
+	private static HeadlessGame horde() {
+		HeadlessGame game = new HeadlessGame(GameController.Difficulty.HARD, SEED);
+		game.setInvulnerable(true);
+		GameController controller = game.getController();
+		while (controller.getCurrentRound() < 10)
+			controller.startNewRound();
+		for (int i = 0; i < 200 && controller.getZombiesLeftToSpawn() > 0; i++)
+			game.run(HeadlessGame.IDLE, 60);
+		assertEquals(0, controller.getZombiesLeftToSpawn());
+		return game;
+	}
+
+	private static ZombieModel nearestZombie(HeadlessGame game) {
+		PlayerModel player = game.getPlayer();
+		ZombieModel nearest = null;
+		float nearestDistance = Float.MAX_VALUE;
+		List<ZombieModel> zombies = game.getModel().getZombies();
+		for (int i = 0; i < zombies.size(); i++) {
+			ZombieModel zombie = zombies.get(i);
+			float dx = zombie.getX() - player.getX(), dy = zombie.getY() - player.getY();
+			if (dx * dx + dy * dy < nearestDistance) {
+				nearest = zombie;
+				nearestDistance = dx * dx + dy * dy;
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Tests that the ticks of a horde chasing an idle player don't allocate.
+	 */
+	@Test
+	public void idle()
+	{
+		HeadlessGame game = horde();
+		game.run(HeadlessGame.IDLE, 300);
+		long allocated = game.measure(HeadlessGame.IDLE, MEASURED_TICKS, MEASURED_RUNS);
+		assertEquals("Bytes allocated by idle ticks", 0, allocated);
+	}
+
+	/**
+	 * Tests that sustained rifle fire into a horde stays within its allocation budget.
+	 */
+	@Test
+	public void sustainedRifleFire()
+	{
+		HeadlessGame game = horde();
+		game.run(RIFLE_FIRE, 300);
+		long allocated = game.measure(RIFLE_FIRE, MEASURED_TICKS, MEASURED_RUNS);
+		assertTrue("Bytes allocated per tick of rifle fire: " + allocated / MEASURED_TICKS, allocated <= FIGHT_BUDGET_PER_TICK * MEASURED_TICKS);
+	}
+
+	/**
+	 * Tests that knife melee against a horde stays within its allocation budget.
+	 */
+	@Test
+	public void knifeMelee()
+	{
+		HeadlessGame game = horde();
+		game.run(KNIFE_MELEE, 300);
+		long allocated = game.measure(KNIFE_MELEE, MEASURED_TICKS, MEASURED_RUNS);
+		assertTrue("Bytes allocated per tick of knife melee: " + allocated / MEASURED_TICKS, allocated <= FIGHT_BUDGET_PER_TICK * MEASURED_TICKS);
+	}
+
+	/**
+	 * Tests that going through rounds stays within its allocation budget.
+	 */
+	@Test
+	public void roundTransitions()
+	{
+		HeadlessGame game = new HeadlessGame(GameController.Difficulty.HARD, SEED);
+		game.setInvulnerable(true);
+		game.run(ROUND_TRANSITIONS, 300);
+		GameController controller = game.getController();
+		int round = controller.getCurrentRound();
+		long allocated = game.measure(ROUND_TRANSITIONS, 4 * MEASURED_TICKS, MEASURED_RUNS);
+		int rounds = (controller.getCurrentRound() - round) / MEASURED_RUNS;
+		assertTrue("Rounds played per run", rounds > 0);
+		assertTrue("Bytes allocated per round: " + allocated / rounds, allocated <= ROUND_BUDGET * rounds);
+	}
+
+	/**
+	 * Tests that dying, waiting on the game over screen and starting a new game stays within its allocation budget.
+	 */
+	@Test
+	public void gameOverAndRestart()
+	{
+		HeadlessGame game = new HeadlessGame(GameController.Difficulty.NORMAL, SEED);
+		game.run(HeadlessGame.IDLE, 300);
+		for (int restart = 0; restart < 3; restart++) {
+			long allocated = game.measure(GAME_OVER_AND_RESTART, RESTART_TICKS, 1);
+			assertTrue("Bytes allocated by a restart: " + allocated, allocated <= RESTART_BUDGET);
+		}
+	}
+}
@@ -2,18 +2,56 @@ package com.batataproductions.game.tests;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.FloatArray;
+import com.batataproductions.game.controller.ContactDispatcher;
 import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.EntityRegistry;
+import com.batataproductions.game.controller.Match;
+import com.batataproductions.game.controller.SimulationLoop;
+import com.batataproductions.game.controller.TickInput;
+import com.batataproductions.game.controller.WaveScheduler;
+import com.batataproductions.game.controller.ai.FlowField;
+import com.batataproductions.game.controller.ai.LineOfSight;
+import com.batataproductions.game.controller.ai.ZombieLod;
 import com.batataproductions.game.controller.entities.BigZombieBody;
 import com.batataproductions.game.controller.entities.BulletBody;
 import com.batataproductions.game.controller.entities.EntityBody;
+import com.batataproductions.game.controller.entities.EntityBodyPool;
+import com.batataproductions.game.controller.entities.MediumZombieBody;
 import com.batataproductions.game.controller.entities.PlayerBody;
+import com.batataproductions.game.controller.replay.ReplayFormat;
+import com.batataproductions.game.controller.replay.ReplayPlayer;
+import com.batataproductions.game.controller.replay.ReplayReader;
+import com.batataproductions.game.controller.replay.ReplayWriter;
 import com.batataproductions.game.model.GameModel;
+import com.batataproductions.game.model.TrackedPool;
+import com.batataproductions.game.model.entities.BloodSpillModel;
 import com.batataproductions.game.model.entities.BulletModel;
 import com.batataproductions.game.model.entities.PlayerModel;
 import com.batataproductions.game.model.entities.ZombieModel;
+import com.batataproductions.game.profiling.FrameProfiler;
+import com.batataproductions.game.profiling.RingHistogram;
 import com.batataproductions.game.view.GameView;
 
 import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.Assert.*;
 
 public class ControllerTests {
@@ -69,7 +107,9 @@ public class ControllerTests {
 		assertEquals(GameModel.getInstance().getSelfPlayer().getRifleCurrentAmmo(), 29);
 		GameController.getInstance().reload();
 		assertEquals(GameModel.getInstance().getSelfPlayer().getRifleCurrentAmmo(), 29);
-		GameController.getInstance().update(5f);
+		// Five seconds of frames, as a single long frame only counts for a quarter of a second.
+		for (int frame = 0; frame < 20; frame++)
+			GameController.getInstance().update(0.25f);
 		assertEquals(GameModel.getInstance().getSelfPlayer().getRifleCurrentAmmo(), 30);
 	}
 
@@ -79,8 +119,14 @@ public class ControllerTests {
 	@Test
 	public void entityBodyMethods()
 	{
-		EntityBody entityBody = new PlayerBody(GameController.getInstance().getWorld(), new PlayerModel(0, 0 , 0));
-		assertTrue(entityBody.getUserData() instanceof PlayerModel);
+		PlayerModel player = new PlayerModel(0, 0 , 0);
+		GameModel.getInstance().addPlayer(player);
+		EntityBody entityBody = new PlayerBody(GameController.getInstance().getWorld(), player);
+		assertEquals(player.getHandle(), entityBody.getHandle());
+		// The body holds the handle boxed when it was given, not a new box of its own.
+		assertSame(player.getBoxedHandle(), entityBody.getBody().getUserData());
+		assertSame(player, GameModel.getInstance().resolvePlayer(entityBody.getHandle()));
+		GameModel.getInstance().remove(player);
 		entityBody.setTransform(20 , 25, 30);
 		assertEquals(entityBody.getX(), 20 ,0.001f);
 		assertEquals(entityBody.getY(), 25, 0.001f);
@@ -126,4 +172,736 @@ public class ControllerTests {
 			assertEquals(Math.atan2(playerPos.y - zombie.getY() , playerPos.x - zombie.getX()), zombie.getRotation(), 0.001f);
 		}
 	}
+
+	/**
+	 * Tests the fixed tick simulation loop running headless.
+	 */
+	@Test
+	public void simulationLoopHeadless()
+	{
+		GameController.getInstance().startNewGame();
+		GameController.getInstance().setGameDifficulty(GameController.Difficulty.EASY);
+		SimulationLoop loop = new SimulationLoop(GameController.getInstance(), 120);
+		loop.setState(GameView.States.GAME_RUNNING);
+
+		// Catching up with a frame runs the ticks that fit in it and keeps the rest for the next frame.
+		assertEquals(loop.update(loop.getTickTime() * 3 + loop.getTickTime() / 2, GameView.States.GAME_RUNNING), 3);
+		assertEquals(loop.getAlpha(), 0.5f, 0.01f);
+
+		float startX = GameModel.getInstance().getSelfPlayer().getX();
+		loop.getInput().setMovement(GameController.PLAYER_MOVE_RIGHT);
+		loop.getInput().setAimAngle(0);
+		for(int i = 0; i < 3000; i++)
+			loop.tick();
+		assertEquals(loop.getTickCount(), 3003);
+		assertTrue(GameModel.getInstance().getSelfPlayer().getX() > startX);
+		assertEquals(GameModel.getInstance().getSelfPlayer().getRotation(), 0, 0.001f);
+		assertNotEquals(GameModel.getInstance().getZombies().size(), 0);
+	}
+
+	/**
+	 * Tests that a steady-state tick with a 200 zombie horde doesn't allocate.
+	 */
+	@Test
+	public void steadyStateTickDoesNotAllocate()
+	{
+		HeadlessGame.Script moveUp = new HeadlessGame.Script() {
+			@Override
+			public void play(HeadlessGame game, TickInput input, int tick) {
+				input.setMovement(GameController.PLAYER_MOVE_UP);
+				input.setAimAngle(1);
+			}
+		};
+		HeadlessGame game = new HeadlessGame(GameController.Difficulty.HARD, 42);
+		// Keep the player alive while the horde spawns and then let the game settle.
+		game.setInvulnerable(true);
+		// Round 10 on hard spawns 200 zombies.
+		while(game.getController().getCurrentRound() < 10)
+			game.getController().startNewRound();
+		List<ZombieModel> zombies = game.getModel().getZombies();
+		for(int i = 0; i < 20000 && zombies.size() < 200; i++)
+			game.run(moveUp, 1);
+		assertEquals(200, zombies.size());
+		game.run(moveUp, 300);
+
+		long allocated = game.measure(moveUp, 60, 3);
+		assertEquals(200, zombies.size());
+		assertEquals("Bytes allocated by 60 ticks", 0, allocated);
+	}
+
+	/**
+	 * Tests that zombies only spawn on spawn points that are free.
+	 */
+	@Test
+	public void spawnPointsOccupied()
+	{
+		GameController.getInstance().startNewGame();
+		GameController.getInstance().setGameDifficulty(GameController.Difficulty.HARD);
+		// The zombies spawn a few per tick until every spawn point is taken by the zombie that spawned there.
+		for(int tick = 0; tick < 60; tick++)
+			GameController.getInstance().handleRounds(GameView.States.GAME_RUNNING);
+		int spawned = GameModel.getInstance().getZombies().size();
+		assertEquals(spawned, 10);
+		GameController.getInstance().handleRounds(GameView.States.GAME_RUNNING);
+		assertEquals(GameModel.getInstance().getZombies().size(), spawned);
+	}
+
+	/**
+	 * Tests that the spawn budget of the difficulty's wave caps the zombies spawned on every tick of a game.
+	 */
+	@Test
+	public void spawnBudgetCapsEveryTick()
+	{
+		Match match = new Match(GameController.Difficulty.HARD, 42);
+		try {
+			GameController controller = match.getController();
+			controller.getWaveScheduler().setWave(GameController.Difficulty.HARD, new WaveScheduler.Wave(WaveScheduler.Curve.BURST, 1, 0));
+			controller.startNewGame(42);
+			List<ZombieModel> zombies = match.getModel().getZombies();
+			for(int tick = 0; tick < 10; tick++)
+			{
+				int before = zombies.size();
+				controller.handleRounds(GameView.States.GAME_RUNNING);
+				assertEquals(before + 1, zombies.size());
+			}
+		} finally {
+			match.dispose();
+		}
+	}
+
+	/**
+	 * Tests that every wave spawns the zombies of a round within its per tick budget and keeps the round total.
+	 */
+	@Test
+	public void waveSchedulerPacing()
+	{
+		WaveScheduler scheduler = new WaveScheduler(10);
+		for(WaveScheduler.Curve curve : WaveScheduler.Curve.values())
+		{
+			scheduler.setWave(GameController.Difficulty.NORMAL, new WaveScheduler.Wave(curve, 2, 3));
+			scheduler.startRound(GameController.Difficulty.NORMAL, 26);
+			int spawned = 0, ticks = 0;
+			while(scheduler.getZombiesLeft() > 0 && ticks++ < 6000)
+			{
+				int toSpawn = scheduler.beginTick(1 / 60f);
+				assertTrue(toSpawn <= 2);
+				for(int i = 0; i < toSpawn; i++)
+				{
+					scheduler.nextSpawnPoint();
+					scheduler.spawned();
+					spawned++;
+				}
+			}
+			assertEquals(26, spawned);
+			assertEquals(0, scheduler.beginTick(1 / 60f));
+			// A steady wave of 3 zombies per second takes over 8 seconds, an escalating one less.
+			if(curve == WaveScheduler.Curve.STEADY)
+				assertTrue(ticks > 8 * 60);
+			else if(curve == WaveScheduler.Curve.ESCALATING)
+				assertTrue(ticks < 8 * 60);
+		}
+		// The spawn points are visited in rotation.
+		scheduler.reset();
+		for(int i = 0; i < 12; i++)
+			assertEquals(i % 10, scheduler.nextSpawnPoint());
+	}
+
+	/**
+	 * Tests that the frame profiler keeps the last frames of every phase and the percentiles of all of them.
+	 */
+	@Test
+	public void frameProfilerHistograms() throws IOException
+	{
+		RingHistogram histogram = new RingHistogram(4);
+		for(int i = 1; i <= 100; i++)
+			histogram.add(i * 1000000L);
+		assertEquals(4, histogram.size());
+		assertEquals(100000000L, histogram.get(0));
+		assertEquals(97000000L, histogram.get(3));
+		assertEquals(100, histogram.getCount());
+		// Percentiles are rounded up to the end of their bucket, at most a quarter over.
+		assertTrue(histogram.percentile(0.5) >= 50000000L && histogram.percentile(0.5) <= 62500000L);
+		assertEquals(100000000L, histogram.percentile(1));
+
+		FrameProfiler profiler = new FrameProfiler(2);
+		for(int frame = 0; frame < 3; frame++)
+		{
+			profiler.beginFrame();
+			profiler.begin(FrameProfiler.Phase.WORLD_STEP);
+			profiler.end(FrameProfiler.Phase.WORLD_STEP);
+			profiler.endFrame();
+		}
+		assertEquals(3, profiler.getFrames().getCount());
+		assertEquals(2, profiler.getPhase(FrameProfiler.Phase.WORLD_STEP).size());
+		StringWriter csv = new StringWriter();
+		profiler.writeCsv(csv);
+		String[] lines = csv.toString().split("\n");
+		assertEquals(3, lines.length);
+		assertTrue(lines[0].startsWith("frame,input,"));
+		assertTrue(lines[1].startsWith("1,") && lines[2].startsWith("2,"));
+	}
+
+	/**
+	 * Tests that the flow field leads around a wall and is only rebuilt when the target changes cell.
+	 */
+	@Test
+	public void flowFieldAroundWall()
+	{
+		// A wall splitting the map with a gap at the top.
+		FlowField field = new FlowField(20, 20, 1);
+		field.addObstacle(9, 0, 2, 15);
+		assertTrue(field.setTarget(15.5f, 5.5f));
+		assertFalse(field.setTarget(15.2f, 5.8f));
+
+		Vector2 position = new Vector2(5, 5), waypoint = new Vector2();
+		for (int i = 0; i < 200 && position.dst(15.2f, 5.8f) > 0.5f; i++)
+		{
+			field.getWaypoint(position.x, position.y, 15.2f, 5.8f, waypoint);
+			position.add(waypoint.sub(position).limit(0.5f));
+			assertFalse(field.isBlocked(position.x, position.y));
+		}
+		assertEquals(position.dst(15.2f, 5.8f), 0, 0.5f);
+	}
+
+	/**
+	 * Tests that line of sight checks stay within their budget, go round every zombie and are blocked by walls.
+	 */
+	@Test
+	public void lineOfSightBudget()
+	{
+		World world = new World(new Vector2(0, 0), true);
+		BodyDef wallDef = new BodyDef();
+		wallDef.position.set(10, 0);
+		PolygonShape shape = new PolygonShape();
+		shape.setAsBox(1, 5);
+		FixtureDef fixtureDef = new FixtureDef();
+		fixtureDef.shape = shape;
+		fixtureDef.filter.categoryBits = EntityBody.MAP_WALL;
+		world.createBody(wallDef).createFixture(fixtureDef);
+		shape.dispose();
+
+		// Five zombies on the left of the wall, the player straight right of it, the last zombie above the wall.
+		EntityRegistry<ZombieModel> zombies = new EntityRegistry<ZombieModel>();
+		for (int i = 0; i < 5; i++)
+		{
+			ZombieModel zombie = new ZombieModel(0, i - 2, 0, ZombieModel.Sizes.MEDIUM);
+			zombies.add(zombie, new MediumZombieBody(world, zombie));
+		}
+		ZombieModel inSight = new ZombieModel(0, 20, 0, ZombieModel.Sizes.MEDIUM);
+		zombies.add(inSight, new MediumZombieBody(world, inSight));
+
+		LineOfSight lineOfSight = new LineOfSight(world, zombies, 2);
+		for (int tick = 0; tick < 3; tick++)
+		{
+			lineOfSight.update(20, 0);
+			assertEquals(lineOfSight.getRaysLastTick(), 2);
+		}
+		assertEquals(lineOfSight.getMaxAge(), 2);
+		for (int i = 0; i < 5; i++)
+			assertFalse(zombies.getModel(i).canSeePlayer());
+		assertTrue(inSight.canSeePlayer());
+		world.dispose();
+	}
+
+	/**
+	 * Tests that only near zombies have their AI updated every tick.
+	 */
+	@Test
+	public void zombieLodBuckets()
+	{
+		GameController controller = GameController.getInstance();
+		controller.startNewGame();
+		float x = GameModel.getInstance().getSelfPlayer().getX(), y = GameModel.getInstance().getSelfPlayer().getY();
+		controller.spawnZombie(x + 10, y, 0, ZombieModel.Sizes.MEDIUM);
+		controller.spawnZombie(x + 40, y, 0, ZombieModel.Sizes.MEDIUM);
+		controller.spawnZombie(x + 100, y, 0, ZombieModel.Sizes.MEDIUM);
+
+		// Every zombie is updated on its first tick.
+		controller.tick(1 / 60f);
+		ZombieLod lod = controller.getZombieLod();
+		assertEquals(lod.getUpdatedLastTick(), 3);
+
+		controller.tick(1 / 60f);
+		assertEquals(lod.getCount(ZombieLod.Bucket.NEAR), 1);
+		assertEquals(lod.getCount(ZombieLod.Bucket.MID), 1);
+		assertEquals(lod.getCount(ZombieLod.Bucket.FAR), 1);
+		assertEquals(lod.getUpdatedLastTick(), 1);
+		assertEquals(lod.getSkippedLastTick(), 2);
+
+		// Over a second the far zombie is still updated a few times.
+		int updates = 0;
+		for (int i = 0; i < 60; i++)
+		{
+			controller.tick(1 / 60f);
+			updates += lod.getUpdatedLastTick();
+		}
+		assertTrue(updates > 60 + 20 + 5);
+		assertTrue(updates < 60 * 3);
+	}
+
+	/**
+	 * Tests that a bullet damages the zombie it hits exactly once.
+	 */
+	@Test
+	public void bulletHitsOnce()
+	{
+		GameController controller = GameController.getInstance();
+		controller.startNewGame();
+		// Let the weapon get ready to shoot.
+		controller.tick(1 / 60f);
+		PlayerModel player = GameModel.getInstance().getSelfPlayer();
+		ZombieModel zombie = controller.spawnZombie(player.getX() + 3, player.getY(), (float) Math.PI, ZombieModel.Sizes.BIG);
+		float health = zombie.getHealth();
+
+		// Several steps run before the flagged bullet is removed, so its contact persists.
+		controller.shoot();
+		controller.update(0.25f);
+		controller.update(0.25f);
+		controller.removeFlagged();
+		assertEquals(GameModel.getInstance().getBullets().size(), 0);
+		assertEquals(health - BulletModel.DEFAULT_DAMAGE_RIFLE_BULLET, zombie.getHealth(), 0.001f);
+	}
+
+	/**
+	 * Tests if bullet bodies are reused from their pool instead of being created and destroyed on every shot.
+	 */
+	@Test
+	public void bulletBodiesArePooled()
+	{
+		GameController controller = GameController.getInstance();
+		controller.startNewGame();
+		EntityBodyPool<BulletBody> pool = controller.getBulletBodyPool();
+		int created = pool.getCreated(), free = pool.getFree();
+		int bodyCount = controller.getWorld().getBodyCount();
+
+		for (int shot = 0; shot < 3; shot++) {
+			controller.tick(1);
+			controller.shoot();
+			assertEquals(free - 1, pool.getFree());
+			BulletModel bullet = GameModel.getInstance().getBullets().get(0);
+			bullet.setFlaggedForRemoval(true);
+			controller.removeFlagged();
+			assertEquals(free, pool.getFree());
+		}
+		assertEquals(created, pool.getCreated());
+		assertEquals(bodyCount, controller.getWorld().getBodyCount());
+	}
+
+	/**
+	 * Tests if the body pools are built with the sizes set, from the next new game on.
+	 */
+	@Test
+	public void bodyPoolsAreSizedBySettings()
+	{
+		Match match = new Match(GameController.Difficulty.EASY, 42);
+		try {
+			GameController controller = match.getController();
+			controller.setBulletBodyPool(16, 8);
+			controller.setZombieBodyPool(40, 50);
+			controller.startNewGame(42);
+
+			assertEquals(16, controller.getBulletBodyPool().max);
+			assertEquals(8, controller.getBulletBodyPool().getFree());
+			for (ZombieModel.Sizes size : ZombieModel.Sizes.values()) {
+				assertEquals(40, controller.getZombieBodyPool(size).max);
+				assertEquals(40, controller.getZombieBodyPool(size).getCreated());
+			}
+		} finally {
+			match.dispose();
+		}
+	}
+
+	/**
+	 * Tests if a hitscan shot damages the zombie in front of the player at once, without firing a bullet.
+	 */
+	@Test
+	public void hitscanHitsZombie()
+	{
+		GameController controller = GameController.getInstance();
+		controller.startNewGame();
+		controller.tick(1 / 60f);
+		PlayerModel player = GameModel.getInstance().getSelfPlayer();
+		ZombieModel zombie = controller.spawnZombie(player.getX() + 3, player.getY(), (float) Math.PI, ZombieModel.Sizes.BIG);
+		float health = zombie.getHealth();
+		int shots = controller.getHitscanShots();
+
+		controller.setHitscan(PlayerModel.Weapons.RIFLE, true);
+		try {
+			controller.shoot();
+		} finally {
+			controller.setHitscan(PlayerModel.Weapons.RIFLE, false);
+		}
+		assertEquals(0, GameModel.getInstance().getBullets().size());
+		assertEquals(shots + 1, controller.getHitscanShots());
+		assertEquals(health - BulletModel.DEFAULT_DAMAGE_RIFLE_BULLET, zombie.getHealth(), 0.001f);
+		assertTrue(controller.getHitscanEnd().x < zombie.getX());
+	}
+
+	/**
+	 * Tests if killed zombies are spawned again from their pools, as new zombies.
+	 */
+	@Test
+	public void zombiesAreRecycled()
+	{
+		GameController controller = GameController.getInstance();
+		controller.startNewGame();
+		TrackedPool<ZombieModel> models = GameModel.getInstance().getZombiePool(ZombieModel.Sizes.SMALL);
+		EntityBodyPool<?> bodies = controller.getZombieBodyPool(ZombieModel.Sizes.SMALL);
+
+		ZombieModel zombie = controller.spawnZombie(20, 20, 0, ZombieModel.Sizes.SMALL);
+		float health = zombie.getHealth();
+		zombie.takeDamage(health);
+		zombie.goToHell();
+		controller.removeFlagged();
+
+		int createdBodies = bodies.getCreated();
+		ZombieModel respawned = controller.spawnZombie(30, 30, 0, ZombieModel.Sizes.SMALL);
+		assertSame(zombie, respawned);
+		assertEquals(health, respawned.getHealth(), 0.001f);
+		assertFalse(respawned.isFlaggedToBeRemoved());
+		assertEquals(30, respawned.getX(), 0.001f);
+		assertEquals(createdBodies, bodies.getCreated());
+		assertTrue(models.getHitRate() > 0);
+		assertTrue(bodies.getHitRate() > 0);
+		assertTrue(models.getHighWaterMark() >= 1);
+	}
+
+	/**
+	 * Tests that a blood spill is handed to the view on the frame it was spilled on and removed on the next one.
+	 */
+	@Test
+	public void bloodSpillsLastOneFrame()
+	{
+		GameController controller = GameController.getInstance();
+		controller.startNewGame();
+		GameModel model = GameModel.getInstance();
+		SimulationLoop loop = new SimulationLoop(controller);
+
+		ZombieModel zombie = controller.spawnZombie(20, 20, 0, ZombieModel.Sizes.SMALL);
+		zombie.takeDamage(zombie.getHealth() + 1);
+		loop.update(loop.getTickTime(), GameView.States.GAME_RUNNING);
+		assertEquals(1, model.getBloodSpills().size());
+		BloodSpillModel spill = model.getBloodSpills().get(0);
+		assertEquals(20, spill.getX(), 0.5f);
+		assertEquals(ZombieModel.Sizes.SMALL, spill.getZombieSize());
+		int handle = spill.getHandle();
+
+		loop.update(loop.getTickTime(), GameView.States.GAME_RUNNING);
+		assertEquals(0, model.getBloodSpills().size());
+		assertNull(model.resolveBloodSpill(handle));
+	}
+
+	/**
+	 * Tests that removeFlagged() removes the entities listed when flagged, and only those still flagged.
+	 */
+	@Test
+	public void removeFlaggedDrainsFlaggedHandles()
+	{
+		GameController controller = GameController.getInstance();
+		controller.startNewGame();
+		GameModel model = GameModel.getInstance();
+
+		ZombieModel removed = controller.spawnZombie(20, 20, 0, ZombieModel.Sizes.SMALL);
+		ZombieModel pardoned = controller.spawnZombie(30, 30, 0, ZombieModel.Sizes.SMALL);
+		ZombieModel kept = controller.spawnZombie(40, 40, 0, ZombieModel.Sizes.SMALL);
+		int removedHandle = removed.getHandle();
+
+		removed.setFlaggedForRemoval(true);
+		removed.setFlaggedForRemoval(true);
+		pardoned.setFlaggedForRemoval(true);
+		pardoned.setFlaggedForRemoval(false);
+		assertEquals(2, model.getFlaggedHandles().size);
+
+		controller.removeFlagged();
+		assertEquals(0, model.getFlaggedHandles().size);
+		assertNull(model.resolveZombie(removedHandle));
+		assertSame(pardoned, model.resolveZombie(pardoned.getHandle()));
+		assertSame(kept, model.resolveZombie(kept.getHandle()));
+		assertEquals(2, model.getZombies().size());
+	}
+
+	/**
+	 * Adds a box at the origin to a world, with a fixture of a collision category.
+	 *
+	 * @param tag whether to tag the fixture for the contact dispatchers.
+	 */
+	private static Fixture addBox(World world, short category, boolean tag) {
+		BodyDef bodyDef = new BodyDef();
+		bodyDef.type = BodyDef.BodyType.DynamicBody;
+		PolygonShape shape = new PolygonShape();
+		shape.setAsBox(1, 1);
+		FixtureDef fixtureDef = new FixtureDef();
+		fixtureDef.shape = shape;
+		fixtureDef.filter.categoryBits = category;
+		Fixture fixture = world.createBody(bodyDef).createFixture(fixtureDef);
+		shape.dispose();
+		if (tag)
+			ContactDispatcher.tag(fixture);
+		return fixture;
+	}
+
+	/**
+	 * @return the contact of a world between two fixtures, in whatever order Box2D put them.
+	 */
+	private static Contact contactBetween(World world, Fixture a, Fixture b) {
+		for (Contact contact : world.getContactList())
+			if (contact.getFixtureA() == a && contact.getFixtureB() == b || contact.getFixtureA() == b && contact.getFixtureB() == a)
+				return contact;
+		return null;
+	}
+
+	/**
+	 * Records the fixtures a contact dispatcher hands to a handler.
+	 */
+	private static class RecordingHandler implements ContactDispatcher.Handler {
+		Fixture fixtureA, fixtureB;
+
+		@Override
+		public void onContact(Contact contact, Fixture fixtureA, Fixture fixtureB) {
+			this.fixtureA = fixtureA;
+			this.fixtureB = fixtureB;
+		}
+	}
+
+	/**
+	 * Tests that a contact dispatcher hands the fixtures to a handler in the order of the categories it was
+	 * registered with, whichever order Box2D reports them in.
+	 */
+	@Test
+	public void contactDispatcherKeepsRegisteredOrder()
+	{
+		World world = new World(new Vector2(0, 0), true);
+		Fixture player = addBox(world, EntityBody.PLAYER_BODY, true);
+		Fixture zombie = addBox(world, EntityBody.ZOMBIE_BODY, true);
+		world.step(1 / 60f, 6, 2);
+		Contact contact = contactBetween(world, player, zombie);
+		assertNotNull(contact);
+
+		ContactDispatcher zombieFirst = new ContactDispatcher();
+		RecordingHandler zombieFirstHandler = new RecordingHandler();
+		zombieFirst.register(EntityBody.ZOMBIE_BODY, EntityBody.PLAYER_BODY, zombieFirstHandler);
+		assertTrue(zombieFirst.dispatch(contact));
+		assertSame(zombie, zombieFirstHandler.fixtureA);
+		assertSame(player, zombieFirstHandler.fixtureB);
+
+		ContactDispatcher playerFirst = new ContactDispatcher();
+		RecordingHandler playerFirstHandler = new RecordingHandler();
+		playerFirst.register(EntityBody.PLAYER_BODY, EntityBody.ZOMBIE_BODY, playerFirstHandler);
+		assertTrue(playerFirst.dispatch(contact));
+		assertSame(player, playerFirstHandler.fixtureA);
+		assertSame(zombie, playerFirstHandler.fixtureB);
+
+		// Registering a pair the other way round replaces its handler in both orders.
+		playerFirst.register(EntityBody.ZOMBIE_BODY, EntityBody.PLAYER_BODY, zombieFirstHandler);
+		zombieFirstHandler.fixtureA = zombieFirstHandler.fixtureB = null;
+		assertTrue(playerFirst.dispatch(contact));
+		assertSame(zombie, zombieFirstHandler.fixtureA);
+		assertSame(player, zombieFirstHandler.fixtureB);
+		world.dispose();
+	}
+
+	/**
+	 * Tests that a contact dispatcher ignores untagged fixtures and pairs of categories with no handler,
+	 * and that fixtures without a category are left untagged.
+	 */
+	@Test
+	public void contactDispatcherIgnoresUnhandledContacts()
+	{
+		World world = new World(new Vector2(0, 0), true);
+		Fixture player = addBox(world, EntityBody.PLAYER_BODY, true);
+		Fixture zombie = addBox(world, EntityBody.ZOMBIE_BODY, true);
+		Fixture wall = addBox(world, EntityBody.MAP_WALL, false);
+		Fixture none = addBox(world, (short) 0, true);
+		assertNull(none.getUserData());
+		world.step(1 / 60f, 6, 2);
+
+		RecordingHandler handler = new RecordingHandler();
+		ContactDispatcher dispatcher = new ContactDispatcher();
+		dispatcher.register(EntityBody.PLAYER_BODY, EntityBody.MAP_WALL, handler);
+		dispatcher.register(EntityBody.BULLET_BODY, EntityBody.ZOMBIE_BODY, handler);
+
+		// The wall isn't tagged, and no handler has the player and a zombie.
+		assertFalse(dispatcher.dispatch(contactBetween(world, player, wall)));
+		assertFalse(dispatcher.dispatch(contactBetween(world, player, zombie)));
+		assertNull(handler.fixtureA);
+		world.dispose();
+	}
+
+	/**
+	 * Tests that only single-bit collision categories are accepted.
+	 */
+	@Test
+	public void contactDispatcherRejectsCategoriesOfSeveralBits()
+	{
+		ContactDispatcher dispatcher = new ContactDispatcher();
+		RecordingHandler handler = new RecordingHandler();
+		for (short category : new short[] {0, EntityBody.PLAYER_BODY | EntityBody.ZOMBIE_BODY, (short) 0xFFFF}) {
+			try {
+				dispatcher.register(category, EntityBody.PLAYER_BODY, handler);
+				fail("Category " + category + " was registered");
+			} catch (IllegalArgumentException e) {
+				// A category must be a single bit.
+			}
+		}
+
+		// The highest bit is a category like any other.
+		World world = new World(new Vector2(0, 0), true);
+		Fixture player = addBox(world, EntityBody.PLAYER_BODY, true);
+		Fixture last = addBox(world, (short) 0x8000, true);
+		world.step(1 / 60f, 6, 2);
+		dispatcher.register((short) 0x8000, EntityBody.PLAYER_BODY, handler);
+		assertTrue(dispatcher.dispatch(contactBetween(world, player, last)));
+		assertSame(last, handler.fixtureA);
+		world.dispose();
+	}
+
+	/**
+	 * Tests if a recorded game plays out the same way when replayed.
+	 */
+	@Test
+	public void replayIsDeterministic()
+	{
+		GameController controller = GameController.getInstance();
+		controller.setGameDifficulty(GameController.Difficulty.EASY);
+		controller.loadWalls(new FloatArray(new float[]{40, 70, 4, 20}));
+		try {
+			controller.startNewGame(42);
+			SimulationLoop loop = new SimulationLoop(controller);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			ReplayWriter writer = new ReplayWriter(out, controller, loop.getTickRate(), 100);
+			loop.setRecorder(writer);
+			int ticks = 1200;
+			for (int i = 0; i < ticks; i++) {
+				TickInput input = loop.getInput();
+				input.setMovement(i % 240 < 120 ? GameController.PLAYER_MOVE_LEFT : GameController.PLAYER_MOVE_UP);
+				input.setAimAngle(i * 0.01f);
+				if (i % 10 == 0)
+					input.shoot();
+				if (i % 300 == 299)
+					input.reload();
+				if (i > 1 && GameModel.getInstance().getZombies().isEmpty())
+					input.startNewRound();
+				loop.tick();
+			}
+			writer.close();
+			int checksum = ReplayFormat.checksum(controller);
+
+			controller.startNewGame(7);
+			ReplayPlayer player = new ReplayPlayer(controller);
+			assertEquals(ticks, player.play(new ReplayReader(new ByteArrayInputStream(out.toByteArray()))));
+			assertEquals(-1, player.getDivergedTick());
+			assertEquals(checksum, ReplayFormat.checksum(controller));
+			assertTrue(out.size() < ticks * 4);
+		} finally {
+			controller.loadWalls(new FloatArray());
+		}
+	}
+
+	/**
+	 * Tests that a replay plays the weapons firing hitscan shots as they were recorded, whatever the controller's.
+	 */
+	@Test
+	public void replayRestoresHitscanWeapons()
+	{
+		GameController controller = GameController.getInstance();
+		controller.setGameDifficulty(GameController.Difficulty.EASY);
+		controller.setHitscan(PlayerModel.Weapons.RIFLE, true);
+		try {
+			controller.startNewGame(42);
+			int shotsBefore = controller.getHitscanShots();
+			SimulationLoop loop = new SimulationLoop(controller);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			ReplayWriter writer = new ReplayWriter(out, controller, loop.getTickRate(), 100);
+			loop.setRecorder(writer);
+			int ticks = 600;
+			for (int i = 0; i < ticks; i++) {
+				TickInput input = loop.getInput();
+				input.setAimAngle(i * 0.02f);
+				if (i % 5 == 0)
+					input.shoot();
+				if (i % 150 == 149)
+					input.reload();
+				loop.tick();
+			}
+			writer.close();
+			int checksum = ReplayFormat.checksum(controller);
+			int hitscanShots = controller.getHitscanShots() - shotsBefore;
+			assertTrue(hitscanShots > 0);
+
+			controller.setHitscan(PlayerModel.Weapons.RIFLE, false);
+			ReplayReader reader = new ReplayReader(new ByteArrayInputStream(out.toByteArray()));
+			assertTrue(reader.isHitscan(PlayerModel.Weapons.RIFLE));
+			assertFalse(reader.isHitscan(PlayerModel.Weapons.PISTOL));
+			shotsBefore = controller.getHitscanShots();
+			ReplayPlayer player = new ReplayPlayer(controller);
+			assertEquals(ticks, player.play(reader));
+			assertTrue(controller.isHitscan(PlayerModel.Weapons.RIFLE));
+			assertEquals(-1, player.getDivergedTick());
+			assertEquals(checksum, ReplayFormat.checksum(controller));
+			assertEquals(hitscanShots, controller.getHitscanShots() - shotsBefore);
+		} finally {
+			controller.setHitscan(PlayerModel.Weapons.RIFLE, false);
+		}
+	}
+
+	/**
+	 * Plays a match with a scripted player and returns its checksum.
+	 */
+	private static int playMatch(long seed, int ticks)
+	{
+		Match match = new Match(GameController.Difficulty.HARD, seed);
+		try {
+			SimulationLoop loop = match.getLoop();
+			for (int i = 0; i < ticks; i++) {
+				TickInput input = loop.getInput();
+				match.getModel().getSelfPlayer().setHealth(PlayerModel.DEFAULT_HEALTH);
+				input.setMovement(i % 240 < 120 ? GameController.PLAYER_MOVE_LEFT : GameController.PLAYER_MOVE_RIGHT);
+				input.setAimAngle(i * 0.02f);
+				if (i % 5 == 0)
+					input.shoot();
+				if (i % 150 == 149)
+					input.reload();
+				loop.tick();
+			}
+			return ReplayFormat.checksum(match.getController());
+		} finally {
+			match.dispose();
+		}
+	}
+
+	/**
+	 * Tests that matches share no state: matches played at once on several threads end as a match played alone,
+	 * and don't touch the default match.
+	 */
+	@Test
+	public void matchesRunInParallel() throws Exception
+	{
+		GameController.getInstance().startNewGame(1);
+		int defaultChecksum = ReplayFormat.checksum(GameController.getInstance());
+		final int ticks = 900;
+		int expected = playMatch(42, ticks);
+
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for (int i = 0; i < 8; i++)
+				results.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						return playMatch(42, ticks);
+					}
+				}));
+			for (Future<Integer> result : results)
+				assertEquals(expected, (int) result.get());
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(defaultChecksum, ReplayFormat.checksum(GameController.getInstance()));
+		assertSame(GameModel.getInstance(), Match.getDefault().getModel());
+		Match match = new Match(GameController.Difficulty.EASY, 42);
+		assertNotSame(GameModel.getInstance(), match.getModel());
+		assertNotSame(GameController.getInstance(), match.getController());
+		match.dispose();
+		assertSame(GameController.getInstance(), Match.getDefault().getController());
+	}
 }
@@ -0,0 +1,191 @@
+package com.batataproductions.game.tests;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.batataproductions.game.controller.GameController;
+import com.batataproductions.game.controller.Match;
+import com.batataproductions.game.controller.SimulationLoop;
+import com.batataproductions.game.controller.TickInput;
+import com.batataproductions.game.model.GameModel;
+import com.batataproductions.game.model.entities.PlayerModel;
+import com.batataproductions.game.view.GameView;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Runs the game on libGDX's headless backend, as GameView does but without drawing: a SimulationLoop
+ * ticked one tick at a time with the input a script gives it. The sounds are loaded, and the headless
+ * audio plays nothing, so the models go through the same sound calls as in the game.
+ *
+ * Also measures the bytes the thread running the game allocates, to keep the ticks from producing garbage.
+ */
+public class HeadlessGame {
+
+	/**
+	 * Decides the input of every tick.
+	 */
+	public interface Script {
+
+		/**
+		 * @param game the game being played.
+		 * @param input the input applied on the tick.
+		 * @param tick the number of the tick since the script started.
+		 */
+		void play(HeadlessGame game, TickInput input, int tick);
+	}
+
+	/**
+	 * A script giving no input.
+	 */
+	public static final Script IDLE = new Script() {
+		@Override
+		public void play(HeadlessGame game, TickInput input, int tick) {
+		}
+	};
+
+	private static final String[] SOUNDS = {"ak47_shot.ogg", "ak47_draw.ogg", "ak47_reload.ogg", "glock_shot.ogg",
+			"glock_reload.ogg", "glock_draw.ogg", "knife_shot.ogg", "knife_draw.ogg", "footstep.ogg", "zombie_sound1.mp3",
+			"zombie_sound2.mp3", "zombie_sound3.mp3", "zombie_sound4.mp3", "zombie_sound5.mp3", "zombie_sound6.mp3"};
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private final Match match = Match.getDefault();
+	private final GameController controller = match.getController();
+	private final SimulationLoop loop;
+	private GameView.States state = GameView.States.GAME_RUNNING;
+
+	/**
+	 * Whether the player is healed before every tick.
+	 */
+	private boolean invulnerable;
+
+	/**
+	 * Starts a new game on the headless backend, starting the backend and loading the sounds if needed.
+	 *
+	 * @param difficulty the difficulty of the game.
+	 * @param seed the seed of the game.
+	 */
+	public HeadlessGame(GameController.Difficulty difficulty, long seed) {
+		boot(match.getModel());
+		controller.setGameDifficulty(difficulty);
+		controller.startNewGame(seed);
+		loop = new SimulationLoop(controller);
+		loop.setState(state);
+	}
+
+	/**
+	 * Starts the headless backend and gives the model the sounds, once.
+	 *
+	 * @param model the model of the default match.
+	 */
+	private static synchronized void boot(GameModel model) {
+		if (Gdx.app != null)
+			return;
+		new HeadlessApplication(new ApplicationAdapter() {});
+		AssetManager assets = new AssetManager();
+		for (String sound : SOUNDS)
+			assets.load(sound, Sound.class);
+		assets.finishLoading();
+		model.setAssetManager(assets);
+	}
+
+	/**
+	 * Sets whether the player is healed before every tick, so scripts can run as long as they need.
+	 *
+	 * @param invulnerable true to heal the player.
+	 */
+	public void setInvulnerable(boolean invulnerable) {
+		this.invulnerable = invulnerable;
+	}
+
+	/**
+	 * Sets the view state the next ticks run in.
+	 *
+	 * @param state the state.
+	 */
+	public void setState(GameView.States state) {
+		this.state = state;
+		loop.setState(state);
+	}
+
+	/**
+	 * @return the view state the ticks run in.
+	 */
+	public GameView.States getState() {
+		return state;
+	}
+
+	/**
+	 * @return the controller of the game.
+	 */
+	public GameController getController() {
+		return controller;
+	}
+
+	/**
+	 * @return the model of the game.
+	 */
+	public GameModel getModel() {
+		return match.getModel();
+	}
+
+	/**
+	 * @return the loop ticking the game.
+	 */
+	public SimulationLoop getLoop() {
+		return loop;
+	}
+
+	/**
+	 * @return the player.
+	 */
+	public PlayerModel getPlayer() {
+		return match.getModel().getSelfPlayer();
+	}
+
+	/**
+	 * Runs ticks with the input of a script.
+	 *
+	 * @param script the script.
+	 * @param ticks the number of ticks.
+	 */
+	public void run(Script script, int ticks) {
+		TickInput input = loop.getInput();
+		for (int tick = 0; tick < ticks; tick++) {
+			if (invulnerable)
+				getPlayer().setHealth(PlayerModel.DEFAULT_HEALTH);
+			script.play(this, input, tick);
+			loop.tick();
+		}
+	}
+
+	/**
+	 * Runs ticks with the input of a script several times and measures the bytes allocated by each run.
+	 * The JIT compiling code for the first time can allocate a few bytes on the thread that ran it, so a
+	 * run may allocate although the ticks don't: the least any run allocated is what the ticks allocate.
+	 *
+	 * @param script the script.
+	 * @param ticks the number of ticks of a run.
+	 * @param runs the number of runs.
+	 * @return the least bytes the thread running the ticks allocated in a run.
+	 */
+	public long measure(Script script, int ticks, int runs) {
+		long least = Long.MAX_VALUE;
+		for (int run = 0; run < runs; run++) {
+			long before = allocatedBytes();
+			run(script, ticks);
+			least = Math.min(least, allocatedBytes() - before);
+		}
+		return least;
+	}
+
+	/**
+	 * @return the bytes the current thread allocated since it started.
+	 */
+	private static long allocatedBytes() {
+		return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
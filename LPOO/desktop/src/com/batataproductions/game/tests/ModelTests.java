@@ -1,7 +1,10 @@
 package com.batataproductions.game.tests;
 
 import com.badlogic.gdx.math.Vector2;
+import com.batataproductions.game.model.EntityHandle;
 import com.batataproductions.game.model.GameModel;
+import com.batataproductions.game.model.GameRandom;
+import com.batataproductions.game.model.HandleTable;
 import com.batataproductions.game.model.entities.BloodSpillModel;
 import com.batataproductions.game.model.entities.BulletModel;
 import com.batataproductions.game.model.entities.EntityModel;
@@ -170,4 +173,87 @@ public class ModelTests {
 		assertEquals(GameModel.getInstance().getZombies().size(), 0);
 		assertEquals(GameModel.getInstance().getPlayers().size(), 1);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void GameRandomStreams()
+	{
+		GameRandom random = new GameRandom(42);
+		int[] spawns = new int[100];
+		for (int i = 0; i < spawns.length; i++)
+			spawns[i] = random.get(GameRandom.Streams.SPAWN).nextInt(3);
+
+		// The same seed gives the same numbers, whatever the other streams drew.
+		random.setSeed(42);
+		for (int i = 0; i < spawns.length; i++) {
+			random.get(GameRandom.Streams.AUDIO).nextFloat();
+			int spawn = random.get(GameRandom.Streams.SPAWN).nextInt(3);
+			assertEquals(spawns[i], spawn);
+			assertTrue(spawn >= 0 && spawn < 3);
+		}
+		assertEquals(42, random.getSeed());
+		assertNotEquals(random.get(GameRandom.Streams.AI).nextLong(), random.get(GameRandom.Streams.AUDIO).nextLong());
+	}
+
+	/**
+	 * Tests that handles resolve to their entities until these are removed, and never to the entity reusing a slot.
+	 */
+	@Test
+	public void handlesGoStale()
+	{
+		HandleTable<ZombieModel> table = new HandleTable<ZombieModel>(EntityHandle.Kind.ZOMBIE, 1);
+		ZombieModel first = new ZombieModel(0, 0, 0, ZombieModel.Sizes.SMALL);
+		ZombieModel second = new ZombieModel(0, 0, 0, ZombieModel.Sizes.BIG);
+		int handle = table.add(first);
+		assertEquals(handle, first.getHandle());
+		assertEquals(EntityHandle.Kind.ZOMBIE, EntityHandle.kindOf(handle));
+		assertSame(first, table.get(handle));
+
+		assertSame(first, table.remove(handle));
+		assertEquals(EntityHandle.NONE, first.getHandle());
+		assertNull(table.get(handle));
+		assertNull(table.remove(handle));
+
+		// The slot is reused with a new generation, and the table grows past its capacity.
+		int reused = table.add(second);
+		assertEquals(EntityHandle.slotOf(handle), EntityHandle.slotOf(reused));
+		assertNotEquals(handle, reused);
+		assertNull(table.get(handle));
+		assertSame(second, table.get(reused));
+		int grown = table.add(first);
+		assertSame(first, table.get(grown));
+		assertEquals(2, table.size());
+
+		// Handles of another kind or of no entity never resolve.
+		assertNull(table.get(EntityHandle.NONE));
+		assertNull(table.get(EntityHandle.of(EntityHandle.Kind.BULLET, EntityHandle.slotOf(reused), EntityHandle.generationOf(reused))));
+
+		table.clear();
+		assertEquals(0, table.size());
+		assertNull(table.get(reused));
+		assertNull(table.get(grown));
+		assertEquals(EntityHandle.NONE, second.getHandle());
+	}
+
+	/**
+	 * Tests that the game model removes entities by handle, ignoring stale handles.
+	 */
+	@Test
+	public void gameModelRemovesByHandle()
+	{
+		GameModel model = new GameModel();
+		BulletModel bullet = model.getBullet(PlayerModel.Weapons.RIFLE);
+		int handle = bullet.getHandle();
+		assertSame(bullet, model.resolveBullet(handle));
+		assertNull(model.resolveZombie(handle));
+
+		model.remove(handle);
+		assertEquals(0, model.getBullets().size());
+		assertNull(model.resolveBullet(handle));
+
+		// The pooled bullet comes back with a new handle; the old one doesn't remove it.
+		BulletModel reused = model.getBullet(PlayerModel.Weapons.RIFLE);
+		model.remove(handle);
+		assertEquals(1, model.getBullets().size());
+		assertSame(reused, model.resolveBullet(reused.getHandle()));
+	}
+}